@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.benchmarks;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import net.pkhapps.mvvm4vaadin.binder.BindingFactory;
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableList;
+import net.pkhapps.mvvm4vaadin.model.ModelFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures how changes to an observable list of components propagate to an attached container through
+ * {@link BindingFactory#bindChildren}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BindChildrenBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private UI ui;
+    private List<Span> children;
+    private DefaultObservableList<Span> model;
+    private Span extra;
+
+    @Setup
+    public void setUp() {
+        ui = MockVaadin.createUI();
+        children = IntStream.range(0, size).mapToObj(i -> new Span("Child " + i)).collect(Collectors.toList());
+        model = ModelFactory.observableList(children);
+        extra = new Span("Extra");
+        var container = new Div();
+        BindingFactory.bindChildren(model, container);
+        ui.add(container);
+        MockVaadin.roundtrip(ui);
+    }
+
+    @TearDown
+    public void tearDown() {
+        MockVaadin.close(ui);
+    }
+
+    @Benchmark
+    public void addAndRemove() {
+        model.add(extra);
+        model.remove(extra);
+        MockVaadin.roundtrip(ui);
+    }
+
+    @Benchmark
+    public void insertAndRemoveFirst() {
+        model.add(0, extra);
+        model.remove(0);
+        MockVaadin.roundtrip(ui);
+    }
+
+    @Benchmark
+    public void listChanged() {
+        model.setItems(children);
+        MockVaadin.roundtrip(ui);
+    }
+}
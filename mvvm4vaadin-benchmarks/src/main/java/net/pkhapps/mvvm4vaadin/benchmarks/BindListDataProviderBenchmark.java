@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.benchmarks;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.select.Select;
+import net.pkhapps.mvvm4vaadin.binder.BindingFactory;
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableList;
+import net.pkhapps.mvvm4vaadin.model.ModelFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures how changes to an observable list refresh an attached component through
+ * {@link BindingFactory#bindListDataProvider}, which refreshes the entire data provider on every change.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BindListDataProviderBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private UI ui;
+    private List<String> items;
+    private DefaultObservableList<String> model;
+
+    @Setup
+    public void setUp() {
+        ui = MockVaadin.createUI();
+        items = IntStream.range(0, size).mapToObj(i -> "Item " + i).collect(Collectors.toList());
+        model = ModelFactory.observableList(items);
+        var select = new Select<String>();
+        BindingFactory.bindListDataProvider(model, select);
+        ui.add(select);
+        MockVaadin.roundtrip(ui);
+    }
+
+    @TearDown
+    public void tearDown() {
+        MockVaadin.close(ui);
+    }
+
+    @Benchmark
+    public void addAndRemove() {
+        model.add("Extra");
+        model.remove(model.getSize() - 1);
+        MockVaadin.roundtrip(ui);
+    }
+
+    @Benchmark
+    public void setItems() {
+        model.setItems(items);
+        MockVaadin.roundtrip(ui);
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.benchmarks;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import net.pkhapps.mvvm4vaadin.binder.BindingFactory;
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableValue;
+import net.pkhapps.mvvm4vaadin.model.ModelFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of {@code bind*OnAttach} bindings, which add an attach listener, a detach listener and a
+ * {@link com.vaadin.flow.component.ComponentUtil} data entry to the component, and bind or unbind the model whenever
+ * the component is attached or detached. Each benchmark works on a subtree with a varying number of bound components.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BindOnAttachBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int bindings;
+
+    private UI ui;
+    private DefaultObservableValue<String> model;
+    private Div subtree;
+    private int counter;
+
+    @Setup
+    public void setUp() {
+        ui = MockVaadin.createUI();
+        model = ModelFactory.observableValue("hello");
+        subtree = createSubtree();
+    }
+
+    @TearDown
+    public void tearDown() {
+        MockVaadin.close(ui);
+    }
+
+    @Benchmark
+    public Div createSubtree() {
+        var root = new Div();
+        for (int i = 0; i < bindings; ++i) {
+            var span = new Span();
+            BindingFactory.bindTextOnAttach(model, span);
+            root.add(span);
+        }
+        return root;
+    }
+
+    @Benchmark
+    public void attachAndDetach() {
+        ui.add(subtree);
+        ui.remove(subtree);
+        MockVaadin.roundtrip(ui);
+    }
+
+    @Benchmark
+    public void setValueWhileAttached() {
+        ui.add(subtree);
+        model.setValue("hello " + ++counter);
+        ui.remove(subtree);
+        MockVaadin.roundtrip(ui);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.benchmarks;
+
+import net.pkhapps.mvvm4vaadin.model.ComputedValue;
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableValue;
+import net.pkhapps.mvvm4vaadin.model.ModelFactory;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how a change propagates through a diamond, where a source is mapped to a number of intermediate values that
+ * are all dependencies of a single {@link ComputedValue}. The computed value is recomputed once per intermediate value.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ComputedValueBenchmark {
+
+    @Param({"2", "10"})
+    public int width;
+
+    private DefaultObservableValue<Integer> source;
+    private List<ObservableValue<Integer>> intermediates; // Keeps the diamond from being garbage collected
+    private ComputedValue<Integer> computed;
+    private int counter;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        source = ModelFactory.observableValue(0);
+        intermediates = new ArrayList<>(width);
+        for (int i = 0; i < width; ++i) {
+            var offset = i;
+            intermediates.add(source.map(v -> v + offset));
+        }
+        computed = new ComputedValue<>(() -> intermediates.stream().mapToInt(ObservableValue::getValue).sum(),
+                intermediates);
+        computed.addListener(blackhole::consume, false);
+    }
+
+    @Benchmark
+    public void setValue() {
+        source.setValue(++counter);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.benchmarks;
+
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableValue;
+import net.pkhapps.mvvm4vaadin.model.ModelFactory;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how a change propagates through a chain of {@linkplain ObservableValue#map mapped values}, and what it costs
+ * to create such a chain.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapChainBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int depth;
+
+    private DefaultObservableValue<Integer> source;
+    private ObservableValue<Integer> last; // Keeps the chain from being garbage collected
+    private int counter;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        source = ModelFactory.observableValue(0);
+        last = createChain(source);
+        last.addListener(blackhole::consume, false);
+    }
+
+    @Benchmark
+    public void setValue() {
+        source.setValue(++counter);
+    }
+
+    @Benchmark
+    public ObservableValue<Integer> createChain() {
+        return createChain(source);
+    }
+
+    private ObservableValue<Integer> createChain(ObservableValue<Integer> source) {
+        var value = source;
+        for (int i = 0; i < depth; ++i) {
+            value = value.map(v -> v + 1);
+        }
+        return value;
+    }
+}
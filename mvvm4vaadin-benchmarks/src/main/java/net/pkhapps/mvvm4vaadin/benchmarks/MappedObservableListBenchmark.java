@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.benchmarks;
+
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableList;
+import net.pkhapps.mvvm4vaadin.model.ModelFactory;
+import net.pkhapps.mvvm4vaadin.model.ObservableList;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures how mutations of a {@link DefaultObservableList} propagate to a {@linkplain ObservableList#map mapped list}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MappedObservableListBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private List<Integer> items;
+    private DefaultObservableList<Integer> source;
+    private ObservableList<String> mapped;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        items = IntStream.range(0, size).boxed().collect(Collectors.toList());
+        source = ModelFactory.observableList(items);
+        mapped = source.map(String::valueOf);
+        mapped.addListener(blackhole::consume, false);
+    }
+
+    @Benchmark
+    public void addAndRemove() {
+        source.add(-1);
+        source.remove(source.getSize() - 1);
+    }
+
+    @Benchmark
+    public void setItems() {
+        source.setItems(items);
+    }
+
+    @Benchmark
+    public ObservableList<String> createMappedList() {
+        return source.map(String::valueOf);
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.benchmarks;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.server.VaadinSession;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Creates UIs that live entirely inside the JVM, without a servlet container or a browser. The UIs belong to a mocked
+ * session that is locked by the current thread, just like during a real request, so components can be attached and
+ * detached normally.
+ */
+final class MockVaadin {
+
+    private MockVaadin() {
+    }
+
+    /**
+     * Creates a new UI and makes it and its session current.
+     *
+     * @return the UI.
+     */
+    static UI createUI() {
+        var session = new MockSession();
+        session.lock();
+        VaadinSession.setCurrent(session);
+        var ui = new UI();
+        ui.getInternals().setSession(session);
+        UI.setCurrent(ui);
+        return ui;
+    }
+
+    /**
+     * Collects and discards the changes made to the given UI, like writing a response to the browser would. Without
+     * this, the changes would pile up between benchmark invocations.
+     *
+     * @param ui the UI.
+     */
+    static void roundtrip(UI ui) {
+        ui.getInternals().getStateTree().collectChanges(change -> {
+        });
+    }
+
+    /**
+     * Releases the session of the given UI and clears the current instances.
+     *
+     * @param ui the UI.
+     */
+    static void close(UI ui) {
+        ui.getSession().unlock();
+        UI.setCurrent(null);
+        VaadinSession.setCurrent(null);
+    }
+
+    private static final class MockSession extends VaadinSession {
+
+        private final Lock lock = new ReentrantLock();
+
+        private MockSession() {
+            super(null);
+        }
+
+        @Override
+        public Lock getLockInstance() {
+            return lock;
+        }
+
+        @Override
+        public void unlock() {
+            // There is no service to run pending access tasks
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.benchmarks;
+
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableValue;
+import net.pkhapps.mvvm4vaadin.model.ModelFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of {@link DefaultObservableValue#setValue(Object)} when the change is fanned out to a varying
+ * number of listeners.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ObservableValueBenchmark {
+
+    @Param({"0", "1", "10", "1000"})
+    public int listeners;
+
+    private DefaultObservableValue<Integer> value;
+    private int counter;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        value = ModelFactory.observableValue(0);
+        for (int i = 0; i < listeners; ++i) {
+            value.addListener(blackhole::consume, false);
+        }
+    }
+
+    @Benchmark
+    public void setValue() {
+        value.setValue(++counter);
+    }
+}
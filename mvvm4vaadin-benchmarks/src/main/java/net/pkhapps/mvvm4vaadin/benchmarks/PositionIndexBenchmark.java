@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.benchmarks;
+
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableList;
+import net.pkhapps.mvvm4vaadin.model.ModelFactory;
+import net.pkhapps.mvvm4vaadin.model.PositionIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Measures lookups in a {@link PositionIndex} mixed with edits at the head, in the middle and at the tail of the list.
+ * The index is maintained incrementally, so the cost should not depend on where the edits happen. The
+ * {@code itemIndex} benchmarks compare {@link DefaultObservableList#remove(Object)} with and without
+ * {@link DefaultObservableList#setItemIndexEnabled(boolean) the item index}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PositionIndexBenchmark {
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    @Param({"head", "middle", "tail"})
+    public String edit;
+
+    private int insertPosition;
+    private int itemPosition;
+    private int lookupKey;
+    private DefaultObservableList<Integer> list;
+    private PositionIndex<Integer, Integer> index;
+    private DefaultObservableList<Integer> indexedList;
+    private DefaultObservableList<Integer> plainList;
+
+    @Setup
+    public void setUp() {
+        List<Integer> items = IntStream.range(0, size).boxed().collect(Collectors.toList());
+        if (edit.equals("head")) {
+            insertPosition = 0;
+            itemPosition = 0;
+        } else if (edit.equals("middle")) {
+            insertPosition = size / 2;
+            itemPosition = size / 2;
+        } else {
+            insertPosition = size;
+            itemPosition = size - 1;
+        }
+        // The last item is always behind the edited position, so looking it up always sees the effect of the edit
+        lookupKey = size - 1;
+        list = ModelFactory.observableList(items);
+        index = list.indexBy(item -> item);
+        indexedList = ModelFactory.observableList(items);
+        indexedList.setItemIndexEnabled(true);
+        plainList = ModelFactory.observableList(items);
+    }
+
+    @Benchmark
+    public int lookupAfterEveryEdit() {
+        list.add(insertPosition, -1);
+        var position = index.indexOf(lookupKey);
+        list.remove(insertPosition);
+        return position + index.indexOf(lookupKey);
+    }
+
+    @Benchmark
+    public int tenLookupsPerEdit() {
+        list.add(insertPosition, -1);
+        list.remove(insertPosition);
+        int sum = 0;
+        for (int i = 0; i < 10; ++i) {
+            sum += index.indexOf(lookupKey - i);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public void itemIndexRemoveAndAdd() {
+        removeAndAdd(indexedList);
+    }
+
+    @Benchmark
+    public void noItemIndexRemoveAndAdd() {
+        removeAndAdd(plainList);
+    }
+
+    private void removeAndAdd(DefaultObservableList<Integer> list) {
+        var item = list.get(itemPosition);
+        list.remove(item);
+        list.add(itemPosition, item);
+    }
+}
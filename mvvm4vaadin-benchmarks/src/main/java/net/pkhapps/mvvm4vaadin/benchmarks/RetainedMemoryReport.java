@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.benchmarks;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.function.SerializableBiConsumer;
+import net.pkhapps.mvvm4vaadin.binder.BindingFactory;
+import net.pkhapps.mvvm4vaadin.diagnostics.MemoryFootprint;
+import net.pkhapps.mvvm4vaadin.model.ModelFactory;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Reports the estimated number of bytes retained per binding, which JMH cannot measure. For every kind of binding, it
+ * builds an attached subtree of bound components and an identical subtree of unbound components, and divides the
+ * difference between their {@linkplain MemoryFootprint footprints} by the number of bindings. This includes any state
+ * that the bindings set on the components, such as text nodes.
+ * <p>
+ * Run with {@code java -cp target/benchmarks.jar net.pkhapps.mvvm4vaadin.benchmarks.RetainedMemoryReport [bindings]}.
+ */
+public final class RetainedMemoryReport {
+
+    private static final String VAADIN_PACKAGE = "com.vaadin.flow";
+
+    private RetainedMemoryReport() {
+    }
+
+    public static void main(String[] args) {
+        var bindings = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        var kinds = new LinkedHashMap<String, SerializableBiConsumer<ObservableValue<String>, Span>>();
+        kinds.put("bindText", BindingFactory::bindText);
+        kinds.put("bindTextOnAttach", BindingFactory::bindTextOnAttach);
+        kinds.put("bindClassName", BindingFactory::bindClassName);
+        kinds.put("bindClassNameOnAttach", BindingFactory::bindClassNameOnAttach);
+
+        var baseline = measure(bindings, null);
+        System.out.printf("%-24s %16s%n", "Binding", "Est. bytes/binding");
+        kinds.forEach((name, binding) -> System.out.printf("%-24s %16d%n", name,
+                (measure(bindings, binding) - baseline) / bindings));
+    }
+
+    private static long measure(int bindings, SerializableBiConsumer<ObservableValue<String>, Span> binding) {
+        var ui = MockVaadin.createUI();
+        try {
+            var model = ModelFactory.observableValue("hello");
+            var subtree = new Div();
+            for (int i = 0; i < bindings; ++i) {
+                var span = new Span();
+                if (binding != null) {
+                    binding.accept(model, span);
+                }
+                subtree.add(span);
+            }
+            ui.add(subtree);
+            MockVaadin.roundtrip(ui);
+            return MemoryFootprint.of(new Root(ui, model), VAADIN_PACKAGE).getTotalBytes();
+        } finally {
+            MockVaadin.close(ui);
+        }
+    }
+
+    /**
+     * Holds the model, so that it is included even when nothing is bound to it.
+     */
+    private static final class Root {
+        private final UI ui;
+        private final ObservableValue<String> model;
+
+        private Root(UI ui, ObservableValue<String> model) {
+            this.ui = ui;
+            this.model = model;
+        }
+    }
+}
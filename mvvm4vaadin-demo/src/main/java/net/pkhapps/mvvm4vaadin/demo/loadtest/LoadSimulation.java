@@ -0,0 +1,215 @@
+package net.pkhapps.mvvm4vaadin.demo.loadtest;
+
+import com.vaadin.flow.component.UI;
+import net.pkhapps.mvvm4vaadin.demo.DemoApplication;
+import net.pkhapps.mvvm4vaadin.demo.data.TicketType;
+import net.pkhapps.mvvm4vaadin.demo.service.TicketService;
+import net.pkhapps.mvvm4vaadin.diagnostics.MemoryFootprint;
+import net.pkhapps.mvvm4vaadin.model.Observable;
+import net.pkhapps.mvvm4vaadin.model.metrics.ModelMetrics;
+import net.pkhapps.mvvm4vaadin.model.metrics.ModelMetricsRegistry;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Headless load simulation for sizing nodes. Starts the demo application without a web server, opens a number of
+ * simulated {@link SimulatedSession sessions} with a {@code TicketsView} each, and lets a pool of threads drive scripted
+ * interactions against them: select a ticket, add a ticket, edit its summary and delete it again. When done, it
+ * reports the latency percentiles and the number of model events per interaction. It also reports the heap retained
+ * per session, both measured and {@linkplain MemoryFootprint estimated}, and the serialized size of a session.
+ * <p>
+ * Run with {@code mvn spring-boot:run -Dstart-class=net.pkhapps.mvvm4vaadin.demo.loadtest.LoadSimulation}
+ * from the demo directory. The following options can be given as {@code -Dspring-boot.run.arguments="--sessions=500"}:
+ * <ul>
+ *     <li>{@code sessions}: the number of sessions to open (default 100)</li>
+ *     <li>{@code threads}: the number of threads driving the interactions (default 8)</li>
+ *     <li>{@code iterations}: the number of times each session runs the script (default 10)</li>
+ *     <li>{@code tickets}: the number of tickets in the database when the sessions are opened (default 20)</li>
+ * </ul>
+ */
+public class LoadSimulation {
+
+    private static final String SELECT = "select";
+    private static final String ADD = "add";
+    private static final String EDIT = "edit summary";
+    private static final String DELETE = "delete";
+
+    private final Map<String, Interaction> interactions = new LinkedHashMap<>();
+    private final ThreadLocal<long[]> eventsOnThread = ThreadLocal.withInitial(() -> new long[1]);
+
+    private LoadSimulation() {
+        Arrays.asList(SELECT, ADD, EDIT, DELETE).forEach(name -> interactions.put(name, new Interaction()));
+    }
+
+    public static void main(String[] args) throws Exception {
+        var context = new SpringApplicationBuilder(DemoApplication.class)
+                .web(WebApplicationType.NONE)
+                // The Vaadin servlet is not needed, as the sessions are simulated
+                .properties("spring.autoconfigure.exclude=com.vaadin.flow.spring.SpringBootAutoConfiguration",
+                        "logging.level.root=warn")
+                .run(args);
+        try {
+            var environment = context.getEnvironment();
+            var sessions = environment.getProperty("sessions", Integer.class, 100);
+            var threads = environment.getProperty("threads", Integer.class, 8);
+            var iterations = environment.getProperty("iterations", Integer.class, 10);
+            var tickets = environment.getProperty("tickets", Integer.class, 20);
+            new LoadSimulation().run(context.getBean(TicketService.class), sessions, threads, iterations, tickets);
+        } finally {
+            context.close();
+        }
+    }
+
+    private void run(TicketService ticketService, int sessionCount, int threadCount, int iterations, int tickets)
+            throws Exception {
+        for (int i = ticketService.getTickets().size(); i < tickets; ++i) {
+            ticketService.addTicket(TicketType.values()[i % TicketType.values().length], "Ticket " + i,
+                    "Generated by the load simulation");
+        }
+
+        System.out.printf("Opening %d sessions%n", sessionCount);
+        var heapBefore = usedHeap();
+        var sessions = new ArrayList<SimulatedSession>(sessionCount);
+        for (int i = 0; i < sessionCount; ++i) {
+            sessions.add(new SimulatedSession(ticketService));
+        }
+        var heapPerSession = (usedHeap() - heapBefore) / sessionCount;
+        var estimatedBytesPerSession = MemoryFootprint.of(sessions.get(0).getUI(), Set.of(ticketService),
+                "com.vaadin.flow", "net.pkhapps.mvvm4vaadin.demo").getTotalBytes();
+        var serializedBytesPerSession = serializedSize(sessions.get(0).getUI(), ticketService);
+
+        System.out.printf("Running %d iterations per session on %d threads%n", iterations, threadCount);
+        var registration = ModelMetricsRegistry.register(new ModelMetrics() {
+            @Override
+            public void eventFired(Observable<?> sender, Object event, int listenersInvoked, int propagationDepth,
+                                   long durationNanos) {
+                eventsOnThread.get()[0]++;
+            }
+        });
+        var executor = Executors.newFixedThreadPool(threadCount);
+        var start = System.nanoTime();
+        try {
+            runScripts(executor, sessions, iterations);
+        } finally {
+            executor.shutdown();
+            registration.remove();
+        }
+        var elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%n%-14s %8s %10s %10s %10s %10s %12s%n", "Interaction", "Count", "p50 ms", "p90 ms",
+                "p99 ms", "max ms", "events/op");
+        interactions.forEach((name, interaction) -> interaction.report(name));
+        var total = interactions.values().stream().mapToInt(Interaction::getCount).sum();
+        System.out.printf("%nThroughput: %.1f interactions/s%n", total / elapsedSeconds);
+        System.out.printf("Measured heap per session: %d bytes%n", heapPerSession);
+        System.out.printf("Estimated footprint per session: %d bytes%n", estimatedBytesPerSession);
+        System.out.printf("Serialized size per session: %d bytes%n", serializedBytesPerSession);
+    }
+
+    private void runScripts(ExecutorService executor, List<SimulatedSession> sessions, int iterations)
+            throws Exception {
+        var futures = new ArrayList<Future<?>>(sessions.size());
+        for (int i = 0; i < sessions.size(); ++i) {
+            var session = sessions.get(i);
+            var sessionNumber = i;
+            futures.add(executor.submit(() -> {
+                for (int iteration = 0; iteration < iterations; ++iteration) {
+                    var summary = "Session " + sessionNumber + ", iteration " + iteration;
+                    measure(SELECT, session::selectFirstTicket);
+                    measure(ADD, () -> session.addTicket(summary));
+                    measure(EDIT, () -> session.editSummary(summary + " (edited)"));
+                    measure(DELETE, session::deleteLastTicket);
+                }
+            }));
+        }
+        for (var future : futures) {
+            future.get();
+        }
+    }
+
+    private void measure(String name, BooleanSupplier interaction) {
+        var events = eventsOnThread.get();
+        events[0] = 0;
+        var start = System.nanoTime();
+        if (!interaction.getAsBoolean()) {
+            throw new IllegalStateException("Could not " + name);
+        }
+        interactions.get(name).record(System.nanoTime() - start, events[0]);
+    }
+
+    /**
+     * Returns the number of bytes the given UI takes when serialized, for instance for session replication. The
+     * service is a singleton that would not be replicated, so it is left out.
+     */
+    private static int serializedSize(UI ui, TicketService ticketService) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes) {
+            {
+                enableReplaceObject(true);
+            }
+
+            @Override
+            protected Object replaceObject(Object obj) {
+                return obj == ticketService ? null : obj;
+            }
+        }) {
+            out.writeObject(ui);
+        }
+        return bytes.size();
+    }
+
+    private static long usedHeap() {
+        var runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; ++i) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * The latencies and event counts of one kind of interaction.
+     */
+    private static class Interaction {
+
+        private final List<Long> latencies = new ArrayList<>();
+        private long events;
+
+        synchronized void record(long latencyNanos, long events) {
+            latencies.add(latencyNanos);
+            this.events += events;
+        }
+
+        synchronized int getCount() {
+            return latencies.size();
+        }
+
+        synchronized void report(String name) {
+            latencies.sort(null);
+            System.out.printf("%-14s %8d %10.3f %10.3f %10.3f %10.3f %12.1f%n", name, latencies.size(),
+                    percentile(0.5), percentile(0.9), percentile(0.99), percentile(1.0),
+                    latencies.isEmpty() ? 0.0 : (double) events / latencies.size());
+        }
+
+        private double percentile(double percentile) {
+            if (latencies.isEmpty()) {
+                return 0;
+            }
+            var index = (int) Math.ceil(percentile * latencies.size()) - 1;
+            return latencies.get(Math.max(index, 0)) / 1_000_000.0;
+        }
+    }
+}
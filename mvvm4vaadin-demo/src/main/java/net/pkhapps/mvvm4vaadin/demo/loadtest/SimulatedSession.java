@@ -0,0 +1,179 @@
+package net.pkhapps.mvvm4vaadin.demo.loadtest;
+
+import com.vaadin.flow.component.ClickEvent;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.HasLabel;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.dialog.Dialog;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.internal.nodefeature.ElementPropertyMap;
+import com.vaadin.flow.internal.nodefeature.PropertyChangeDeniedException;
+import com.vaadin.flow.server.VaadinSession;
+import net.pkhapps.mvvm4vaadin.demo.service.TicketService;
+import net.pkhapps.mvvm4vaadin.demo.ui.TicketView;
+import net.pkhapps.mvvm4vaadin.demo.ui.TicketsView;
+
+import java.util.Optional;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A user session with a {@link TicketsView} that lives entirely inside the JVM. Interactions are simulated the way the
+ * browser would trigger them: by firing client-originated events on the components, one request at a time with the
+ * session locked.
+ */
+class SimulatedSession {
+
+    private final Session session = new Session();
+    private final UI ui;
+
+    SimulatedSession(TicketService ticketService) {
+        ui = request(() -> {
+            var ui = new UI();
+            ui.getInternals().setSession(session);
+            UI.setCurrent(ui);
+            ui.add(new TicketsView(ticketService));
+            return ui;
+        });
+    }
+
+    UI getUI() {
+        return ui;
+    }
+
+    /**
+     * Clicks the panel of the first ticket in the list.
+     *
+     * @return whether there was a ticket to select.
+     */
+    boolean selectFirstTicket() {
+        return request(() -> find(ui, TicketsView.TicketPanel.class, Component::isVisible)
+                .map(panel -> click(panel))
+                .isPresent());
+    }
+
+    /**
+     * Opens the dialog from the header of the selected ticket, fills it in and clicks the add button.
+     *
+     * @return whether the dialog could be opened.
+     */
+    boolean addTicket(String summary) {
+        var opened = request(() -> find(ui, TicketView.class, Component::isVisible)
+                .flatMap(view -> find(view, Button.class, button -> "New Ticket".equals(button.getText())))
+                .map(button -> click(button))
+                .isPresent());
+        if (!opened) {
+            return false;
+        }
+        return request(() -> find(ui, Dialog.class, Dialog::isOpened).map(dialog -> {
+            find(dialog, TextField.class, hasLabel("Summary")).ifPresent(field -> setValueFromClient(field, summary));
+            find(dialog, Button.class, button -> "Add".equals(button.getText())).ifPresent(this::click);
+            return dialog;
+        }).isPresent());
+    }
+
+    /**
+     * Types the given text into the summary field of the selected ticket.
+     *
+     * @return whether a ticket was selected.
+     */
+    boolean editSummary(String summary) {
+        return request(() -> find(ui, TicketView.class, Component::isVisible)
+                .flatMap(view -> find(view, TextField.class, hasLabel("Summary")))
+                .map(field -> setValueFromClient(field, summary))
+                .isPresent());
+    }
+
+    /**
+     * Clicks the delete button of the last ticket in the list.
+     *
+     * @return whether there was a ticket to delete.
+     */
+    boolean deleteLastTicket() {
+        return request(() -> descendants(ui)
+                .filter(TicketsView.TicketPanel.class::isInstance)
+                .reduce((first, second) -> second)
+                .flatMap(panel -> find(panel, Button.class, button -> true))
+                .map(button -> click(button))
+                .isPresent());
+    }
+
+    /**
+     * Runs the given interaction like Vaadin runs a request: with the session locked and the UI and session current.
+     * Once the interaction is done, the changes are collected as if a response was written to the browser.
+     */
+    private <T> T request(Supplier<T> interaction) {
+        session.lock();
+        try {
+            VaadinSession.setCurrent(session);
+            UI.setCurrent(ui);
+            var result = interaction.get();
+            var currentUI = UI.getCurrent();
+            currentUI.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+            currentUI.getInternals().getStateTree().collectChanges(change -> {
+            });
+            return result;
+        } finally {
+            UI.setCurrent(null);
+            VaadinSession.setCurrent(null);
+            session.unlock();
+        }
+    }
+
+    private <C extends Component> C click(C component) {
+        ComponentUtil.fireEvent(component, new ClickEvent<>(component, true, 0, 0, 0, 0, 1, 0, false, false, false,
+                false));
+        return component;
+    }
+
+    private static TextField setValueFromClient(TextField field, String value) {
+        try {
+            field.getElement().getNode().getFeature(ElementPropertyMap.class).deferredUpdateFromClient("value", value)
+                    .run();
+        } catch (PropertyChangeDeniedException ex) {
+            throw new IllegalStateException("The value of the field cannot be changed from the client", ex);
+        }
+        return field;
+    }
+
+    private static <C extends HasLabel> Predicate<C> hasLabel(String label) {
+        return component -> label.equals(component.getLabel());
+    }
+
+    private static <C extends Component> Optional<C> find(Component root, Class<C> type, Predicate<C> predicate) {
+        return descendants(root).filter(type::isInstance).map(type::cast).filter(predicate).findFirst();
+    }
+
+    private static Stream<Component> descendants(Component root) {
+        return root.getChildren().flatMap(child -> Stream.concat(Stream.of(child), descendants(child)));
+    }
+
+    /**
+     * Session that is not connected to a service. It only provides the lock that Vaadin requires to be held when
+     * accessing the UI.
+     */
+    private static class Session extends VaadinSession {
+
+        private final Lock lock = new ReentrantLock();
+
+        Session() {
+            super(null);
+        }
+
+        @Override
+        public Lock getLockInstance() {
+            return lock;
+        }
+
+        @Override
+        public void unlock() {
+            // There is no service to run pending access tasks
+            lock.unlock();
+        }
+    }
+}
@@ -6,7 +6,7 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import net.pkhapps.mvvm4vaadin.demo.ui.model.TicketModel;
 
 import static net.pkhapps.mvvm4vaadin.binder.BindingFactory.bindTextOnAttach;
-import static net.pkhapps.mvvm4vaadin.model.ModelFactory.computedValue;
+import static net.pkhapps.mvvm4vaadin.model.ModelFactory.combine;
 
 public class TicketHeader extends HorizontalLayout {
 
@@ -17,8 +17,7 @@ public class TicketHeader extends HorizontalLayout {
         var addButton = new Button("New Ticket", event -> new AddTicketDialog(model.getParentModel()).open());
         add(title, addButton);
 
-        bindTextOnAttach(computedValue(() -> String.format("%s: %s (%s)",
-                        model.type().getValue(), model.summary().getValue(), model.state().getValue()),
-                model.type(), model.summary(), model.state()), title);
+        bindTextOnAttach(combine(model.type(), model.summary(), model.state(),
+                (type, summary, state) -> String.format("%s: %s (%s)", type, summary, state)), title);
     }
 }
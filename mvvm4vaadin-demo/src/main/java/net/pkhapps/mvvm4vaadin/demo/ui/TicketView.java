@@ -21,20 +21,24 @@ import com.vaadin.flow.component.select.Select;
 import com.vaadin.flow.component.textfield.TextArea;
 import com.vaadin.flow.component.textfield.TextField;
 import com.vaadin.flow.data.value.ValueChangeMode;
+import net.pkhapps.mvvm4vaadin.binder.FlushMode;
 import net.pkhapps.mvvm4vaadin.demo.data.TicketState;
 import net.pkhapps.mvvm4vaadin.demo.data.TicketType;
 import net.pkhapps.mvvm4vaadin.demo.service.TicketService;
 import net.pkhapps.mvvm4vaadin.demo.ui.model.TicketListModel;
 import net.pkhapps.mvvm4vaadin.demo.ui.model.TicketModel;
 
+import static net.pkhapps.mvvm4vaadin.binder.BindingFactory.bindBidirectionalOnAttach;
 import static net.pkhapps.mvvm4vaadin.binder.BindingFactory.bindFieldValueOnAttach;
-import static net.pkhapps.mvvm4vaadin.binder.BindingFactory.reverseBindFieldValueOnAttach;
+import static net.pkhapps.mvvm4vaadin.binder.BindingFactory.setFlushMode;
 
 public class TicketView extends VerticalLayout {
 
     public TicketView(TicketListModel parentModel, TicketService ticketService) {
         TicketModel ticketModel = new TicketModel(parentModel, ticketService);
         setSizeFull();
+        // Selecting a ticket re-populates the whole model, so only write the fields once per roundtrip
+        setFlushMode(this, FlushMode.BEFORE_CLIENT_RESPONSE);
 
         add(new TicketHeader(ticketModel));
 
@@ -68,14 +72,10 @@ public class TicketView extends VerticalLayout {
 
         add(type, summary, description, state, created, lastModified);
 
-        bindFieldValueOnAttach(ticketModel.type(), type);
-        reverseBindFieldValueOnAttach(type, ticketModel::updateType);
-        bindFieldValueOnAttach(ticketModel.summary(), summary);
-        reverseBindFieldValueOnAttach(summary, ticketModel::updateSummary);
-        bindFieldValueOnAttach(ticketModel.description(), description);
-        reverseBindFieldValueOnAttach(description, ticketModel::updateDescription);
-        bindFieldValueOnAttach(ticketModel.state(), state);
-        reverseBindFieldValueOnAttach(state, ticketModel::updateState);
+        bindBidirectionalOnAttach(ticketModel.type(), type, ticketModel::updateType);
+        bindBidirectionalOnAttach(ticketModel.summary(), summary, ticketModel::updateSummary);
+        bindBidirectionalOnAttach(ticketModel.description(), description, ticketModel::updateDescription);
+        bindBidirectionalOnAttach(ticketModel.state(), state, ticketModel::updateState);
         bindFieldValueOnAttach(ticketModel.createdOn().map(DateFormatters::formatDateTime), created);
         created.setReadOnly(true);
         bindFieldValueOnAttach(ticketModel.lastModifiedOn().map(DateFormatters::formatDateTime), lastModified);
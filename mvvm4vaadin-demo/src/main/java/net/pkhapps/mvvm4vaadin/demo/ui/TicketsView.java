@@ -42,7 +42,7 @@ public class TicketsView extends HorizontalLayout {
 
         bindVisibleOnAttach(model.tickets().empty(), noTicketsView);
         bindVisibleOnAttach(model.tickets().empty().map(MappingFunctions::invert), ticketListView);
-        bindVisibleOnAttach(model.selectedTicketId().map(Objects::nonNull), ticketView);
+        bindVisibleOnAttachAndPauseBindingsWhenHidden(model.selectedTicketId().map(Objects::nonNull), ticketView);
     }
 
     private void addTicket() {
@@ -87,7 +87,7 @@ public class TicketsView extends HorizontalLayout {
             bindTextOnAttach(model.summary(), summary);
             bindActionMethodOnAttach(model::delete, delete);
             bindMethodOnAttach(model.lastModified().map(DateFormatters::formatDateTime), summary, summary::setTitle);
-            bindClassNameOnAttach(model.selected().map(s -> s ? "selected" : null), this);
+            bindClassNamesOnAttach(classToggles().toggle("selected", model.selected()).build(), this);
             bindActionMethodOnAttach(model::select, this);
         }
 
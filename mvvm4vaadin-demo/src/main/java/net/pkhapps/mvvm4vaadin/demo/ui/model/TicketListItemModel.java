@@ -25,7 +25,7 @@ public class TicketListItemModel implements Serializable {
     public TicketListItemModel(TicketListModel parentModel, Ticket ticket) {
         this.parentModel = parentModel;
         this.ticketId = requireNonNull(ticket.getId());
-        this.selected = parentModel.selectedTicketId().map(ticketId::equals);
+        this.selected = parentModel.selectedTicketId().selected(ticketId);
         populate(ticket);
     }
 
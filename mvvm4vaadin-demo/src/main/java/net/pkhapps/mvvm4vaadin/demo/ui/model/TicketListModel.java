@@ -3,21 +3,23 @@ package net.pkhapps.mvvm4vaadin.demo.ui.model;
 import net.pkhapps.mvvm4vaadin.demo.data.Ticket;
 import net.pkhapps.mvvm4vaadin.demo.data.TicketType;
 import net.pkhapps.mvvm4vaadin.demo.service.TicketService;
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableKeySelection;
 import net.pkhapps.mvvm4vaadin.model.DefaultObservableList;
-import net.pkhapps.mvvm4vaadin.model.DefaultObservableValue;
+import net.pkhapps.mvvm4vaadin.model.ObservableKeySelection;
 import net.pkhapps.mvvm4vaadin.model.ObservableList;
-import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+import net.pkhapps.mvvm4vaadin.model.PositionIndex;
 
 import java.io.Serializable;
 
+import static net.pkhapps.mvvm4vaadin.model.ModelFactory.keySelection;
 import static net.pkhapps.mvvm4vaadin.model.ModelFactory.observableList;
-import static net.pkhapps.mvvm4vaadin.model.ModelFactory.observableValue;
 
 public class TicketListModel implements Serializable {
 
     private final TicketService ticketService;
     private final DefaultObservableList<TicketListItemModel> tickets = observableList();
-    private final DefaultObservableValue<Long> selectedTicketId = observableValue();
+    private final PositionIndex<TicketListItemModel, Long> ticketsById = tickets.indexBy(TicketListItemModel::getTicketId);
+    private final DefaultObservableKeySelection<Long> selectedTicketId = keySelection();
 
     public TicketListModel(TicketService ticketService) {
         this.ticketService = ticketService;
@@ -28,12 +30,12 @@ public class TicketListModel implements Serializable {
         return tickets;
     }
 
-    public ObservableValue<Long> selectedTicketId() {
+    public ObservableKeySelection<Long> selectedTicketId() {
         return selectedTicketId;
     }
 
     void ticketRefreshed(Ticket ticket) {
-        tickets.stream().filter(model -> model.getTicketId().equals(ticket.getId())).forEach(model -> model.populate(ticket));
+        ticketsById.find(ticket.getId()).ifPresent(model -> model.populate(ticket));
     }
 
     public void refresh() {
@@ -48,7 +50,10 @@ public class TicketListModel implements Serializable {
 
     public void deleteTicket(Long ticketId) {
         ticketService.deleteTicket(ticketId);
-        tickets.removeIf(model -> model.getTicketId().equals(ticketId));
+        var index = ticketsById.indexOf(ticketId);
+        if (index != -1) {
+            tickets.remove(index);
+        }
         if (selectedTicketId.isEqualTo(ticketId)) {
             selectedTicketId.setValue(null);
         }
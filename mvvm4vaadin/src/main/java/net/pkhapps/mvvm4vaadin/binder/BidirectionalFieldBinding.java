@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.binder;
+
+import com.vaadin.flow.component.HasValue;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.shared.Registration;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * Two-way binding between an {@link ObservableValue} and a field that keeps track of where a change originated. When
+ * the user changes the value of the field, the binding passes the value to the model. If the model fires an event with
+ * the same value while doing so, the event is an echo of the user's change and is not applied to the field, which
+ * already has the value. If the model adjusts the value, for instance by trimming it, the adjusted value is applied.
+ * This class is intended for internal use only and is not thread safe.
+ *
+ * @param <T> the type of the value.
+ * @see BindingFactory#bindBidirectional(ObservableValue, HasValue, SerializableConsumer)
+ */
+final class BidirectionalFieldBinding<T> implements Serializable {
+
+    private final HasValue<?, T> view;
+    private final SerializableConsumer<T> updater;
+    private final BindingListener<ObservableValue.ValueChangeEvent<T>> applier;
+    private boolean updatingModel;
+    private T valueFromField;
+
+    private BidirectionalFieldBinding(ObservableValue<T> model, HasValue<?, T> view, SerializableConsumer<T> updater) {
+        this.view = view;
+        this.updater = updater;
+        this.applier = new BindingListener<>("bindBidirectional", model, view, event -> {
+            if (event.getValue() == null) {
+                view.clear();
+            } else {
+                view.setValue(event.getValue());
+            }
+        });
+    }
+
+    /**
+     * Binds the given {@code model} and {@code view} to each other.
+     *
+     * @param model   the model to bind to.
+     * @param view    the field to bind to.
+     * @param updater the consumer that writes the values of the field to the model.
+     * @return a registration handle for removing the binding.
+     */
+    static <T> Registration bind(ObservableValue<T> model, HasValue<?, T> view, SerializableConsumer<T> updater) {
+        var binding = new BidirectionalFieldBinding<>(model, view, updater);
+        var modelRegistration = model.addListener(binding::onModelChange, true);
+        var viewRegistration = view.addValueChangeListener(binding::onFieldChange);
+        return () -> {
+            modelRegistration.remove();
+            viewRegistration.remove();
+            binding.applier.cancel();
+        };
+    }
+
+    private void onFieldChange(HasValue.ValueChangeEvent<T> event) {
+        if (!event.isFromClient()) {
+            return;
+        }
+        updatingModel = true;
+        valueFromField = event.getValue();
+        try {
+            updater.accept(event.getValue());
+        } finally {
+            updatingModel = false;
+            valueFromField = null;
+        }
+    }
+
+    private void onModelChange(ObservableValue.ValueChangeEvent<T> event) {
+        // A pending event must still be replaced with the latest value, or it would overwrite the field later
+        if (updatingModel && Objects.equals(event.getValue(), valueFromField) && !applier.hasPendingEvent()) {
+            return;
+        }
+        applier.accept(event);
+    }
+}
@@ -25,6 +25,7 @@ import com.vaadin.flow.function.SerializableRunnable;
 import com.vaadin.flow.function.SerializableSupplier;
 import com.vaadin.flow.shared.Registration;
 import net.pkhapps.mvvm4vaadin.model.Action;
+import net.pkhapps.mvvm4vaadin.model.Observable;
 import net.pkhapps.mvvm4vaadin.model.ObservableList;
 import net.pkhapps.mvvm4vaadin.model.ObservableValue;
 import net.pkhapps.mvvm4vaadin.model.WritableObservableValue;
@@ -32,8 +33,7 @@ import net.pkhapps.mvvm4vaadin.model.WritableObservableValue;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.Set;
 
 import static java.util.Objects.requireNonNull;
 
@@ -42,19 +42,44 @@ import static java.util.Objects.requireNonNull;
 // *onAttach methods, whereas it works on macOS. Don't know why, but using lambdas instead seems to do the trick.
 public final class BindingFactory {
 
-    private static final AtomicLong nextBindingId = new AtomicLong(System.currentTimeMillis());
-
     private BindingFactory() {
     }
 
+    /**
+     * Sets the flush mode of the bindings of the given {@code view} and its descendants, unless a descendant has a
+     * flush mode of its own. The flush mode applies to all bindings of {@link ObservableValue}s to components, except
+     * {@link #bindMethod(ObservableValue, SerializableConsumer)}. It is checked whenever the model changes, so it can
+     * be changed at any time.
+     *
+     * @param view      the component whose flush mode to set.
+     * @param flushMode the flush mode, or {@code null} to inherit the flush mode of the parent component.
+     * @see FlushMode
+     */
+    public static void setFlushMode(Component view, FlushMode flushMode) {
+        requireNonNull(view, "view must not be null");
+        BindingRegistry.setFlushMode(view, flushMode);
+    }
+
+    /**
+     * Returns the flush mode of the bindings of the given {@code view}, as inherited from its closest ancestor with a
+     * flush mode if the view does not have one of its own.
+     *
+     * @param view the component whose flush mode to get.
+     * @return the flush mode, never {@code null}.
+     */
+    public static FlushMode getFlushMode(Component view) {
+        requireNonNull(view, "view must not be null");
+        return BindingRegistry.resolveFlushMode(view);
+    }
+
     public static <V extends HasEnabled> Registration bindEnabled(ObservableValue<Boolean> model, V view) {
         requireNonNull(model, "model must not be null");
         requireNonNull(view, "view must not be null");
-        return model.addListener(event -> {
+        return addBindingListener(model, "bindEnabled", view, event -> {
             if (event.getValue() != null && !Objects.equals(event.getValue(), view.isEnabled())) {
                 view.setEnabled(event.getValue());
             }
-        }, true);
+        });
     }
 
     public static <V extends Component & HasEnabled> void bindEnabledOnAttach(ObservableValue<Boolean> model, V view) {
@@ -64,25 +89,57 @@ public final class BindingFactory {
     public static Registration bindVisible(ObservableValue<Boolean> model, Component view) {
         requireNonNull(model, "model must not be null");
         requireNonNull(view, "view must not be null");
-        return model.addListener(event -> {
+        return addBindingListener(model, "bindVisible", view, event -> {
             if (event.getValue() != null && !Objects.equals(event.getValue(), view.isVisible())) {
                 view.setVisible(event.getValue());
             }
-        }, true);
+        });
     }
 
     public static void bindVisibleOnAttach(ObservableValue<Boolean> model, Component view) {
         bindOnAttach(model, view, (m, v) -> bindVisible(m, v));
     }
 
+    /**
+     * Binds the visibility of the given {@code view} to the given {@code model}, like
+     * {@link #bindVisible(ObservableValue, Component)}. In addition, the bindings of all the descendants of the view
+     * are paused while the view is hidden. Paused bindings stay registered, but do not update their components. They
+     * only remember that they have missed changes, and apply the latest value of their models once when the view
+     * becomes visible again. Hiding the view does not touch its descendants at all. This saves the cost of updating
+     * components nobody can see, such as forms on hidden tabs.
+     * <p>
+     * The bindings of the view itself are not paused, nor are {@link #bindMethod(ObservableValue, SerializableConsumer)}
+     * and the action bindings.
+     *
+     * @param model the model to bind to.
+     * @param view  the component whose visibility to bind.
+     * @return a registration handle for removing the binding. Removing it also resumes any paused bindings.
+     */
+    public static Registration bindVisibleAndPauseBindingsWhenHidden(ObservableValue<Boolean> model, Component view) {
+        requireNonNull(model, "model must not be null");
+        requireNonNull(view, "view must not be null");
+        return decorateWithRemoveAction(addBindingListener(model, "bindVisibleAndPauseBindingsWhenHidden", view, event -> {
+            if (event.getValue() != null) {
+                if (!Objects.equals(event.getValue(), view.isVisible())) {
+                    view.setVisible(event.getValue());
+                }
+                BindingRegistry.setPaused(view, !event.getValue());
+            }
+        }), () -> BindingRegistry.setPaused(view, false));
+    }
+
+    public static void bindVisibleOnAttachAndPauseBindingsWhenHidden(ObservableValue<Boolean> model, Component view) {
+        bindOnAttach(model, view, (m, v) -> bindVisibleAndPauseBindingsWhenHidden(m, v));
+    }
+
     public static <V extends HasText> Registration bindText(ObservableValue<String> model, V view) {
         requireNonNull(model, "model must not be null");
         requireNonNull(view, "view must not be null");
-        return model.addListener(event -> {
+        return addBindingListener(model, "bindText", view, event -> {
             if (!Objects.equals(event.getValue(), view.getText())) {
                 view.setText(event.getValue());
             }
-        }, true);
+        });
     }
 
     public static <V extends Component & HasText> void bindTextOnAttach(ObservableValue<String> model, V view) {
@@ -92,14 +149,14 @@ public final class BindingFactory {
     public static <V extends HasTheme> Registration bindTheme(ObservableValue<String> model, V view) {
         requireNonNull(model, "model must not be null");
         requireNonNull(view, "view must not be null");
-        return model.addListener(event -> {
+        return addBindingListener(model, "bindTheme", view, event -> {
             if (event.getOldValue() != null && !event.getOldValue().isBlank()) {
                 view.getThemeNames().remove(event.getOldValue());
             }
             if (event.getValue() != null && !event.getValue().isBlank()) {
                 view.getThemeNames().add(event.getValue());
             }
-        }, true);
+        });
     }
 
     public static <V extends Component & HasTheme> void bindThemeOnAttach(ObservableValue<String> model, V view) {
@@ -109,28 +166,80 @@ public final class BindingFactory {
     public static <V extends HasStyle> Registration bindClassName(ObservableValue<String> model, V view) {
         requireNonNull(model, "model must not be null");
         requireNonNull(view, "view must not be null");
-        return model.addListener(event -> {
+        return addBindingListener(model, "bindClassName", view, event -> {
             if (event.getOldValue() != null && !event.getOldValue().isBlank()) {
                 view.getClassNames().remove(event.getOldValue());
             }
             if (event.getValue() != null && !event.getValue().isBlank()) {
                 view.getClassNames().add(event.getValue());
             }
-        }, true);
+        });
     }
 
     public static <V extends Component & HasStyle> void bindClassNameOnAttach(ObservableValue<String> model, V view) {
         bindOnAttach(model, view, (m, v) -> bindClassName(m, v));
     }
 
+    /**
+     * Binds the class names of the given {@code view} to the given {@code model}. Whenever the set changes, only the
+     * class names that were removed from or added to the set are applied to the view. Class names added to the view by
+     * other means are not touched. When the binding is removed, the class names it applied are removed as well.
+     *
+     * @param model the model to bind to.
+     * @param view  the component whose class names to bind.
+     * @return a registration handle for removing the binding.
+     * @see #classToggles()
+     */
+    public static <V extends HasStyle> Registration bindClassNames(ObservableValue<Set<String>> model, V view) {
+        requireNonNull(model, "model must not be null");
+        requireNonNull(view, "view must not be null");
+        var listener = new NameSetListener(() -> view.getClassNames());
+        return decorateWithRemoveAction(addBindingListener(model, "bindClassNames", view, listener),
+                listener::removeApplied);
+    }
+
+    public static <V extends Component & HasStyle> void bindClassNamesOnAttach(ObservableValue<Set<String>> model, V view) {
+        bindOnAttach(model, view, (m, v) -> bindClassNames(m, v));
+    }
+
+    /**
+     * Binds the theme names of the given {@code view} to the given {@code model}, in the same way as
+     * {@link #bindClassNames(ObservableValue, HasStyle)} binds class names.
+     *
+     * @param model the model to bind to.
+     * @param view  the component whose theme names to bind.
+     * @return a registration handle for removing the binding.
+     */
+    public static <V extends HasTheme> Registration bindThemeNames(ObservableValue<Set<String>> model, V view) {
+        requireNonNull(model, "model must not be null");
+        requireNonNull(view, "view must not be null");
+        var listener = new NameSetListener(() -> view.getThemeNames());
+        return decorateWithRemoveAction(addBindingListener(model, "bindThemeNames", view, listener),
+                listener::removeApplied);
+    }
+
+    public static <V extends Component & HasTheme> void bindThemeNamesOnAttach(ObservableValue<Set<String>> model, V view) {
+        bindOnAttach(model, view, (m, v) -> bindThemeNames(m, v));
+    }
+
+    /**
+     * Returns a new builder for a set of class names that are toggled on and off by boolean models, to be bound with
+     * {@link #bindClassNames(ObservableValue, HasStyle)}.
+     *
+     * @return a new builder.
+     */
+    public static ClassToggles classToggles() {
+        return new ClassToggles();
+    }
+
     public static <V extends HasValidation> Registration bindErrorMessage(ObservableValue<String> model, V view) {
         requireNonNull(model, "model must not be null");
         requireNonNull(view, "view must not be null");
-        return model.addListener(event -> {
+        return addBindingListener(model, "bindErrorMessage", view, event -> {
             if (!Objects.equals(model.getValue(), view.getErrorMessage())) {
                 view.setErrorMessage(model.getValue());
             }
-        }, true);
+        });
     }
 
     public static <V extends Component & HasValidation> void bindErrorMessageOnAttach(ObservableValue<String> model, V view) {
@@ -140,11 +249,11 @@ public final class BindingFactory {
     public static <V extends HasValidation> Registration bindInvalid(ObservableValue<Boolean> model, V view) {
         requireNonNull(model, "model must not be null");
         requireNonNull(view, "view must not be null");
-        return model.addListener(event -> {
+        return addBindingListener(model, "bindInvalid", view, event -> {
             if (event.getValue() != null && !Objects.equals(model.getValue(), view.isInvalid())) {
                 view.setInvalid(event.getValue());
             }
-        }, true);
+        });
     }
 
     public static <V extends Component & HasValidation> void bindInvalidOnAttach(ObservableValue<Boolean> model, V view) {
@@ -158,13 +267,13 @@ public final class BindingFactory {
     public static <V extends HasValue<?, T>, T> Registration bindFieldValue(ObservableValue<T> model, V view, T emptyValue) {
         requireNonNull(model, "model must not be null");
         requireNonNull(view, "view must not be null");
-        return decorateWithRemoveAction(model.addListener(event -> {
+        return decorateWithRemoveAction(addBindingListener(model, "bindFieldValue", view, event -> {
             if (Objects.equals(emptyValue, event.getValue())) {
                 view.clear();
             } else if (!Objects.equals(event.getValue(), view.getValue())) {
                 view.setValue(event.getValue());
             }
-        }, true), view::clear);
+        }), view::clear);
     }
 
     public static <V extends Component & HasValue<?, T>, T> void bindFieldValueOnAttach(ObservableValue<T> model, V view) {
@@ -197,14 +306,47 @@ public final class BindingFactory {
         reverseBindFieldValueOnAttach(view, model::setValue);
     }
 
+    /**
+     * Binds the value of the given {@code view} to the given {@code model} in both directions. Changes of the model are
+     * applied to the field, and changes made by the user are passed to the {@code updater}. Unlike a pair of
+     * {@link #bindFieldValue(ObservableValue, HasValue)} and {@link #reverseBindFieldValue(HasValue, SerializableConsumer)},
+     * the binding knows when a change of the model was caused by the field itself, and does not write the value back
+     * to the field. Values that the model adjusts while updating, such as trimmed strings, are still written back.
+     *
+     * @param model   the model to bind to.
+     * @param view    the field to bind to.
+     * @param updater the consumer that writes the values entered by the user to the model, such as an update method of
+     *                a view model.
+     * @return a registration handle for removing the binding.
+     */
+    public static <V extends HasValue<?, T>, T> Registration bindBidirectional(ObservableValue<T> model, V view, SerializableConsumer<T> updater) {
+        requireNonNull(model, "model must not be null");
+        requireNonNull(view, "view must not be null");
+        requireNonNull(updater, "updater must not be null");
+        return BidirectionalFieldBinding.bind(model, view, updater);
+    }
+
+    public static <V extends Component & HasValue<?, T>, T> void bindBidirectionalOnAttach(ObservableValue<T> model, V view, SerializableConsumer<T> updater) {
+        bindOnAttach(view, () -> bindBidirectional(model, view, updater));
+    }
+
+    public static <V extends HasValue<?, T>, T> Registration bindBidirectional(WritableObservableValue<T> model, V view) {
+        requireNonNull(model, "model must not be null");
+        return bindBidirectional(model, view, value -> model.setValue(value));
+    }
+
+    public static <V extends Component & HasValue<?, T>, T> void bindBidirectionalOnAttach(WritableObservableValue<T> model, V view) {
+        bindOnAttach(model, view, (m, v) -> bindBidirectional(m, v));
+    }
+
     public static <V extends HasValue<?, ?>> Registration bindReadOnly(ObservableValue<Boolean> model, V view) {
         requireNonNull(model, "model must not be null");
         requireNonNull(view, "view must not be null");
-        return model.addListener(event -> {
+        return addBindingListener(model, "bindReadOnly", view, event -> {
             if (event.getValue() != null && !Objects.equals(event.getValue(), view.isReadOnly())) {
                 view.setReadOnly(event.getValue());
             }
-        }, true);
+        });
     }
 
     public static <V extends Component & HasValue<?, ?>> void bindReadOnlyOnAttach(ObservableValue<Boolean> model, V view) {
@@ -214,11 +356,11 @@ public final class BindingFactory {
     public static <V extends HasValue<?, ?>> Registration bindRequired(ObservableValue<Boolean> model, V view) {
         requireNonNull(model, "model must not be null");
         requireNonNull(view, "view must not be null");
-        return model.addListener(event -> {
+        return addBindingListener(model, "bindRequired", view, event -> {
             if (event.getValue() != null && !Objects.equals(event.getValue(), view.isRequiredIndicatorVisible())) {
                 view.setRequiredIndicatorVisible(event.getValue());
             }
-        }, true);
+        });
     }
 
     public static <V extends Component & HasValue<?, ?>> void bindRequiredOnAttach(ObservableValue<Boolean> model, V view) {
@@ -228,7 +370,7 @@ public final class BindingFactory {
     public static <V extends HasListDataView<T, ?>, T> Registration bindListDataProvider(ObservableList<T> model, V view) {
         requireNonNull(model, "model must not be null");
         requireNonNull(view, "view must not be null");
-        return decorateWithRemoveAction(model.addListener(new SerializableConsumer<>() {
+        return decorateWithRemoveAction(addBindingListener(model, "bindListDataProvider", view, new SerializableConsumer<ObservableList.ItemChangeEvent<T>>() {
             private final ListDataProvider<T> dataProvider = new ListDataProvider<>(model.getItems());
 
             {
@@ -239,7 +381,7 @@ public final class BindingFactory {
             public void accept(ObservableList.ItemChangeEvent<T> event) {
                 dataProvider.refreshAll();
             }
-        }, true), () -> view.setItems(Collections.emptyList()));
+        }), () -> view.setItems(Collections.emptyList()));
     }
 
     public static <V extends Component & HasListDataView<T, ?>, T> void bindListDataProviderOnAttach(ObservableList<T> model, V view) {
@@ -249,7 +391,7 @@ public final class BindingFactory {
     public static <V extends HasOrderedComponents, T extends Component> Registration bindChildren(ObservableList<T> model, V view) {
         requireNonNull(model, "model must not be null");
         requireNonNull(view, "view must not be null");
-        return decorateWithRemoveAction(model.addListener(event -> {
+        return decorateWithRemoveAction(addBindingListener(model, "bindChildren", view, event -> {
             if (event.isItemAdded()) {
                 view.addComponentAtIndex(event.getNewPosition(), event.getItem());
             } else if (event.isItemRemoved()) {
@@ -263,7 +405,7 @@ public final class BindingFactory {
                 view.removeAll();
                 event.getSender().forEach(view::add);
             }
-        }, true), view::removeAll);
+        }), view::removeAll);
     }
 
     public static <V extends Component & HasOrderedComponents, T extends Component> void bindChildrenOnAttach(ObservableList<T> model, V view) {
@@ -273,12 +415,12 @@ public final class BindingFactory {
     public static <V extends HasComponents, T extends Component> Registration bindContent(ObservableValue<T> model, V view) {
         requireNonNull(model, "model must not be null");
         requireNonNull(view, "view must not be null");
-        return decorateWithRemoveAction(model.addListener(event -> {
+        return decorateWithRemoveAction(addBindingListener(model, "bindContent", view, event -> {
             view.removeAll();
             if (event.getValue() != null) {
                 view.add(event.getValue());
             }
-        }, true), view::removeAll);
+        }), view::removeAll);
     }
 
     public static <V extends Component & HasComponents, T extends Component> void bindContentOnAttach(ObservableValue<T> model, V view) {
@@ -288,7 +430,7 @@ public final class BindingFactory {
     public static <T> Registration bindMethod(ObservableValue<T> model, SerializableConsumer<T> method) {
         requireNonNull(model, "model must not be null");
         requireNonNull(method, "method must not be null");
-        return model.addListener(event -> method.accept(event.getValue()), true);
+        return addBindingListener(model, "bindMethod", method, event -> method.accept(event.getValue()));
     }
 
     public static <T> void bindMethodOnAttach(ObservableValue<T> model, Component view, SerializableConsumer<T> method) {
@@ -344,20 +486,12 @@ public final class BindingFactory {
     }
 
     private static <V extends Component> void bindOnAttach(V view, SerializableSupplier<Registration> registrationSupplier) {
-        var key = "binding" + nextBindingId.incrementAndGet();
-        view.addAttachListener(attachEvent -> setRegistration(view, registrationSupplier.get(), key));
-        view.addDetachListener(detachEvent -> getRegistration(view, key).ifPresent(Registration::remove));
-        if (view.isAttached()) {
-            setRegistration(view, registrationSupplier.get(), key);
-        }
-    }
-
-    private static void setRegistration(Component component, Registration registration, String key) {
-        ComponentUtil.setData(component, key, registration);
+        BindingRegistry.of(view).add(registrationSupplier);
     }
 
-    private static Optional<Registration> getRegistration(Component component, String key) {
-        return Optional.ofNullable(ComponentUtil.getData(component, key)).map(Registration.class::cast);
+    private static <E> Registration addBindingListener(Observable<E> model, String binding, Object view, SerializableConsumer<E> listener) {
+        var bindingListener = new BindingListener<>(binding, model, view, listener);
+        return decorateWithRemoveAction(model.addListener(bindingListener, true), bindingListener::cancel);
     }
 
     private static Registration decorateWithRemoveAction(Registration registration, SerializableRunnable removeAction) {
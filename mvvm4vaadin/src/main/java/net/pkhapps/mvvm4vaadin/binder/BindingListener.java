@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.binder;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.internal.StateTree;
+import net.pkhapps.mvvm4vaadin.jfr.FlightRecorderEvents;
+import net.pkhapps.mvvm4vaadin.model.Observable;
+import net.pkhapps.mvvm4vaadin.model.ObservableList;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+
+/**
+ * Listener wrapper that decides when the changes of a model are applied to a component. Changes are held back while the
+ * component is inside a {@linkplain BindingRegistry#setPaused(com.vaadin.flow.component.Component, boolean) paused}
+ * subtree, and value changes are also held back until the client response if the {@link FlushMode} of the component
+ * says so. Changes that are held back are coalesced, so that they are applied at most once:
+ * <ul>
+ *     <li>Value changes are coalesced into a single event that goes from the value before the first change to the
+ *     value after the last change.</li>
+ *     <li>List changes are coalesced into a single {@linkplain ObservableList.ItemChangeEvent#listChanged(ObservableList)
+ *     list changed} event, unless there was only one.</li>
+ * </ul>
+ * The state of the component is read from its {@link BindingRegistry}, which is only looked up once a flush mode or
+ * pause has been enabled, so in the default case, a change costs no more than a couple of field reads. Every time a change is applied, a
+ * {@link net.pkhapps.mvvm4vaadin.jfr.BindingAppliedEvent} is emitted if enabled. Bindings that do not target a
+ * component, such as method bindings, apply all changes right away. This class is intended for internal use only and
+ * is not thread safe.
+ *
+ * @param <E> the type of event.
+ */
+final class BindingListener<E> implements SerializableConsumer<E> {
+
+    private final String binding;
+    private final Observable<?> model;
+    private final Object target;
+    private BindingRegistry registry;
+    private final SerializableConsumer<E> listener;
+    private E pendingEvent;
+    private StateTree.ExecutionRegistration scheduledFlush;
+
+    /**
+     * Creates a new {@code BindingListener}.
+     *
+     * @param binding  the name of the binding method, such as {@code bindText}.
+     * @param model    the model that the listener listens to.
+     * @param target   the component that the listener updates, or the method for method bindings.
+     * @param listener the listener that applies the changes to the target.
+     */
+    BindingListener(String binding, Observable<?> model, Object target, SerializableConsumer<E> listener) {
+        this.binding = binding;
+        this.model = model;
+        this.target = target;
+        this.listener = listener;
+    }
+
+    /**
+     * Returns whether there is a change waiting to be applied.
+     */
+    boolean hasPendingEvent() {
+        return pendingEvent != null;
+    }
+
+    @Override
+    public void accept(E event) {
+        if (pendingEvent != null) {
+            pendingEvent = coalesce(pendingEvent, event);
+            return;
+        }
+        if (registry == null && (!(target instanceof Component)
+                || (registry = BindingRegistry.forListener((Component) target)) == null)) {
+            apply(event);
+            return;
+        }
+        if (registry.isPaused()) {
+            pendingEvent = event;
+            registry.addStaleListener(this);
+            return;
+        }
+        if (event instanceof ObservableValue.ValueChangeEvent
+                && registry.getFlushMode() == FlushMode.BEFORE_CLIENT_RESPONSE && registry.getUI() != null) {
+            pendingEvent = event;
+            scheduledFlush = registry.getUI().beforeClientResponse(registry.getComponent(), context -> flush());
+            return;
+        }
+        apply(event);
+    }
+
+    /**
+     * Applies the pending change, if any, after the subtree of the component has been resumed. A change that is
+     * scheduled for the client response is left for the client response.
+     */
+    void resume() {
+        if (scheduledFlush == null) {
+            applyPendingEvent();
+        }
+    }
+
+    /**
+     * Discards any pending change without applying it. This must be called when the binding is removed, so that the
+     * binding does not write to the component afterwards.
+     */
+    void cancel() {
+        pendingEvent = null;
+        if (registry != null) {
+            registry.removeStaleListener(this);
+        }
+        if (scheduledFlush != null) {
+            scheduledFlush.remove();
+            scheduledFlush = null;
+        }
+    }
+
+    private void flush() {
+        scheduledFlush = null;
+        if (registry.isPaused()) {
+            // Paused while waiting for the response, keep the change until the subtree is resumed
+            registry.addStaleListener(this);
+        } else {
+            applyPendingEvent();
+        }
+    }
+
+    private void applyPendingEvent() {
+        var event = pendingEvent;
+        pendingEvent = null;
+        if (event != null) {
+            apply(event);
+        }
+    }
+
+    private void apply(E event) {
+        var flightRecorderEvent = FlightRecorderEvents.beginBinding(binding, model, target);
+        listener.accept(event);
+        FlightRecorderEvents.commitBinding(flightRecorderEvent);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <E> E coalesce(E pendingEvent, E event) {
+        if (event instanceof ObservableValue.ValueChangeEvent) {
+            var valueChangeEvent = (ObservableValue.ValueChangeEvent) event;
+            return (E) new ObservableValue.ValueChangeEvent(valueChangeEvent.getSender(),
+                    ((ObservableValue.ValueChangeEvent) pendingEvent).getOldValue(), valueChangeEvent.getValue());
+        } else if (event instanceof ObservableList.ItemChangeEvent) {
+            return (E) ObservableList.ItemChangeEvent.listChanged(((ObservableList.ItemChangeEvent) event).getSender());
+        } else {
+            return event;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[%s(%s), listener=%s]", getClass().getSimpleName(), binding,
+                target.getClass().getSimpleName(), listener);
+    }
+}
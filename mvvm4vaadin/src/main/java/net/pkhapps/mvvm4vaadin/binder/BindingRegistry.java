@@ -0,0 +1,338 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.binder;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.function.SerializableSupplier;
+import com.vaadin.flow.shared.Registration;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Registry of the bindings of a single component that should only be active while the component is attached. The
+ * registry adds one attach listener and one detach listener to the component, no matter how many bindings it holds, and
+ * activates or deactivates all the bindings at once. This class is intended for internal use only and is not thread
+ * safe.
+ * <p>
+ * In addition, the registry caches the state that the {@link BindingListener}s of the component need on every change,
+ * so that they do not have to look it up from the ancestors of the component. The listeners only look up the registry
+ * once some component has a flush mode or pause enabled, see {@link #forListener(Component)}. The cached state is
+ * whether an ancestor is {@linkplain #setPaused(Component, boolean) paused}, the {@linkplain FlushMode flush mode},
+ * and the UI. The state is refreshed when the component is attached, when an ancestor is paused or resumed and when
+ * the flush mode is {@linkplain #setFlushMode(Component, FlushMode) changed}. Pausing does not deactivate the bindings. Instead, their listeners
+ * hold back the changes and register themselves as stale, and are resumed when the ancestor is resumed.
+ *
+ * @see BindingFactory
+ */
+final class BindingRegistry implements Serializable {
+
+    private static final int INITIAL_CAPACITY = 2;
+    private static final String PAUSED_KEY = BindingRegistry.class.getName() + ".paused";
+    // The number of components that have a flush mode other than IMMEDIATE or paused descendants. As long as there are
+    // none, binding listeners apply all changes right away and do not need registries.
+    private static final AtomicInteger flushModesAndPauses = new AtomicInteger();
+
+    private final Component component;
+    // The registration of a binding is stored at the same index as the binding itself, and is null when inactive
+    private SerializableSupplier<Registration>[] bindings;
+    private Registration[] registrations;
+    private int size;
+    private boolean attached;
+    private boolean active;
+    private boolean paused;
+    private FlushMode flushMode;
+    private UI ui;
+    private List<BindingListener<?>> staleListeners;
+
+    private BindingRegistry(Component component) {
+        this.component = component;
+        component.addAttachListener(attachEvent -> {
+            attached = true;
+            ui = component.getUI().orElse(null);
+            flushMode = resolveFlushMode(component);
+            // Update the paused state first, so that the bindings being activated see it
+            updatePaused();
+            activate();
+        });
+        component.addDetachListener(detachEvent -> {
+            attached = false;
+            ui = null;
+            deactivate();
+        });
+        attached = component.isAttached();
+        ui = attached ? component.getUI().orElse(null) : null;
+        flushMode = resolveFlushMode(component);
+        paused = hasPausedAncestor();
+        active = attached;
+    }
+
+    /**
+     * Returns the registry of the given {@code component}, creating it if it does not exist yet.
+     *
+     * @param component the component whose registry to return.
+     * @return the registry.
+     */
+    static BindingRegistry of(Component component) {
+        requireNonNull(component, "component must not be null");
+        var registry = ComponentUtil.getData(component, BindingRegistry.class);
+        if (registry == null) {
+            registry = new BindingRegistry(component);
+            ComponentUtil.setData(component, BindingRegistry.class, registry);
+        }
+        return registry;
+    }
+
+    /**
+     * Returns the registry that a {@link BindingListener} of the given {@code component} should read its state from.
+     * The registry is only looked up, and created if needed, once a flush mode other than
+     * {@link FlushMode#IMMEDIATE} or a pause has been enabled on some component. Until then, this method returns
+     * {@code null} without touching the component.
+     *
+     * @param component the component whose registry to return.
+     * @return the registry, or {@code null} if no listener needs one yet.
+     */
+    static BindingRegistry forListener(Component component) {
+        return flushModesAndPauses.get() > 0 ? of(component) : null;
+    }
+
+    /**
+     * Adds the given {@code binding} to this registry. The binding is activated right away if the component is
+     * attached.
+     *
+     * @param binding a supplier that creates the binding and returns a registration handle for removing it.
+     */
+    @SuppressWarnings("unchecked")
+    void add(SerializableSupplier<Registration> binding) {
+        requireNonNull(binding, "binding must not be null");
+        if (bindings == null) {
+            bindings = new SerializableSupplier[INITIAL_CAPACITY];
+            registrations = new Registration[INITIAL_CAPACITY];
+        } else if (size == bindings.length) {
+            bindings = Arrays.copyOf(bindings, size * 2);
+            registrations = Arrays.copyOf(registrations, size * 2);
+        }
+        bindings[size] = binding;
+        if (active) {
+            registrations[size] = binding.get();
+        }
+        size++;
+    }
+
+    /**
+     * Returns the component that this registry belongs to.
+     */
+    Component getComponent() {
+        return component;
+    }
+
+    /**
+     * Returns the number of bindings in this registry.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns whether the bindings in this registry are currently active.
+     */
+    boolean isActive() {
+        return active;
+    }
+
+    /**
+     * Returns whether an ancestor of the component is paused, as it was when the component was last attached or an
+     * ancestor was last paused or resumed.
+     */
+    boolean isPaused() {
+        return paused;
+    }
+
+    /**
+     * Registers the given {@code listener} as having held back a change while paused. The listener is resumed when
+     * this registry is no longer paused.
+     *
+     * @param listener the listener to register.
+     */
+    void addStaleListener(BindingListener<?> listener) {
+        if (staleListeners == null) {
+            staleListeners = new ArrayList<>();
+        }
+        if (!staleListeners.contains(listener)) {
+            staleListeners.add(listener);
+        }
+    }
+
+    /**
+     * Unregisters the given {@code listener} if it has been registered as stale.
+     *
+     * @param listener the listener to unregister.
+     */
+    void removeStaleListener(BindingListener<?> listener) {
+        if (staleListeners != null) {
+            staleListeners.remove(listener);
+        }
+    }
+
+    /**
+     * Returns the flush mode of the component, as it was when the component was last attached or the flush mode was
+     * last changed.
+     *
+     * @return the flush mode, never {@code null}.
+     */
+    FlushMode getFlushMode() {
+        return flushMode;
+    }
+
+    /**
+     * Returns the UI that the component is attached to.
+     *
+     * @return the UI, or {@code null} if the component is not attached.
+     */
+    UI getUI() {
+        return ui;
+    }
+
+    /**
+     * Returns the flush mode of the given {@code component}, which is inherited from the closest ancestor that has one
+     * if the component does not.
+     *
+     * @param component the component.
+     * @return the flush mode, never {@code null}.
+     */
+    static FlushMode resolveFlushMode(Component component) {
+        requireNonNull(component, "component must not be null");
+        for (var c = component; c != null; c = c.getParent().orElse(null)) {
+            var flushMode = ComponentUtil.getData(c, FlushMode.class);
+            if (flushMode != null) {
+                return flushMode;
+            }
+        }
+        return FlushMode.IMMEDIATE;
+    }
+
+    /**
+     * Sets the flush mode of the given {@code component} and refreshes the cached flush modes of the registries of the
+     * component and its descendants.
+     *
+     * @param component the component whose flush mode to set.
+     * @param flushMode the flush mode, or {@code null} to inherit the flush mode of the parent component.
+     */
+    static void setFlushMode(Component component, FlushMode flushMode) {
+        requireNonNull(component, "component must not be null");
+        var wasEnabled = isEnabled(ComponentUtil.getData(component, FlushMode.class));
+        ComponentUtil.setData(component, FlushMode.class, flushMode);
+        updateCount(wasEnabled, isEnabled(flushMode));
+        updateFlushModes(component);
+    }
+
+    private static boolean isEnabled(FlushMode flushMode) {
+        return flushMode != null && flushMode != FlushMode.IMMEDIATE;
+    }
+
+    private static void updateCount(boolean wasEnabled, boolean enabled) {
+        if (enabled && !wasEnabled) {
+            flushModesAndPauses.incrementAndGet();
+        } else if (wasEnabled && !enabled) {
+            flushModesAndPauses.decrementAndGet();
+        }
+    }
+
+    private static void updateFlushModes(Component component) {
+        var registry = ComponentUtil.getData(component, BindingRegistry.class);
+        if (registry != null) {
+            registry.flushMode = resolveFlushMode(component);
+        }
+        component.getChildren().forEach(BindingRegistry::updateFlushModes);
+    }
+
+    /**
+     * Pauses or resumes the bindings of all the descendants of the given {@code component}, but not of the component
+     * itself. While paused, the bindings do not update their components. When resumed, each binding that missed any
+     * changes applies them once.
+     *
+     * @param component the component whose descendants should be paused or resumed.
+     * @param paused    true to pause the bindings, false to resume them.
+     */
+    static void setPaused(Component component, boolean paused) {
+        requireNonNull(component, "component must not be null");
+        if (paused == Boolean.TRUE.equals(ComponentUtil.getData(component, PAUSED_KEY))) {
+            return;
+        }
+        ComponentUtil.setData(component, PAUSED_KEY, paused ? Boolean.TRUE : null);
+        updateCount(!paused, paused);
+        component.getChildren().forEach(BindingRegistry::updateSubtree);
+    }
+
+    private static void updateSubtree(Component component) {
+        var registry = ComponentUtil.getData(component, BindingRegistry.class);
+        if (registry != null) {
+            registry.updatePaused();
+        }
+        component.getChildren().forEach(BindingRegistry::updateSubtree);
+    }
+
+    private boolean hasPausedAncestor() {
+        for (var ancestor = component.getParent(); ancestor.isPresent(); ancestor = ancestor.get().getParent()) {
+            if (Boolean.TRUE.equals(ComponentUtil.getData(ancestor.get(), PAUSED_KEY))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void updatePaused() {
+        var wasPaused = paused;
+        paused = hasPausedAncestor();
+        if (wasPaused && !paused && staleListeners != null) {
+            var listeners = staleListeners;
+            staleListeners = null;
+            listeners.forEach(BindingListener::resume);
+        }
+    }
+
+    private void activate() {
+        if (active) {
+            return;
+        }
+        active = true;
+        for (int i = 0; i < size; ++i) {
+            registrations[i] = bindings[i].get();
+        }
+    }
+
+    private void deactivate() {
+        if (!active) {
+            return;
+        }
+        active = false;
+        for (int i = 0; i < size; ++i) {
+            var registration = registrations[i];
+            registrations[i] = null;
+            if (registration != null) {
+                registration.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.binder;
+
+import net.pkhapps.mvvm4vaadin.model.ModelFactory;
+import net.pkhapps.mvvm4vaadin.model.Observable;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Builder for an {@link ObservableValue} containing the set of class names whose toggles are currently on. Use it
+ * together with {@link BindingFactory#bindClassNames(ObservableValue, com.vaadin.flow.component.HasStyle)} to replace
+ * several conditional {@link BindingFactory#bindClassName(ObservableValue, com.vaadin.flow.component.HasStyle)}
+ * bindings with one binding and one listener. The resulting value works equally well with
+ * {@link BindingFactory#bindThemeNames(ObservableValue, com.vaadin.flow.component.HasTheme)}.
+ * <p>
+ * Example:
+ * <pre>{@code
+ * bindClassNamesOnAttach(classToggles()
+ *         .toggle("selected", model.selected())
+ *         .toggle("overdue", model.overdue())
+ *         .build(), this);
+ * }</pre>
+ *
+ * @see BindingFactory#classToggles()
+ */
+public final class ClassToggles {
+
+    private final Map<String, ObservableValue<Boolean>> toggles = new LinkedHashMap<>();
+
+    ClassToggles() {
+    }
+
+    /**
+     * Adds a class name that is included in the set whenever the given {@code toggle} is true. A {@code null} value
+     * is treated as false.
+     *
+     * @param className the class name to toggle.
+     * @param toggle    the model that decides whether the class name is included.
+     * @return this builder, for method chaining.
+     */
+    public ClassToggles toggle(String className, ObservableValue<Boolean> toggle) {
+        requireNonNull(className, "className must not be null");
+        requireNonNull(toggle, "toggle must not be null");
+        toggles.put(className, toggle);
+        return this;
+    }
+
+    /**
+     * Builds an observable value containing the class names whose toggles are currently true, in the order they were
+     * added. The value is recomputed whenever any of the toggles change.
+     *
+     * @return an observable, unmodifiable set of class names.
+     */
+    public ObservableValue<Set<String>> build() {
+        var toggles = new LinkedHashMap<>(this.toggles);
+        return ModelFactory.computedValue(() -> {
+            var classNames = new LinkedHashSet<String>();
+            toggles.forEach((className, toggle) -> {
+                if (Boolean.TRUE.equals(toggle.getValue())) {
+                    classNames.add(className);
+                }
+            });
+            return Collections.unmodifiableSet(classNames);
+        }, new ArrayList<Observable<?>>(toggles.values()));
+    }
+}
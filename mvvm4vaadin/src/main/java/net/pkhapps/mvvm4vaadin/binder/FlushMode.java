@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.binder;
+
+/**
+ * Enumeration of the ways in which the bindings created by {@link BindingFactory} can apply changes of their models to
+ * their components.
+ *
+ * @see BindingFactory#setFlushMode(com.vaadin.flow.component.Component, FlushMode)
+ */
+public enum FlushMode {
+
+    /**
+     * Every change is applied to the component right away. This is the default.
+     */
+    IMMEDIATE,
+
+    /**
+     * Changes are collected during the request and only the latest value is applied to the component, right before the
+     * response is sent to the client. This means that each component property is written at most once per roundtrip,
+     * no matter how many times the model changes. Until then, the component still has its old value. Changes made while
+     * the component is not attached to a UI are applied right away.
+     */
+    BEFORE_CLIENT_RESPONSE
+}
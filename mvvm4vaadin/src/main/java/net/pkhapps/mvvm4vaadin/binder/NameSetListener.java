@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.binder;
+
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableSupplier;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Listener that keeps a set of names, such as the class names or theme names of a component, in sync with an
+ * observable set. The listener remembers which names it has applied, and on every change only removes the names that
+ * are no longer in the set and adds the names that are new. Names added to the component by other means are left
+ * alone. This class is intended for internal use only and is not thread safe.
+ */
+final class NameSetListener implements SerializableConsumer<ObservableValue.ValueChangeEvent<Set<String>>> {
+
+    private final SerializableSupplier<Set<String>> names;
+    private final Set<String> applied = new HashSet<>();
+
+    /**
+     * Creates a new {@code NameSetListener}.
+     *
+     * @param names supplier of the set of names to keep in sync, such as {@code view::getClassNames}.
+     */
+    NameSetListener(SerializableSupplier<Set<String>> names) {
+        this.names = names;
+    }
+
+    @Override
+    public void accept(ObservableValue.ValueChangeEvent<Set<String>> event) {
+        var next = event.getValue() == null ? Set.<String>of() : event.getValue();
+        var target = names.get();
+        applied.removeIf(name -> {
+            if (!next.contains(name)) {
+                target.remove(name);
+                return true;
+            }
+            return false;
+        });
+        for (var name : next) {
+            if (name != null && !name.isBlank() && applied.add(name)) {
+                target.add(name);
+            }
+        }
+    }
+
+    /**
+     * Removes all the names that this listener has applied.
+     */
+    void removeApplied() {
+        if (!applied.isEmpty()) {
+            names.get().removeAll(applied);
+            applied.clear();
+        }
+    }
+}
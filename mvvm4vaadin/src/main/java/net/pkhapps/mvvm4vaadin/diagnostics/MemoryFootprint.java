@@ -0,0 +1,375 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.diagnostics;
+
+import com.vaadin.flow.component.Component;
+
+import java.lang.ref.Reference;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Diagnostic tool for estimating how much heap a UI or a model retains. Starting from a root object, it walks the
+ * observables, listener collections, derived values and bindings that are strongly reachable from the root, and reports
+ * the number of instances and the estimated number of bytes per class. This is intended for finding sessions that
+ * are bloated by, for instance, derived values or bindings that are never released.
+ * <p>
+ * To keep the walk from escaping into the rest of the application, only the fields of classes in the included packages
+ * are followed. These are the packages of this library, the package of the root object and its subpackages, and any
+ * packages passed to {@link #of(Object, String...)}. The walk also follows the elements of collections, maps and
+ * arrays, and the children of components. It does not follow weak references, as they do not retain anything.
+ * <p>
+ * The bytes of collections, arrays, strings and other JDK objects are attributed to the nearest object of an included
+ * class that refers to them. Lambdas are grouped by the class that declared them. All sizes are estimates that assume a
+ * 64-bit JVM with compressed references.
+ */
+public final class MemoryFootprint {
+
+    private static final String LAMBDA_MARKER = "$$Lambda";
+    private static final List<String> LIBRARY_PACKAGES = List.of("net.pkhapps.mvvm4vaadin.model",
+            "net.pkhapps.mvvm4vaadin.binder", "net.pkhapps.mvvm4vaadin.jfr");
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final Map<Class<?>, Long> shallowSizeCache = new ConcurrentHashMap<>();
+
+    private final List<Entry> entries;
+    private final long totalCount;
+    private final long totalBytes;
+
+    private MemoryFootprint(Collection<Entry> entries) {
+        var sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong(Entry::getEstimatedBytes).reversed().thenComparing(Entry::getClassName));
+        this.entries = Collections.unmodifiableList(sorted);
+        this.totalCount = sorted.stream().mapToLong(Entry::getCount).sum();
+        this.totalBytes = sorted.stream().mapToLong(Entry::getEstimatedBytes).sum();
+    }
+
+    /**
+     * Walks the object graph that is strongly reachable from the given {@code root} and returns its footprint.
+     *
+     * @param root             the object to start from, typically a UI, a view or a model.
+     * @param includedPackages any additional packages whose classes should be walked into, on top of the packages of
+     *                         this library and the package of the root object.
+     * @return the footprint.
+     */
+    public static MemoryFootprint of(Object root, String... includedPackages) {
+        return of(root, Collections.emptySet(), includedPackages);
+    }
+
+    /**
+     * Walks the object graph that is strongly reachable from the given {@code root}, leaving out the given
+     * {@code excluded} objects and everything that is only reachable through them, and returns its footprint. This is
+     * useful for leaving out shared objects that are not retained by the root alone, such as application services.
+     *
+     * @param root             the object to start from, typically a UI, a view or a model.
+     * @param excluded         the objects to leave out, compared by identity.
+     * @param includedPackages any additional packages whose classes should be walked into, on top of the packages of
+     *                         this library and the package of the root object.
+     * @return the footprint.
+     */
+    public static MemoryFootprint of(Object root, Collection<?> excluded, String... includedPackages) {
+        requireNonNull(root, "root must not be null");
+        requireNonNull(excluded, "excluded must not be null");
+        requireNonNull(includedPackages, "includedPackages must not be null");
+        var packages = new ArrayList<>(LIBRARY_PACKAGES);
+        packages.add(root.getClass().getPackageName());
+        packages.addAll(Arrays.asList(includedPackages));
+        return new Walker(packages, excluded).walk(root);
+    }
+
+    /**
+     * Returns the classes found during the walk, sorted by the estimated number of bytes in descending order.
+     *
+     * @return an unmodifiable list of entries.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    /**
+     * Returns the entry for the class with the given name.
+     *
+     * @param className the name of the class, as returned by {@link Entry#getClassName()}.
+     * @return the entry, or an empty {@code Optional} if no instances of the class were found.
+     */
+    public Optional<Entry> getEntry(String className) {
+        return entries.stream().filter(entry -> entry.getClassName().equals(className)).findFirst();
+    }
+
+    /**
+     * Returns the entry for the given class.
+     *
+     * @param type the class.
+     * @return the entry, or an empty {@code Optional} if no instances of the class were found.
+     */
+    public Optional<Entry> getEntry(Class<?> type) {
+        return getEntry(type.getName());
+    }
+
+    /**
+     * Returns the total number of instances found during the walk, excluding JDK objects.
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Returns the estimated total number of bytes retained by the root.
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Returns a human-readable report with one line per class, sorted by the estimated number of bytes in descending
+     * order.
+     *
+     * @return the report.
+     */
+    public String toReport() {
+        var nameWidth = Math.max(5, entries.stream().mapToInt(entry -> entry.getClassName().length()).max().orElse(0));
+        var format = "%-" + nameWidth + "s %10s %12s%n";
+        var report = new StringBuilder();
+        var formatter = new Formatter(report);
+        formatter.format(format, "Class", "Count", "Est. bytes");
+        for (var entry : entries) {
+            formatter.format(format, entry.getClassName(), entry.getCount(), entry.getEstimatedBytes());
+        }
+        formatter.format(format, "Total", totalCount, totalBytes);
+        return report.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toReport();
+    }
+
+    /**
+     * The number of instances of a class and the estimated number of bytes retained by them.
+     */
+    public static final class Entry {
+
+        private final String className;
+        private long count;
+        private long estimatedBytes;
+
+        private Entry(String className) {
+            this.className = className;
+        }
+
+        /**
+         * Returns the name of the class. For lambdas, this is the name of the declaring class followed by
+         * {@code $$Lambda}.
+         */
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * Returns the number of instances found.
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * Returns the estimated number of bytes of the instances, including any JDK objects that were attributed to
+         * them.
+         */
+        public long getEstimatedBytes() {
+            return estimatedBytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s[className=%s, count=%d, estimatedBytes=%d]", getClass().getSimpleName(),
+                    className, count, estimatedBytes);
+        }
+    }
+
+    private static final class Walker {
+
+        private final List<String> includedPackages;
+        private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        private final Deque<Object[]> pending = new ArrayDeque<>(); // Pairs of objects and owning entries
+        private final Map<String, Entry> entries = new HashMap<>();
+
+        private Walker(List<String> includedPackages, Collection<?> excluded) {
+            this.includedPackages = includedPackages;
+            visited.addAll(excluded);
+        }
+
+        private MemoryFootprint walk(Object root) {
+            pending.push(new Object[]{root, null});
+            while (!pending.isEmpty()) {
+                var next = pending.pop();
+                visit(next[0], (Entry) next[1]);
+            }
+            return new MemoryFootprint(entries.values());
+        }
+
+        private void visit(Object object, Entry owner) {
+            if (object == null || !visited.add(object)) {
+                return;
+            }
+            var type = object.getClass();
+            var entry = owner;
+            if (!isJdkClass(type) || owner == null) {
+                entry = entries.computeIfAbsent(className(type), Entry::new);
+                entry.count++;
+            }
+            entry.estimatedBytes += estimateSize(object);
+
+            if (object instanceof Reference || object instanceof WeakHashMap) {
+                return;
+            }
+            if (type.isArray()) {
+                if (!type.getComponentType().isPrimitive()) {
+                    for (int i = 0; i < Array.getLength(object); ++i) {
+                        push(Array.get(object, i), entry);
+                    }
+                }
+            } else if (object instanceof Map) {
+                for (var mapEntry : ((Map<?, ?>) object).entrySet()) {
+                    push(mapEntry.getKey(), entry);
+                    push(mapEntry.getValue(), entry);
+                }
+            } else if (object instanceof Collection) {
+                for (var element : (Collection<?>) object) {
+                    push(element, entry);
+                }
+            } else {
+                if (object instanceof Component) {
+                    ((Component) object).getChildren().forEach(child -> push(child, null));
+                }
+                for (var c = type; c != null && isIncluded(c); c = c.getSuperclass()) {
+                    for (var field : c.getDeclaredFields()) {
+                        if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+                            push(read(field, object), entry);
+                        }
+                    }
+                }
+            }
+        }
+
+        private void push(Object object, Entry owner) {
+            if (object != null && !visited.contains(object)) {
+                pending.push(new Object[]{object, owner});
+            }
+        }
+
+        private boolean isIncluded(Class<?> type) {
+            var packageName = type.getPackageName();
+            for (var includedPackage : includedPackages) {
+                if (packageName.equals(includedPackage) || packageName.startsWith(includedPackage + ".")) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static Object read(Field field, Object object) {
+            try {
+                field.setAccessible(true);
+                return field.get(object);
+            } catch (RuntimeException | IllegalAccessException ex) {
+                // The field belongs to a module that does not allow reflective access; skip it
+                return null;
+            }
+        }
+    }
+
+    private static boolean isJdkClass(Class<?> type) {
+        if (type.isArray()) {
+            return true;
+        }
+        var packageName = type.getPackageName();
+        return packageName.startsWith("java.") || packageName.startsWith("javax.") || packageName.startsWith("jdk.")
+                || packageName.startsWith("sun.");
+    }
+
+    private static String className(Class<?> type) {
+        var name = type.getName();
+        var lambda = name.indexOf(LAMBDA_MARKER);
+        return lambda == -1 ? name : name.substring(0, lambda + LAMBDA_MARKER.length());
+    }
+
+    /**
+     * Estimates the size of the given object, including the internal structure of collections, maps and strings that
+     * cannot be walked into directly.
+     */
+    private static long estimateSize(Object object) {
+        var type = object.getClass();
+        if (type.isArray()) {
+            var length = Array.getLength(object);
+            var componentType = type.getComponentType();
+            return align(ARRAY_HEADER + (long) length * (componentType.isPrimitive() ? primitiveSize(componentType) : REFERENCE));
+        }
+        var size = shallowSizeCache.computeIfAbsent(type, MemoryFootprint::shallowSize);
+        if (object instanceof String) {
+            size += align(ARRAY_HEADER + ((String) object).length());
+        } else if (object instanceof Map) {
+            size += hashTableSize(((Map<?, ?>) object).size());
+        } else if (object instanceof RandomAccess && object instanceof Collection) {
+            size += align(ARRAY_HEADER + (long) ((Collection<?>) object).size() * REFERENCE);
+        } else if (object instanceof Set) {
+            size += hashTableSize(((Set<?>) object).size()) + 48; // The map backing most sets
+        } else if (object instanceof Collection) {
+            size += 24L * ((Collection<?>) object).size(); // One node per element
+        }
+        return size;
+    }
+
+    private static long hashTableSize(int entries) {
+        // One node per entry plus a table with a load factor of 0.75
+        return entries * 32L + align(ARRAY_HEADER + (entries * 4L / 3) * REFERENCE);
+    }
+
+    private static long shallowSize(Class<?> type) {
+        long size = OBJECT_HEADER;
+        for (var c = type; c != null; c = c.getSuperclass()) {
+            for (var field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    size += field.getType().isPrimitive() ? primitiveSize(field.getType()) : REFERENCE;
+                }
+            }
+        }
+        return align(size);
+    }
+
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        } else {
+            return 1;
+        }
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
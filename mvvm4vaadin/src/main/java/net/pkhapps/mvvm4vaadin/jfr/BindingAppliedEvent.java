@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event for a binding applying a change in a model to a component.
+ */
+@Name("net.pkhapps.mvvm4vaadin.BindingApplied")
+@Label("Binding Applied")
+@Category({"MVVM4Vaadin", "Binding"})
+@Enabled(false)
+@StackTrace(false)
+public class BindingAppliedEvent extends Event {
+
+    @Label("Binding")
+    @Description("The name of the binding method, such as bindText")
+    String binding;
+
+    @Label("Observable Class")
+    String observableClass;
+
+    @Label("Observable Identity")
+    @Description("The identity hash code of the observable")
+    int observableIdentity;
+
+    @Label("Target Class")
+    @Description("The class of the bound component, or of the method for method bindings")
+    String targetClass;
+
+    @Label("Target Identity")
+    @Description("The identity hash code of the bound component, or of the method for method bindings")
+    int targetIdentity;
+}
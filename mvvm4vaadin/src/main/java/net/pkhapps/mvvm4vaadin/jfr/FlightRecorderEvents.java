@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.jfr;
+
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import net.pkhapps.mvvm4vaadin.model.ObservableList;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+
+/**
+ * Helper methods for emitting the Flight Recorder events of this library. All the events are disabled by default and
+ * can be enabled in the recording settings, for instance with {@code jfr configure} or in JDK Mission Control. When an
+ * event is disabled, the {@code begin} methods return {@code null} without allocating anything and the {@code commit}
+ * methods do nothing. The event types are looked up once, so checking whether an event is enabled is a single call on a
+ * cached {@link EventType}. This class is intended for internal use only.
+ */
+public final class FlightRecorderEvents {
+
+    private static final EventType OBSERVABLE_VALUE_CHANGED = EventType.getEventType(ObservableValueChangedEvent.class);
+    private static final EventType OBSERVABLE_LIST_CHANGED = EventType.getEventType(ObservableListChangedEvent.class);
+    private static final EventType COMPUTED_VALUE_RECOMPUTED = EventType.getEventType(ComputedValueRecomputedEvent.class);
+    private static final EventType ACTION_EXECUTED = EventType.getEventType(ActionExecutedEvent.class);
+    private static final EventType BINDING_APPLIED = EventType.getEventType(BindingAppliedEvent.class);
+
+    private FlightRecorderEvents() {
+    }
+
+    /**
+     * Begins an event for the given {@code observable} firing the given {@code event} to its listeners.
+     *
+     * @param observable the observable that fires the event.
+     * @param event      the event being fired.
+     * @return the Flight Recorder event to pass to {@link #commitObservableEvent(Event, int)}, or {@code null} if
+     * the event is disabled or not of a recorded type.
+     */
+    public static Event beginObservableEvent(Object observable, Object event) {
+        if (event instanceof ObservableValue.ValueChangeEvent && OBSERVABLE_VALUE_CHANGED.isEnabled()) {
+            var flightRecorderEvent = new ObservableValueChangedEvent();
+            flightRecorderEvent.observableClass = observable.getClass().getName();
+            flightRecorderEvent.observableIdentity = System.identityHashCode(observable);
+            flightRecorderEvent.begin();
+            return flightRecorderEvent;
+        } else if (event instanceof ObservableList.ItemChangeEvent && OBSERVABLE_LIST_CHANGED.isEnabled()) {
+            var flightRecorderEvent = new ObservableListChangedEvent();
+            flightRecorderEvent.observableClass = observable.getClass().getName();
+            flightRecorderEvent.observableIdentity = System.identityHashCode(observable);
+            flightRecorderEvent.changeType = changeType((ObservableList.ItemChangeEvent<?>) event);
+            flightRecorderEvent.begin();
+            return flightRecorderEvent;
+        }
+        return null;
+    }
+
+    /**
+     * Commits an event returned by {@link #beginObservableEvent(Object, Object)}.
+     *
+     * @param flightRecorderEvent the event to commit, may be {@code null}.
+     * @param listenerCount       the number of listeners that were notified.
+     */
+    public static void commitObservableEvent(Event flightRecorderEvent, int listenerCount) {
+        if (flightRecorderEvent instanceof ObservableValueChangedEvent) {
+            ((ObservableValueChangedEvent) flightRecorderEvent).listenerCount = listenerCount;
+            flightRecorderEvent.commit();
+        } else if (flightRecorderEvent instanceof ObservableListChangedEvent) {
+            ((ObservableListChangedEvent) flightRecorderEvent).listenerCount = listenerCount;
+            flightRecorderEvent.commit();
+        }
+    }
+
+    /**
+     * Begins an event for the given computed {@code value} re-computing its value.
+     *
+     * @param value the computed value.
+     * @return the Flight Recorder event to pass to {@link #commitRecomputation(ComputedValueRecomputedEvent, boolean)},
+     * or {@code null} if the event is disabled.
+     */
+    public static ComputedValueRecomputedEvent beginRecomputation(Object value) {
+        if (!COMPUTED_VALUE_RECOMPUTED.isEnabled()) {
+            return null;
+        }
+        var flightRecorderEvent = new ComputedValueRecomputedEvent();
+        flightRecorderEvent.observableClass = value.getClass().getName();
+        flightRecorderEvent.observableIdentity = System.identityHashCode(value);
+        flightRecorderEvent.begin();
+        return flightRecorderEvent;
+    }
+
+    /**
+     * Commits an event returned by {@link #beginRecomputation(Object)}.
+     *
+     * @param flightRecorderEvent the event to commit, may be {@code null}.
+     * @param changed             whether the value changed.
+     */
+    public static void commitRecomputation(ComputedValueRecomputedEvent flightRecorderEvent, boolean changed) {
+        if (flightRecorderEvent != null) {
+            flightRecorderEvent.changed = changed;
+            flightRecorderEvent.commit();
+        }
+    }
+
+    /**
+     * Begins an event for the given {@code action} being run.
+     *
+     * @param action the action.
+     * @return the Flight Recorder event to commit when the action has been run, or {@code null} if the event is
+     * disabled.
+     */
+    public static ActionExecutedEvent beginAction(Object action) {
+        if (!ACTION_EXECUTED.isEnabled()) {
+            return null;
+        }
+        var flightRecorderEvent = new ActionExecutedEvent();
+        flightRecorderEvent.actionClass = action.getClass().getName();
+        flightRecorderEvent.actionIdentity = System.identityHashCode(action);
+        flightRecorderEvent.begin();
+        return flightRecorderEvent;
+    }
+
+    /**
+     * Commits an event returned by {@link #beginAction(Object)}.
+     *
+     * @param flightRecorderEvent the event to commit, may be {@code null}.
+     */
+    public static void commitAction(ActionExecutedEvent flightRecorderEvent) {
+        if (flightRecorderEvent != null) {
+            flightRecorderEvent.commit();
+        }
+    }
+
+    /**
+     * Begins an event for a binding applying a change in the given {@code observable} to its {@code target}.
+     *
+     * @param binding    the name of the binding method, such as {@code bindText}.
+     * @param observable the observable that is bound.
+     * @param target     the component that is bound, or the method for method bindings.
+     * @return the Flight Recorder event to pass to {@link #commitBinding(BindingAppliedEvent)}, or {@code null} if the
+     * event is disabled.
+     */
+    public static BindingAppliedEvent beginBinding(String binding, Object observable, Object target) {
+        if (!BINDING_APPLIED.isEnabled()) {
+            return null;
+        }
+        var flightRecorderEvent = new BindingAppliedEvent();
+        flightRecorderEvent.binding = binding;
+        flightRecorderEvent.observableClass = observable.getClass().getName();
+        flightRecorderEvent.observableIdentity = System.identityHashCode(observable);
+        flightRecorderEvent.targetClass = target.getClass().getName();
+        flightRecorderEvent.targetIdentity = System.identityHashCode(target);
+        flightRecorderEvent.begin();
+        return flightRecorderEvent;
+    }
+
+    /**
+     * Commits an event returned by {@link #beginBinding(String, Object, Object)}.
+     *
+     * @param flightRecorderEvent the event to commit, may be {@code null}.
+     */
+    public static void commitBinding(BindingAppliedEvent flightRecorderEvent) {
+        if (flightRecorderEvent != null) {
+            flightRecorderEvent.commit();
+        }
+    }
+
+    private static String changeType(ObservableList.ItemChangeEvent<?> event) {
+        if (event.isItemAdded()) {
+            return "itemAdded";
+        } else if (event.isItemRemoved()) {
+            return "itemRemoved";
+        } else if (event.isItemMoved()) {
+            return "itemMoved";
+        } else {
+            return "listChanged";
+        }
+    }
+}
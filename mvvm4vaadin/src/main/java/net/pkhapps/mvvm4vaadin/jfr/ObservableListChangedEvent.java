@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event for an observable list notifying its listeners of a change. The duration includes all the
+ * listeners and any events fired by them.
+ */
+@Name("net.pkhapps.mvvm4vaadin.ObservableListChanged")
+@Label("Observable List Changed")
+@Category({"MVVM4Vaadin", "Model"})
+@Enabled(false)
+@StackTrace(false)
+public class ObservableListChangedEvent extends Event {
+
+    @Label("Observable Class")
+    String observableClass;
+
+    @Label("Observable Identity")
+    @Description("The identity hash code of the observable")
+    int observableIdentity;
+
+    @Label("Change Type")
+    String changeType;
+
+    @Label("Listener Count")
+    int listenerCount;
+}
@@ -16,6 +16,9 @@
 
 package net.pkhapps.mvvm4vaadin.model;
 
+import net.pkhapps.mvvm4vaadin.jfr.FlightRecorderEvents;
+import net.pkhapps.mvvm4vaadin.model.metrics.ModelMetricsRegistry;
+
 import java.util.Objects;
 
 /**
@@ -36,12 +39,16 @@ public abstract class AbstractComputedValue<T> extends AbstractObservableValue<T
      * Implementations should remember to call this method in their constructors to initialize the cache.
      */
     protected void updateCachedValue() {
+        var flightRecorderEvent = FlightRecorderEvents.beginRecomputation(this);
         var old = cachedValue;
         var newValue = computeValue();
-        if (!Objects.equals(old, newValue)) {
+        var changed = !Objects.equals(old, newValue);
+        ModelMetricsRegistry.get().valueRecomputed(this, changed);
+        if (changed) {
             this.cachedValue = newValue;
             fireValueChangeEvent(old, cachedValue);
         }
+        FlightRecorderEvents.commitRecomputation(flightRecorderEvent, changed);
     }
 
     /**
@@ -18,15 +18,33 @@ package net.pkhapps.mvvm4vaadin.model;
 
 import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.shared.Registration;
+import net.pkhapps.mvvm4vaadin.jfr.FlightRecorderEvents;
+import net.pkhapps.mvvm4vaadin.model.metrics.ModelMetrics;
+import net.pkhapps.mvvm4vaadin.model.metrics.ModelMetricsRegistry;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
 
 /**
  * Base class for implementations of {@link Observable}. This class is not thread safe.
+ * <p>
+ * Weak listeners are serialized together with the observable, as long as the object that owns them is serializable,
+ * and registered again when the observable is deserialized. Observables that are derived from other observables should
+ * register their weak listeners using {@link #listenWeaklyTo(Observable, SerializableConsumer, boolean)}, which also
+ * registers them again with sources that are not instances of this class.
  *
  * @param <EVENT> the type of event fired by the observable object.
  */
 public abstract class AbstractObservable<EVENT> implements Observable<EVENT> {
 
+    private static final ThreadLocal<int[]> propagationDepth = ThreadLocal.withInitial(() -> new int[1]);
     private ListenerCollection<EVENT> listeners;
+    private List<Subscription<?>> subscriptions;
 
     @Override
     public Registration addListener(SerializableConsumer<? super EVENT> listener, boolean fireInitialEvent) {
@@ -39,12 +57,103 @@ public abstract class AbstractObservable<EVENT> implements Observable<EVENT> {
 
     @Override
     public void addWeakListener(SerializableConsumer<? super EVENT> listener, boolean fireInitialEvent) {
-        getListeners().addWeakListener(listener);
+        addWeakListener(listener, fireInitialEvent, null);
+    }
+
+    private void addWeakListener(SerializableConsumer<? super EVENT> listener, boolean fireInitialEvent,
+                                 Object dependent) {
+        getListeners().addWeakListener(listener, dependent);
         if (fireInitialEvent) {
             fireInitialEvent(listener);
         }
     }
 
+    /**
+     * Registers the given {@code listener} with the given {@code source} using a weak reference, and remembers to do it
+     * again when this observable is deserialized. This observable must hold on to the listener for as long as it needs
+     * it.
+     *
+     * @param source           the observable to listen to.
+     * @param listener         the listener to register.
+     * @param fireInitialEvent whether the listener should receive an initial event right away.
+     * @param <E>              the type of event fired by the source.
+     * @see #stopListeningTo(Observable, SerializableConsumer)
+     */
+    protected <E> void listenWeaklyTo(Observable<E> source, SerializableConsumer<? super E> listener, boolean fireInitialEvent) {
+        requireNonNull(source, "source must not be null");
+        requireNonNull(listener, "listener must not be null");
+        if (subscriptions == null) {
+            subscriptions = new ArrayList<>(1);
+        }
+        var subscription = new Subscription<E>(source, listener);
+        subscriptions.add(subscription);
+        subscription.register(this, fireInitialEvent);
+    }
+
+    /**
+     * Unregisters a {@code listener} that was registered using
+     * {@link #listenWeaklyTo(Observable, SerializableConsumer, boolean)}. If the source is an {@code AbstractObservable},
+     * the listener is removed from it right away. Otherwise it remains registered until it is garbage collected.
+     *
+     * @param source   the observable to stop listening to.
+     * @param listener the listener to unregister.
+     * @param <E>      the type of event fired by the source.
+     */
+    @SuppressWarnings("unchecked")
+    protected <E> void stopListeningTo(Observable<E> source, SerializableConsumer<? super E> listener) {
+        if (subscriptions != null) {
+            subscriptions.removeIf(subscription -> subscription.source == source && subscription.listener == listener);
+        }
+        if (source instanceof AbstractObservable) {
+            ((AbstractObservable<E>) source).removeWeakListener(listener);
+        }
+    }
+
+    /**
+     * Returns the observables that this observable listens to using
+     * {@link #listenWeaklyTo(Observable, SerializableConsumer, boolean)}, in the order they were registered.
+     *
+     * @see DependencyGraph#dependenciesOf(Observable)
+     */
+    List<Observable<?>> getDependencies() {
+        var dependencies = new ArrayList<Observable<?>>();
+        if (subscriptions != null) {
+            subscriptions.forEach(subscription -> dependencies.add(subscription.source));
+        }
+        return dependencies;
+    }
+
+    /**
+     * Returns the observables that listen to this observable using
+     * {@link #listenWeaklyTo(Observable, SerializableConsumer, boolean)} and have not been garbage collected yet.
+     *
+     * @see DependencyGraph#dependentsOf(Observable)
+     */
+    List<Object> getDependents() {
+        return listeners == null ? new ArrayList<>() : listeners.getDependents();
+    }
+
+    /**
+     * Returns the listeners that have been registered with this observable using strong references.
+     *
+     * @see DependencyGraph#listenersOf(Observable)
+     */
+    List<Object> getStrongListeners() {
+        return listeners == null ? new ArrayList<>() : listeners.getStrongListeners();
+    }
+
+    /**
+     * Removes the given weak {@code listener} right away instead of waiting for it to be garbage collected. This is
+     * used by derived observables that switch between sources.
+     *
+     * @param listener the listener to remove.
+     */
+    void removeWeakListener(SerializableConsumer<? super EVENT> listener) {
+        if (listeners != null) {
+            listeners.removeWeakListener(listener);
+        }
+    }
+
     /**
      * Fires an initial event to the given {@code listener} so that it can synchronize itself with the state of this
      * observable.
@@ -61,13 +170,60 @@ public abstract class AbstractObservable<EVENT> implements Observable<EVENT> {
     }
 
     /**
-     * Fires the given {@code event} to all registered listeners.
+     * Fires the given {@code event} to all registered listeners, and reports it to the registered
+     * {@linkplain ModelMetricsRegistry metrics}, if any, and to Flight Recorder if the corresponding event is enabled.
      *
      * @param event the event to fire.
      */
     protected void fireEvent(EVENT event) {
-        if (listeners != null) {
-            listeners.fireEvent(event);
+        var flightRecorderEvent = FlightRecorderEvents.beginObservableEvent(this, event);
+        var metrics = ModelMetricsRegistry.get();
+        int listenersInvoked;
+        if (metrics == ModelMetrics.NOOP) {
+            listenersInvoked = listeners == null ? 0 : listeners.fireEvent(event);
+        } else {
+            var depth = propagationDepth.get();
+            depth[0]++;
+            try {
+                var start = System.nanoTime();
+                listenersInvoked = listeners == null ? 0 : listeners.fireEvent(event);
+                metrics.eventFired(this, event, listenersInvoked, depth[0], System.nanoTime() - start);
+            } finally {
+                depth[0]--;
+            }
+        }
+        FlightRecorderEvents.commitObservableEvent(flightRecorderEvent, listenersInvoked);
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (subscriptions != null) {
+            // AbstractObservables serialize their weak listeners themselves. The other sources may not have been
+            // completely deserialized yet, so wait until the entire graph has been read.
+            in.registerValidation(() -> subscriptions.stream()
+                    .filter(subscription -> !(subscription.source instanceof AbstractObservable))
+                    .forEach(subscription -> subscription.register(this, false)), 0);
+        }
+    }
+
+    private static final class Subscription<E> implements Serializable {
+
+        private final Observable<E> source;
+        private final SerializableConsumer<? super E> listener;
+
+        private Subscription(Observable<E> source, SerializableConsumer<? super E> listener) {
+            this.source = source;
+            this.listener = listener;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void register(AbstractObservable<?> dependent, boolean fireInitialEvent) {
+            if (source instanceof AbstractObservable) {
+                // Remember the dependent so that the dependency graph can be introspected
+                ((AbstractObservable<E>) source).addWeakListener(listener, fireInitialEvent, dependent);
+            } else {
+                source.addWeakListener(listener, fireInitialEvent);
+            }
         }
     }
 }
@@ -16,6 +16,8 @@
 
 package net.pkhapps.mvvm4vaadin.model;
 
+import com.vaadin.flow.function.SerializableBiFunction;
+import com.vaadin.flow.function.SerializableComparator;
 import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.function.SerializableFunction;
 import com.vaadin.flow.function.SerializablePredicate;
@@ -37,6 +39,7 @@ public abstract class AbstractObservableList<T> extends AbstractObservable<Obser
 
     private final DefaultObservableValue<Boolean> empty = new DefaultObservableValue<>(true);
     private final DefaultObservableValue<Integer> size = new DefaultObservableValue<>(0);
+    private ListenerCollection<ItemChangeEvent<T>> indexListeners;
 
     /**
      * Updates the {@link #empty()} and {@link #size()} observable values with the latest data from the {@link
@@ -48,6 +51,28 @@ public abstract class AbstractObservableList<T> extends AbstractObservable<Obser
         size.setValue(items.size());
     }
 
+    /**
+     * Registers a listener using a weak reference that is notified of every change before any of the ordinary
+     * listeners. This is used by {@link PositionIndex} to make sure the index is up-to-date whenever the ordinary
+     * listeners are notified.
+     *
+     * @param listener the listener to register.
+     */
+    void addWeakIndexListener(SerializableConsumer<? super ItemChangeEvent<T>> listener) {
+        if (indexListeners == null) {
+            indexListeners = new ListenerCollection<>(this);
+        }
+        indexListeners.addWeakListener(listener);
+    }
+
+    @Override
+    protected void fireEvent(ItemChangeEvent<T> event) {
+        if (indexListeners != null) {
+            indexListeners.fireEvent(event);
+        }
+        super.fireEvent(event);
+    }
+
     @Override
     protected void fireInitialEvent(SerializableConsumer<? super ItemChangeEvent<T>> listener) {
         listener.accept(ItemChangeEvent.listChanged(this));
@@ -78,6 +103,43 @@ public abstract class AbstractObservableList<T> extends AbstractObservable<Obser
         throw new UnsupportedOperationException("Not implemented yet"); // TODO Implement me
     }
 
+    @Override
+    public <K> ObservableMap<K, ObservableList<T>> groupBy(SerializableFunction<T, K> keyFunction) {
+        return new GroupedObservableMap<>(this, keyFunction);
+    }
+
+    @Override
+    public <K> ObservableMap<K, ObservableList<T>> groupByObservable(SerializableFunction<T, ObservableValue<K>> keyFunction) {
+        return GroupedObservableMap.withObservableKeys(this, keyFunction);
+    }
+
+    @Override
+    public ObservableValue<Integer> count(SerializablePredicate<T> predicate) {
+        return new ListAggregate.Count<>(this, predicate);
+    }
+
+    @Override
+    public ObservableValue<Long> sum(SerializableToLongFunction<T> function) {
+        return new ListAggregate.Sum<>(this, function);
+    }
+
+    @Override
+    public ObservableValue<T> min(SerializableComparator<T> comparator) {
+        requireNonNull(comparator, "comparator must not be null");
+        return reduce(null, SerializableFunction.identity(), (a, b) -> a == null || (b != null && comparator.compare(b, a) < 0) ? b : a);
+    }
+
+    @Override
+    public ObservableValue<T> max(SerializableComparator<T> comparator) {
+        requireNonNull(comparator, "comparator must not be null");
+        return reduce(null, SerializableFunction.identity(), (a, b) -> a == null || (b != null && comparator.compare(b, a) > 0) ? b : a);
+    }
+
+    @Override
+    public <A> ObservableValue<A> reduce(A identity, SerializableFunction<T, A> mapper, SerializableBiFunction<A, A, A> combiner) {
+        return new ListAggregate.Reduce<>(this, identity, mapper, combiner);
+    }
+
     private static class MappedObservableList<E, T> extends AbstractObservableList<E> {
 
         private final ObservableList<T> source;
@@ -90,7 +152,7 @@ public abstract class AbstractObservableList<T> extends AbstractObservable<Obser
         private MappedObservableList(ObservableList<T> source, SerializableFunction<T, E> mappingFunction) {
             this.source = requireNonNull(source, "source must not be null");
             this.mappingFunction = requireNonNull(mappingFunction, "mappingFunction must not be null");
-            source.addWeakListener(sourceItemListener, true);
+            listenWeaklyTo(source, sourceItemListener, true);
         }
 
         private void onSourceItemChangeEvent(ItemChangeEvent<T> event) {
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import com.vaadin.flow.function.SerializableBiPredicate;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableFunction;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Base class for implementations of {@link ObservableMap}. Subclasses should pay special attention to the {@link
+ * #updateObservableValues()} method. This class is not thread safe.
+ *
+ * @param <K> the type of the keys of the map.
+ * @param <V> the type of the values of the map.
+ */
+public abstract class AbstractObservableMap<K, V> extends AbstractObservable<ObservableMap.EntryChangeEvent<K, V>> implements ObservableMap<K, V> {
+
+    private final DefaultObservableValue<Boolean> empty = new DefaultObservableValue<>(true);
+    private final DefaultObservableValue<Integer> size = new DefaultObservableValue<>(0);
+
+    /**
+     * Updates the {@link #empty()} and {@link #size()} observable values with the latest data from the {@link #asMap()
+     * map}. Subclasses must call this method whenever entries are added to or removed from the map.
+     */
+    protected void updateObservableValues() {
+        var entries = asMap();
+        empty.setValue(entries.isEmpty());
+        size.setValue(entries.size());
+    }
+
+    @Override
+    protected void fireInitialEvent(SerializableConsumer<? super EntryChangeEvent<K, V>> listener) {
+        listener.accept(EntryChangeEvent.mapChanged(this));
+    }
+
+    @Override
+    public ObservableValue<Boolean> empty() {
+        return empty;
+    }
+
+    @Override
+    public ObservableValue<Integer> size() {
+        return size;
+    }
+
+    @Override
+    public <E> ObservableMap<K, E> mapValues(SerializableFunction<V, E> mappingFunction) {
+        return new MappedObservableMap<>(this, mappingFunction);
+    }
+
+    @Override
+    public ObservableMap<K, V> filter(SerializableBiPredicate<K, V> predicate) {
+        return new FilteredObservableMap<>(this, predicate);
+    }
+
+    private static class MappedObservableMap<K, E, V> extends AbstractObservableMap<K, E> {
+
+        private final ObservableMap<K, V> source;
+        private final SerializableFunction<V, E> mappingFunction;
+        private final Map<K, E> mappedEntries = new LinkedHashMap<>();
+        private final Map<K, E> readOnlyView = Collections.unmodifiableMap(mappedEntries);
+        @SuppressWarnings("FieldCanBeLocal") // Needed to prevent premature GC
+        private final SerializableConsumer<EntryChangeEvent<K, V>> sourceEntryListener = this::onSourceEntryChangeEvent;
+
+        private MappedObservableMap(ObservableMap<K, V> source, SerializableFunction<V, E> mappingFunction) {
+            this.source = requireNonNull(source, "source must not be null");
+            this.mappingFunction = requireNonNull(mappingFunction, "mappingFunction must not be null");
+            listenWeaklyTo(source, sourceEntryListener, true);
+        }
+
+        private void onSourceEntryChangeEvent(EntryChangeEvent<K, V> event) {
+            if (event.isEntryAdded()) {
+                var newValue = mappingFunction.apply(event.getNewValue());
+                mappedEntries.put(event.getKey(), newValue);
+                updateObservableValues();
+                fireEvent(EntryChangeEvent.entryAdded(this, event.getKey(), newValue));
+            } else if (event.isEntryRemoved()) {
+                var oldValue = mappedEntries.remove(event.getKey());
+                updateObservableValues();
+                fireEvent(EntryChangeEvent.entryRemoved(this, event.getKey(), oldValue));
+            } else if (event.isEntryReplaced()) {
+                var newValue = mappingFunction.apply(event.getNewValue());
+                var oldValue = mappedEntries.put(event.getKey(), newValue);
+                fireEvent(EntryChangeEvent.entryReplaced(this, event.getKey(), oldValue, newValue));
+            } else {
+                mappedEntries.clear();
+                source.asMap().forEach((key, value) -> mappedEntries.put(key, mappingFunction.apply(value)));
+                updateObservableValues();
+                fireEvent(EntryChangeEvent.mapChanged(this));
+            }
+        }
+
+        @Override
+        public Map<K, E> asMap() {
+            return readOnlyView;
+        }
+    }
+
+    private static class FilteredObservableMap<K, V> extends AbstractObservableMap<K, V> {
+
+        private final ObservableMap<K, V> source;
+        private final SerializableBiPredicate<K, V> predicate;
+        private final Map<K, V> filteredEntries = new LinkedHashMap<>();
+        private final Map<K, V> readOnlyView = Collections.unmodifiableMap(filteredEntries);
+        @SuppressWarnings("FieldCanBeLocal") // Needed to prevent premature GC
+        private final SerializableConsumer<EntryChangeEvent<K, V>> sourceEntryListener = this::onSourceEntryChangeEvent;
+
+        private FilteredObservableMap(ObservableMap<K, V> source, SerializableBiPredicate<K, V> predicate) {
+            this.source = requireNonNull(source, "source must not be null");
+            this.predicate = requireNonNull(predicate, "predicate must not be null");
+            listenWeaklyTo(source, sourceEntryListener, true);
+        }
+
+        private void onSourceEntryChangeEvent(EntryChangeEvent<K, V> event) {
+            if (event.isMapChanged()) {
+                filteredEntries.clear();
+                source.asMap().forEach((key, value) -> {
+                    if (predicate.test(key, value)) {
+                        filteredEntries.put(key, value);
+                    }
+                });
+                updateObservableValues();
+                fireEvent(EntryChangeEvent.mapChanged(this));
+                return;
+            }
+            var key = event.getKey();
+            var wasIncluded = filteredEntries.containsKey(key);
+            var isIncluded = !event.isEntryRemoved() && predicate.test(key, event.getNewValue());
+            if (wasIncluded && isIncluded) {
+                var oldValue = filteredEntries.put(key, event.getNewValue());
+                fireEvent(EntryChangeEvent.entryReplaced(this, key, oldValue, event.getNewValue()));
+            } else if (wasIncluded) {
+                var oldValue = filteredEntries.remove(key);
+                updateObservableValues();
+                fireEvent(EntryChangeEvent.entryRemoved(this, key, oldValue));
+            } else if (isIncluded) {
+                filteredEntries.put(key, event.getNewValue());
+                updateObservableValues();
+                fireEvent(EntryChangeEvent.entryAdded(this, key, event.getNewValue()));
+            }
+        }
+
+        @Override
+        public Map<K, V> asMap() {
+            return readOnlyView;
+        }
+    }
+}
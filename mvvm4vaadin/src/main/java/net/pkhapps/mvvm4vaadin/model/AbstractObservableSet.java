@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializablePredicate;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Base class for implementations of {@link ObservableSet}. Subclasses should pay special attention to the {@link
+ * #updateObservableValues()} method. This class is not thread safe.
+ *
+ * @param <T> the type of items contained inside the observable set.
+ */
+public abstract class AbstractObservableSet<T> extends AbstractObservable<ObservableSet.ElementChangeEvent<T>> implements ObservableSet<T> {
+
+    private final DefaultObservableValue<Boolean> empty = new DefaultObservableValue<>(true);
+    private final DefaultObservableValue<Integer> size = new DefaultObservableValue<>(0);
+
+    /**
+     * Updates the {@link #empty()} and {@link #size()} observable values with the latest data from the {@link
+     * #getItems() items} set. Subclasses must call this method whenever items are added to or removed from the set.
+     */
+    protected void updateObservableValues() {
+        var items = getItems();
+        empty.setValue(items.isEmpty());
+        size.setValue(items.size());
+    }
+
+    @Override
+    protected void fireInitialEvent(SerializableConsumer<? super ElementChangeEvent<T>> listener) {
+        listener.accept(ElementChangeEvent.setChanged(this));
+    }
+
+    @Override
+    public ObservableValue<Boolean> empty() {
+        return empty;
+    }
+
+    @Override
+    public ObservableValue<Integer> size() {
+        return size;
+    }
+
+    @Override
+    public ObservableSet<T> filter(SerializablePredicate<T> predicate) {
+        return new FilteredObservableSet<>(this, predicate);
+    }
+
+    private static class FilteredObservableSet<T> extends AbstractObservableSet<T> {
+
+        private final ObservableSet<T> source;
+        private final SerializablePredicate<T> predicate;
+        private final Set<T> filteredItems = new LinkedHashSet<>();
+        private final Set<T> readOnlyView = Collections.unmodifiableSet(filteredItems);
+        @SuppressWarnings("FieldCanBeLocal") // Needed to prevent premature GC
+        private final SerializableConsumer<ElementChangeEvent<T>> sourceItemListener = this::onSourceElementChangeEvent;
+
+        private FilteredObservableSet(ObservableSet<T> source, SerializablePredicate<T> predicate) {
+            this.source = requireNonNull(source, "source must not be null");
+            this.predicate = requireNonNull(predicate, "predicate must not be null");
+            listenWeaklyTo(source, sourceItemListener, true);
+        }
+
+        private void onSourceElementChangeEvent(ElementChangeEvent<T> event) {
+            if (event.isItemAdded()) {
+                if (predicate.test(event.getItem()) && filteredItems.add(event.getItem())) {
+                    updateObservableValues();
+                    fireEvent(ElementChangeEvent.itemAdded(this, event.getItem()));
+                }
+            } else if (event.isItemRemoved()) {
+                if (filteredItems.remove(event.getItem())) {
+                    updateObservableValues();
+                    fireEvent(ElementChangeEvent.itemRemoved(this, event.getItem()));
+                }
+            } else {
+                filteredItems.clear();
+                source.stream().filter(predicate).forEach(filteredItems::add);
+                updateObservableValues();
+                fireEvent(ElementChangeEvent.setChanged(this));
+            }
+        }
+
+        @Override
+        public Set<T> getItems() {
+            return readOnlyView;
+        }
+    }
+}
@@ -50,6 +50,11 @@ public abstract class AbstractObservableValue<T> extends AbstractObservable<Obse
         return new MappedObservableValue<>(this, mappingFunction);
     }
 
+    @Override
+    public <E> ObservableValue<E> flatMap(SerializableFunction<T, ObservableValue<E>> mappingFunction) {
+        return new FlatMappedObservableValue<>(this, mappingFunction);
+    }
+
     protected static class MappedObservableValue<E, T> extends AbstractComputedValue<E> {
 
         private final ObservableValue<T> source;
@@ -60,7 +65,7 @@ public abstract class AbstractObservableValue<T> extends AbstractObservable<Obse
         protected MappedObservableValue(ObservableValue<T> source, SerializableFunction<T, E> mappingFunction) {
             this.source = requireNonNull(source, "source must not be null");
             this.mappingFunction = requireNonNull(mappingFunction, "mappingFunction must not be null");
-            source.addWeakListener(sourceValueListener);
+            listenWeaklyTo(source, sourceValueListener, true);
         }
 
         @Override
@@ -68,4 +73,46 @@ public abstract class AbstractObservableValue<T> extends AbstractObservable<Obse
             return mappingFunction.apply(source.getValue());
         }
     }
+
+    protected static class FlatMappedObservableValue<E, T> extends AbstractComputedValue<E> {
+
+        private final ObservableValue<T> source;
+        private final SerializableFunction<T, ObservableValue<E>> mappingFunction;
+        @SuppressWarnings("FieldCanBeLocal") // Needed to prevent premature GC
+        private final SerializableConsumer<ValueChangeEvent<T>> sourceValueListener = (event) -> updateInner();
+        private final SerializableConsumer<ValueChangeEvent<E>> innerValueListener = this::onInnerValueChangeEvent;
+        private ObservableValue<E> inner;
+
+        protected FlatMappedObservableValue(ObservableValue<T> source, SerializableFunction<T, ObservableValue<E>> mappingFunction) {
+            this.source = requireNonNull(source, "source must not be null");
+            this.mappingFunction = requireNonNull(mappingFunction, "mappingFunction must not be null");
+            listenWeaklyTo(source, sourceValueListener, true);
+        }
+
+        private void updateInner() {
+            var newInner = mappingFunction.apply(source.getValue());
+            if (newInner != inner) {
+                if (inner != null) {
+                    stopListeningTo(inner, innerValueListener);
+                }
+                inner = newInner;
+                if (inner != null) {
+                    listenWeaklyTo(inner, innerValueListener, false);
+                }
+            }
+            updateCachedValue();
+        }
+
+        private void onInnerValueChangeEvent(ValueChangeEvent<E> event) {
+            // Observables that cannot remove weak listeners right away may still notify us until they are GC:d
+            if (event.getSender() == inner) {
+                updateCachedValue();
+            }
+        }
+
+        @Override
+        protected E computeValue() {
+            return inner == null ? null : inner.getValue();
+        }
+    }
 }
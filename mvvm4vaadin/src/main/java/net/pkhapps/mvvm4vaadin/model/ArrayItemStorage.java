@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * An {@link ItemStorage} backed by an {@link ArrayList}. Snapshots are O(1): a snapshot shares the array with the
+ * storage until the storage is changed the next time, at which point the storage copies its items into a new array and
+ * leaves the old one to the snapshot. This class is intended for internal use only and is not thread safe.
+ *
+ * @param <T> the type of items stored.
+ */
+class ArrayItemStorage<T> extends ItemStorage<T> implements RandomAccess {
+
+    private transient ArrayList<T> items = new ArrayList<>();
+    private transient List<T> snapshot;
+
+    @Override
+    List<T> snapshot() {
+        if (snapshot == null) {
+            snapshot = Collections.unmodifiableList(items);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Makes sure {@link #items} is not shared with a {@linkplain #snapshot() snapshot}. Must be called before every
+     * change to the items.
+     */
+    private void prepareForChange() {
+        if (snapshot != null) {
+            items = new ArrayList<>(items);
+            snapshot = null;
+        }
+    }
+
+    @Override
+    public T get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public T set(int index, T element) {
+        prepareForChange();
+        return items.set(index, element);
+    }
+
+    @Override
+    public void add(int index, T element) {
+        prepareForChange();
+        items.add(index, element);
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        if (c.isEmpty()) {
+            return false;
+        }
+        prepareForChange();
+        modCount++;
+        return items.addAll(c);
+    }
+
+    @Override
+    public T remove(int index) {
+        prepareForChange();
+        modCount++;
+        return items.remove(index);
+    }
+
+    @Override
+    public void clear() {
+        if (snapshot != null) {
+            // No need to copy items that are about to be thrown away
+            items = new ArrayList<>();
+            snapshot = null;
+        } else {
+            items.clear();
+        }
+        modCount++;
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        out.writeInt(items.size());
+        for (var item : items) {
+            out.writeObject(item);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        var size = in.readInt();
+        items = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            items.add((T) in.readObject());
+        }
+    }
+}
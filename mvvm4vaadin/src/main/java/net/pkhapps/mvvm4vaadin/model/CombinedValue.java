@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import com.vaadin.flow.function.SerializableBiFunction;
+import com.vaadin.flow.function.SerializableConsumer;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Computed values that combine the latest values of a fixed number of typed {@link ObservableValue}s. Unlike
+ * {@link ComputedValue}, a combined value caches the last value of every input. When an input changes, the new value
+ * is taken directly from the {@link ObservableValue.ValueChangeEvent} and the other inputs are not read again. This
+ * class is intended for internal use only and is not thread safe.
+ *
+ * @see ModelFactory#combine(ObservableValue, ObservableValue, SerializableBiFunction)
+ * @see ModelFactory#combine(ObservableValue, ObservableValue, ObservableValue, SerializableFunction3)
+ */
+final class CombinedValue {
+
+    private CombinedValue() {
+    }
+
+    static class Of2<A, B, R> extends AbstractComputedValue<R> {
+
+        private final SerializableBiFunction<A, B, R> combiner;
+        private A a;
+        private B b;
+        @SuppressWarnings("FieldCanBeLocal") // Needed to prevent premature GC
+        private final SerializableConsumer<ObservableValue.ValueChangeEvent<A>> aListener = event -> {
+            a = event.getValue();
+            updateCachedValue();
+        };
+        @SuppressWarnings("FieldCanBeLocal") // Needed to prevent premature GC
+        private final SerializableConsumer<ObservableValue.ValueChangeEvent<B>> bListener = event -> {
+            b = event.getValue();
+            updateCachedValue();
+        };
+
+        Of2(ObservableValue<A> a, ObservableValue<B> b, SerializableBiFunction<A, B, R> combiner) {
+            requireNonNull(a, "a must not be null");
+            requireNonNull(b, "b must not be null");
+            this.combiner = requireNonNull(combiner, "combiner must not be null");
+            this.a = a.getValue();
+            this.b = b.getValue();
+            listenWeaklyTo(a, aListener, false);
+            listenWeaklyTo(b, bListener, false);
+            updateCachedValue();
+        }
+
+        @Override
+        protected R computeValue() {
+            return combiner.apply(a, b);
+        }
+    }
+
+    static class Of3<A, B, C, R> extends AbstractComputedValue<R> {
+
+        private final SerializableFunction3<A, B, C, R> combiner;
+        private A a;
+        private B b;
+        private C c;
+        @SuppressWarnings("FieldCanBeLocal") // Needed to prevent premature GC
+        private final SerializableConsumer<ObservableValue.ValueChangeEvent<A>> aListener = event -> {
+            a = event.getValue();
+            updateCachedValue();
+        };
+        @SuppressWarnings("FieldCanBeLocal") // Needed to prevent premature GC
+        private final SerializableConsumer<ObservableValue.ValueChangeEvent<B>> bListener = event -> {
+            b = event.getValue();
+            updateCachedValue();
+        };
+        @SuppressWarnings("FieldCanBeLocal") // Needed to prevent premature GC
+        private final SerializableConsumer<ObservableValue.ValueChangeEvent<C>> cListener = event -> {
+            c = event.getValue();
+            updateCachedValue();
+        };
+
+        Of3(ObservableValue<A> a, ObservableValue<B> b, ObservableValue<C> c, SerializableFunction3<A, B, C, R> combiner) {
+            requireNonNull(a, "a must not be null");
+            requireNonNull(b, "b must not be null");
+            requireNonNull(c, "c must not be null");
+            this.combiner = requireNonNull(combiner, "combiner must not be null");
+            this.a = a.getValue();
+            this.b = b.getValue();
+            this.c = c.getValue();
+            listenWeaklyTo(a, aListener, false);
+            listenWeaklyTo(b, bListener, false);
+            listenWeaklyTo(c, cListener, false);
+            updateCachedValue();
+        }
+
+        @Override
+        protected R computeValue() {
+            return combiner.apply(a, b, c);
+        }
+    }
+}
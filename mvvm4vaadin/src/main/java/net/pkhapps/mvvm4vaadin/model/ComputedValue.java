@@ -49,7 +49,7 @@ public class ComputedValue<T> extends AbstractComputedValue<T> {
         requireNonNull(valueSupplier, "valueSupplier must not be null");
         requireNonNull(dependencies, "dependencies must not be null");
         this.valueSupplier = valueSupplier;
-        dependencies.forEach(dependency -> dependency.addWeakListener(dependencyValueChangeListener));
+        dependencies.forEach(dependency -> listenWeaklyTo(dependency, dependencyValueChangeListener, true));
         updateCachedValue();
     }
 
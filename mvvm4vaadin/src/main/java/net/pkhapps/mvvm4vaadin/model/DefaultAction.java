@@ -17,6 +17,7 @@
 package net.pkhapps.mvvm4vaadin.model;
 
 import com.vaadin.flow.function.SerializableRunnable;
+import net.pkhapps.mvvm4vaadin.jfr.FlightRecorderEvents;
 
 import static java.util.Objects.requireNonNull;
 import static net.pkhapps.mvvm4vaadin.model.ModelFactory.observableValue;
@@ -39,7 +40,9 @@ public class DefaultAction implements Action {
         if (!runnable.getValue()) {
             throw new IllegalStateException("Action is not runnable at the moment");
         }
+        var flightRecorderEvent = FlightRecorderEvents.beginAction(this);
         doRun();
+        FlightRecorderEvents.commitAction(flightRecorderEvent);
     }
 
     protected void doRun() {
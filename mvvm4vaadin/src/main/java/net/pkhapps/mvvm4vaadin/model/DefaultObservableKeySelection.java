@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Default implementation of {@link ObservableKeySelection}. The selected key can be changed through
+ * {@link #setValue(Object)}. The per-key flags returned by {@link #selected(Object)} are only weakly referenced by the
+ * selection, so flags for keys that are no longer observed by anybody are garbage collected. This class is not thread
+ * safe.
+ *
+ * @param <K> the type of the keys.
+ * @see ModelFactory#keySelection()
+ * @see ModelFactory#keySelection(Class)
+ */
+public class DefaultObservableKeySelection<K> extends DefaultObservableValue<K> implements ObservableKeySelection<K> {
+
+    private transient Map<K, FlagReference<K>> flags;
+    private transient ReferenceQueue<SelectedFlag<K>> staleFlags;
+
+    /**
+     * Creates a new {@code DefaultObservableKeySelection} with nothing selected.
+     */
+    public DefaultObservableKeySelection() {
+    }
+
+    /**
+     * Creates a new {@code DefaultObservableKeySelection} with the given key selected.
+     *
+     * @param initialKey the initially selected key, may be {@code null}.
+     */
+    public DefaultObservableKeySelection(K initialKey) {
+        super(initialKey);
+    }
+
+    @Override
+    public ObservableValue<Boolean> selected(K key) {
+        expungeStaleFlags();
+        if (flags == null) {
+            flags = new HashMap<>();
+            staleFlags = new ReferenceQueue<>();
+        }
+        var reference = flags.get(key);
+        var flag = reference == null ? null : reference.get();
+        if (flag == null) {
+            flag = new SelectedFlag<>(this, key);
+            flags.put(key, new FlagReference<>(flag, staleFlags));
+        }
+        return flag;
+    }
+
+    @Override
+    protected void fireValueChangeEvent(K old, K value) {
+        super.fireValueChangeEvent(old, value);
+        if (flags != null && !Objects.equals(old, value)) {
+            fireFlagChangeEvent(old, false);
+            fireFlagChangeEvent(value, true);
+        }
+    }
+
+    private void fireFlagChangeEvent(K key, boolean selected) {
+        var reference = flags.get(key);
+        if (reference != null) {
+            var flag = reference.get();
+            if (flag != null) {
+                flag.fireValueChangeEvent(!selected, selected);
+            }
+        }
+    }
+
+    private void expungeStaleFlags() {
+        if (staleFlags == null) {
+            return;
+        }
+        FlagReference<?> reference;
+        while ((reference = (FlagReference<?>) staleFlags.poll()) != null) {
+            // A new flag may already have been created for the same key, so only remove the entry if it is ours
+            flags.remove(reference.key, reference);
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        var liveFlags = new ArrayList<SelectedFlag<K>>();
+        if (flags != null) {
+            flags.values().forEach(reference -> {
+                var flag = reference.get();
+                if (flag != null) {
+                    liveFlags.add(flag);
+                }
+            });
+        }
+        out.writeInt(liveFlags.size());
+        for (var flag : liveFlags) {
+            out.writeObject(flag);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        var count = in.readInt();
+        if (count > 0) {
+            flags = new HashMap<>();
+            staleFlags = new ReferenceQueue<>();
+            for (int i = 0; i < count; ++i) {
+                var flag = (SelectedFlag<K>) in.readObject();
+                flags.put(flag.key, new FlagReference<>(flag, staleFlags));
+            }
+        }
+    }
+
+    private static class FlagReference<K> extends WeakReference<SelectedFlag<K>> {
+
+        private final K key;
+
+        private FlagReference(SelectedFlag<K> flag, ReferenceQueue<SelectedFlag<K>> queue) {
+            super(flag, queue);
+            this.key = flag.key;
+        }
+    }
+
+    private static class SelectedFlag<K> extends AbstractObservableValue<Boolean> {
+
+        private final ObservableKeySelection<K> selection;
+        private final K key;
+
+        private SelectedFlag(ObservableKeySelection<K> selection, K key) {
+            this.selection = selection;
+            this.key = key;
+        }
+
+        @Override
+        public Boolean getValue() {
+            return selection.isSelected(key);
+        }
+    }
+}
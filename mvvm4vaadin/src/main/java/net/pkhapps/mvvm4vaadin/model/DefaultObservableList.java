@@ -16,7 +16,10 @@
 
 package net.pkhapps.mvvm4vaadin.model;
 
-import java.util.ArrayList;
+import com.vaadin.flow.function.SerializableFunction;
+import net.pkhapps.mvvm4vaadin.model.metrics.ModelMetrics.ListMutation;
+import net.pkhapps.mvvm4vaadin.model.metrics.ModelMetricsRegistry;
+
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -28,32 +31,80 @@ import static java.util.Objects.requireNonNull;
  * Default implementation of both {@link ObservableList} and {@link WritableObservableList}. Models typically never
  * expose objects of this class directly to the outside world. Rather, they expose them through any of the
  * aforementioned interfaces depending on whether they want clients to be able to write directly to the observcable list
- * or not. This class is not thread safe.
+ * or not. This class is not thread safe, but the {@linkplain #snapshot() snapshots} it hands out are.
+ * <p>
+ * The items can be stored in two different ways, see {@link Storage}.
  *
  * @param <T> the type of items contained inside the observable list.
  * @see ModelFactory#observableList()
  * @see ModelFactory#observableList(Class)
  * @see ModelFactory#observableList(Object[])
  * @see ModelFactory#observableList(Collection)
+ * @see ModelFactory#observableTreeList()
  */
 public class DefaultObservableList<T> extends AbstractObservableList<T> implements WritableObservableList<T> {
 
-    private final List<T> items = new ArrayList<>();
-    private final List<T> readOnlyView = Collections.unmodifiableList(items);
+    /**
+     * Enumeration of the different ways a {@link DefaultObservableList} can store its items.
+     */
+    public enum Storage {
+        /**
+         * The items are stored in an array. Reading an item at a given position is O(1), adding or removing items at
+         * the end of the list is amortized O(1), but adding, removing or moving items elsewhere is O(n) because the
+         * subsequent items have to be shifted. Taking a {@linkplain #snapshot() snapshot} is O(1), but the first change
+         * after taking a snapshot copies the array. This is a good fit for most lists.
+         */
+        ARRAY,
+        /**
+         * The items are stored in a balanced tree. Reading, adding, removing and moving items at any position is
+         * O(log n). Taking a {@linkplain #snapshot() snapshot} is O(1) and subsequent changes never copy more than
+         * O(log n) tree nodes. This is a good fit for long lists that are frequently changed in the middle, e.g. by
+         * drag-and-drop reordering or live feeds.
+         */
+        TREE
+    }
+
+    private final ItemStorage<T> items;
+    private final List<T> readOnlyView;
+    private PositionIndex<T, T> itemIndex;
 
     /**
-     * Creates a new, empty {@code DefaultObservableList}.
+     * Creates a new, empty {@code DefaultObservableList} that stores its items in an {@linkplain Storage#ARRAY array}.
      */
     public DefaultObservableList() {
+        this(Storage.ARRAY);
+    }
+
+    /**
+     * Creates a new, empty {@code DefaultObservableList} that stores its items using the given {@code storage}.
+     *
+     * @param storage the way to store the items.
+     */
+    public DefaultObservableList(Storage storage) {
+        requireNonNull(storage, "storage must not be null");
+        this.items = storage == Storage.TREE ? new TreeItemStorage<>() : new ArrayItemStorage<>();
+        this.readOnlyView = Collections.unmodifiableList(items);
     }
 
     /**
-     * Creates a new {@code DefaultObservableList} with the given {@code initialItems}.
+     * Creates a new {@code DefaultObservableList} with the given {@code initialItems} that stores its items in an
+     * {@linkplain Storage#ARRAY array}.
      *
      * @param initialItems the initial items to add to the list, may be {@code null} or empty.
      */
     public DefaultObservableList(Collection<T> initialItems) {
-        this();
+        this(Storage.ARRAY, initialItems);
+    }
+
+    /**
+     * Creates a new {@code DefaultObservableList} with the given {@code initialItems} that stores its items using the
+     * given {@code storage}.
+     *
+     * @param storage      the way to store the items.
+     * @param initialItems the initial items to add to the list, may be {@code null} or empty.
+     */
+    public DefaultObservableList(Storage storage, Collection<T> initialItems) {
+        this(storage);
         if (initialItems != null) {
             addAll(initialItems);
         }
@@ -64,11 +115,56 @@ public class DefaultObservableList<T> extends AbstractObservableList<T> implemen
         return readOnlyView;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * In this implementation, taking a snapshot is an O(1) operation regardless of the {@link Storage}. Taking several
+     * snapshots in a row without changing the list in between returns the same snapshot.
+     */
+    @Override
+    public List<T> snapshot() {
+        return items.snapshot();
+    }
+
+    /**
+     * Enables or disables the item index of this list. When enabled, {@link #indexOf(Object)}, and by extension
+     * {@link #remove(Object)} and {@link #move(Object, int)}, look up the position of the item in a hash-based
+     * {@link PositionIndex} instead of scanning the list. The index costs memory and every change and lookup is
+     * O(log n), so it only pays off for long lists where items are frequently looked up. The items must have
+     * {@link Object#equals(Object)} and {@link Object#hashCode()} methods that are consistent with each other.
+     * The index is disabled by default.
+     *
+     * @param enabled true to enable the index, false to disable it.
+     */
+    public void setItemIndexEnabled(boolean enabled) {
+        if (enabled && itemIndex == null) {
+            itemIndex = indexBy(SerializableFunction.identity());
+        } else if (!enabled) {
+            itemIndex = null;
+        }
+    }
+
+    /**
+     * Checks whether the item index is enabled.
+     *
+     * @return true if the item index is enabled, false otherwise.
+     * @see #setItemIndexEnabled(boolean)
+     */
+    public boolean isItemIndexEnabled() {
+        return itemIndex != null;
+    }
+
+    @Override
+    public int indexOf(T item) {
+        return itemIndex == null ? super.indexOf(item) : itemIndex.indexOf(item);
+    }
+
     @Override
     public void setItems(Collection<T> items) {
         requireNonNull(items, "items must not be null");
         this.items.clear();
         this.items.addAll(items);
+        ModelMetricsRegistry.get().listMutated(this, ListMutation.SET_ITEMS, items.size());
         updateObservableValues();
         fireEvent(ItemChangeEvent.listChanged(this));
     }
@@ -76,6 +172,7 @@ public class DefaultObservableList<T> extends AbstractObservableList<T> implemen
     @Override
     public void add(int index, T item) {
         items.add(index, item);
+        ModelMetricsRegistry.get().listMutated(this, ListMutation.ADD, 1);
         updateObservableValues();
         fireEvent(ItemChangeEvent.itemAdded(this, item, index));
     }
@@ -84,6 +181,7 @@ public class DefaultObservableList<T> extends AbstractObservableList<T> implemen
     public void addAll(Collection<T> items) {
         requireNonNull(items, "items must not be null");
         if (this.items.addAll(items)) {
+            ModelMetricsRegistry.get().listMutated(this, ListMutation.ADD_ALL, items.size());
             updateObservableValues();
             fireEvent(ItemChangeEvent.listChanged(this));
         }
@@ -92,6 +190,7 @@ public class DefaultObservableList<T> extends AbstractObservableList<T> implemen
     @Override
     public void remove(int index) {
         var removedItem = items.remove(index);
+        ModelMetricsRegistry.get().listMutated(this, ListMutation.REMOVE, 1);
         updateObservableValues();
         fireEvent(ItemChangeEvent.itemRemoved(this, removedItem, index));
     }
@@ -103,6 +202,7 @@ public class DefaultObservableList<T> extends AbstractObservableList<T> implemen
             var item = items.get(i);
             if (predicate.test(item)) {
                 items.remove(i);
+                ModelMetricsRegistry.get().listMutated(this, ListMutation.REMOVE_IF, 1);
                 updateObservableValues();
                 fireEvent(ItemChangeEvent.itemRemoved(this, item, i));
             }
@@ -114,13 +214,16 @@ public class DefaultObservableList<T> extends AbstractObservableList<T> implemen
         if (index != newPosition) {
             var item = items.remove(index);
             items.add(newPosition, item);
+            ModelMetricsRegistry.get().listMutated(this, ListMutation.MOVE, 1);
             fireEvent(ItemChangeEvent.itemMoved(this, item, index, newPosition));
         }
     }
 
     @Override
     public void clear() {
+        var size = items.size();
         items.clear();
+        ModelMetricsRegistry.get().listMutated(this, ListMutation.CLEAR, size);
         updateObservableValues();
         fireEvent(ItemChangeEvent.listChanged(this));
     }
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiPredicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Default implementation of both {@link ObservableMap} and {@link WritableObservableMap}, backed by a hash table that
+ * keeps the entries in insertion order. Looking up, putting and removing entries are O(1) operations, and every change
+ * to a single entry fires a single event. This class is not thread safe.
+ *
+ * @param <K> the type of the keys of the map.
+ * @param <V> the type of the values of the map.
+ * @see ModelFactory#observableMap()
+ * @see ModelFactory#observableMap(Map)
+ */
+public class DefaultObservableMap<K, V> extends AbstractObservableMap<K, V> implements WritableObservableMap<K, V> {
+
+    private final Map<K, V> entries = new LinkedHashMap<>();
+    private final Map<K, V> readOnlyView = Collections.unmodifiableMap(entries);
+
+    /**
+     * Creates a new, empty {@code DefaultObservableMap}.
+     */
+    public DefaultObservableMap() {
+    }
+
+    /**
+     * Creates a new {@code DefaultObservableMap} with the given {@code initialEntries}.
+     *
+     * @param initialEntries the initial entries to put into the map, may be {@code null} or empty.
+     */
+    public DefaultObservableMap(Map<K, V> initialEntries) {
+        if (initialEntries != null) {
+            entries.putAll(initialEntries);
+            updateObservableValues();
+        }
+    }
+
+    @Override
+    public Map<K, V> asMap() {
+        return readOnlyView;
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (entries.containsKey(key)) {
+            var oldValue = entries.put(key, value);
+            if (!Objects.equals(oldValue, value)) {
+                fireEvent(EntryChangeEvent.entryReplaced(this, key, oldValue, value));
+            }
+            return oldValue;
+        } else {
+            entries.put(key, value);
+            updateObservableValues();
+            fireEvent(EntryChangeEvent.entryAdded(this, key, value));
+            return null;
+        }
+    }
+
+    @Override
+    public V remove(K key) {
+        if (entries.containsKey(key)) {
+            var oldValue = entries.remove(key);
+            updateObservableValues();
+            fireEvent(EntryChangeEvent.entryRemoved(this, key, oldValue));
+            return oldValue;
+        }
+        return null;
+    }
+
+    @Override
+    public void removeIf(BiPredicate<K, V> predicate) {
+        requireNonNull(predicate, "predicate must not be null");
+        // Collect the keys first so that listeners can safely change the map while they are being notified
+        var keysToRemove = new ArrayList<K>();
+        entries.forEach((key, value) -> {
+            if (predicate.test(key, value)) {
+                keysToRemove.add(key);
+            }
+        });
+        keysToRemove.forEach(this::remove);
+    }
+
+    @Override
+    public void clear() {
+        if (entries.isEmpty()) {
+            return;
+        }
+        entries.clear();
+        updateObservableValues();
+        fireEvent(EntryChangeEvent.mapChanged(this));
+    }
+
+    @Override
+    public void setEntries(Map<K, V> entries) {
+        requireNonNull(entries, "entries must not be null");
+        this.entries.clear();
+        this.entries.putAll(entries);
+        updateObservableValues();
+        fireEvent(EntryChangeEvent.mapChanged(this));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Default implementation of both {@link ObservableSet} and {@link WritableObservableSet}, backed by a hash table that
+ * keeps the items in insertion order. Looking up, adding and removing items are O(1) operations, and every change to a
+ * single item fires a single event. This class is not thread safe.
+ *
+ * @param <T> the type of items contained inside the observable set.
+ * @see ModelFactory#observableSet()
+ * @see ModelFactory#observableSet(Collection)
+ */
+public class DefaultObservableSet<T> extends AbstractObservableSet<T> implements WritableObservableSet<T> {
+
+    private final Set<T> items = new LinkedHashSet<>();
+    private final Set<T> readOnlyView = Collections.unmodifiableSet(items);
+
+    /**
+     * Creates a new, empty {@code DefaultObservableSet}.
+     */
+    public DefaultObservableSet() {
+    }
+
+    /**
+     * Creates a new {@code DefaultObservableSet} with the given {@code initialItems}.
+     *
+     * @param initialItems the initial items to add to the set, may be {@code null} or empty.
+     */
+    public DefaultObservableSet(Collection<T> initialItems) {
+        if (initialItems != null) {
+            items.addAll(initialItems);
+            updateObservableValues();
+        }
+    }
+
+    @Override
+    public Set<T> getItems() {
+        return readOnlyView;
+    }
+
+    @Override
+    public boolean add(T item) {
+        if (items.add(item)) {
+            updateObservableValues();
+            fireEvent(ElementChangeEvent.itemAdded(this, item));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean remove(T item) {
+        if (items.remove(item)) {
+            updateObservableValues();
+            fireEvent(ElementChangeEvent.itemRemoved(this, item));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public void removeIf(Predicate<T> predicate) {
+        requireNonNull(predicate, "predicate must not be null");
+        // Collect the items first so that listeners can safely change the set while they are being notified
+        items.stream().filter(predicate).collect(Collectors.toList()).forEach(this::remove);
+    }
+
+    @Override
+    public void clear() {
+        items.clear();
+        updateObservableValues();
+        fireEvent(ElementChangeEvent.setChanged(this));
+    }
+
+    @Override
+    public void setItems(Collection<T> items) {
+        requireNonNull(items, "items must not be null");
+        this.items.clear();
+        this.items.addAll(items);
+        updateObservableValues();
+        fireEvent(ElementChangeEvent.setChanged(this));
+    }
+}
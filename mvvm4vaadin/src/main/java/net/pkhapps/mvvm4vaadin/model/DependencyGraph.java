@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import com.vaadin.flow.shared.Registration;
+import net.pkhapps.mvvm4vaadin.model.metrics.ModelMetrics;
+import net.pkhapps.mvvm4vaadin.model.metrics.ModelMetricsRegistry;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Diagnostic tool for introspecting how observables depend on each other. An observable depends on another observable
+ * if it is derived from it, such as a {@linkplain ObservableValue#map(com.vaadin.flow.function.SerializableFunction)
+ * mapped value}, a {@link ComputedValue} or a {@linkplain ObservableList#filter(com.vaadin.flow.function.SerializablePredicate)
+ * filtered list}. In addition, observables have listeners, such as bindings, that are not observables themselves.
+ * <p>
+ * The static methods introspect a single observable. A {@code DependencyGraph} contains all the observables that are
+ * transitively connected to a set of root observables, and can be exported to Graphviz DOT. This is useful for finding
+ * redundant chains of derived values and sources with many dependents, that make propagation expensive.
+ * <p>
+ * Only observables that extend {@link AbstractObservable} can be introspected. Dependents are only found as long as
+ * they have not been garbage collected. This class is not thread safe.
+ */
+public final class DependencyGraph {
+
+    private static final String LAMBDA_MARKER = "$$Lambda";
+
+    private final Set<Observable<?>> observables;
+    private final Map<Observable<?>, LongAdder> eventCounts = new IdentityHashMap<>();
+    private boolean countingEvents = false;
+
+    private DependencyGraph(Set<Observable<?>> observables) {
+        this.observables = observables;
+        observables.forEach(observable -> eventCounts.put(observable, new LongAdder()));
+    }
+
+    /**
+     * Returns the observables that the given {@code observable} is derived from.
+     *
+     * @param observable the observable to introspect.
+     * @return a list of observables, empty if the observable is not derived from anything.
+     */
+    public static List<Observable<?>> dependenciesOf(Observable<?> observable) {
+        requireNonNull(observable, "observable must not be null");
+        return observable instanceof AbstractObservable
+                ? Collections.unmodifiableList(((AbstractObservable<?>) observable).getDependencies())
+                : Collections.emptyList();
+    }
+
+    /**
+     * Returns the observables that are derived from the given {@code observable} and have not been garbage collected.
+     *
+     * @param observable the observable to introspect.
+     * @return a list of observables, empty if nothing is derived from the observable.
+     */
+    public static List<Observable<?>> dependentsOf(Observable<?> observable) {
+        requireNonNull(observable, "observable must not be null");
+        if (!(observable instanceof AbstractObservable)) {
+            return Collections.emptyList();
+        }
+        var dependents = new ArrayList<Observable<?>>();
+        for (var dependent : ((AbstractObservable<?>) observable).getDependents()) {
+            if (dependent instanceof Observable) {
+                dependents.add((Observable<?>) dependent);
+            }
+        }
+        return Collections.unmodifiableList(dependents);
+    }
+
+    /**
+     * Returns the listeners that have been registered with the given {@code observable} using strong references, such
+     * as bindings.
+     *
+     * @param observable the observable to introspect.
+     * @return a list of listeners.
+     */
+    public static List<Object> listenersOf(Observable<?> observable) {
+        requireNonNull(observable, "observable must not be null");
+        return observable instanceof AbstractObservable
+                ? Collections.unmodifiableList(((AbstractObservable<?>) observable).getStrongListeners())
+                : Collections.emptyList();
+    }
+
+    /**
+     * Creates a graph of all observables that are transitively connected to the given {@code roots}, in either
+     * direction.
+     *
+     * @param roots the observables to start from.
+     * @return the dependency graph.
+     */
+    public static DependencyGraph of(Observable<?>... roots) {
+        requireNonNull(roots, "roots must not be null");
+        var observables = Collections.<Observable<?>>newSetFromMap(new IdentityHashMap<>());
+        var pending = new ArrayDeque<Observable<?>>(Arrays.asList(roots));
+        while (!pending.isEmpty()) {
+            var observable = pending.pop();
+            if (observables.add(observable)) {
+                pending.addAll(dependenciesOf(observable));
+                pending.addAll(dependentsOf(observable));
+            }
+        }
+        return new DependencyGraph(observables);
+    }
+
+    /**
+     * Returns all the observables in this graph.
+     *
+     * @return an unmodifiable set of observables.
+     */
+    public Set<Observable<?>> getObservables() {
+        return Collections.unmodifiableSet(observables);
+    }
+
+    /**
+     * Starts counting the events fired by the observables in this graph, so that they can be included in the
+     * {@linkplain #toDot() DOT export}.
+     *
+     * @return a registration handle for stopping the counting.
+     */
+    public Registration countEvents() {
+        countingEvents = true;
+        return ModelMetricsRegistry.register(new ModelMetrics() {
+            @Override
+            public void eventFired(Observable<?> sender, Object event, int listenersInvoked, int propagationDepth,
+                                   long durationNanos) {
+                var count = eventCounts.get(sender);
+                if (count != null) {
+                    count.increment();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns the number of events fired by the given {@code observable} since {@link #countEvents()} was called.
+     *
+     * @param observable the observable.
+     * @return the number of events, or 0 if the observable is not in this graph.
+     */
+    public long getEventCount(Observable<?> observable) {
+        var count = eventCounts.get(observable);
+        return count == null ? 0 : count.sum();
+    }
+
+    /**
+     * Exports this graph to Graphviz DOT. Observables are drawn as ellipses, annotated with the number of events they
+     * have fired if {@link #countEvents()} has been called. Listeners registered using strong references are drawn as
+     * boxes. The edges point in the direction the events propagate.
+     *
+     * @return the graph in DOT format.
+     */
+    public String toDot() {
+        var ids = new IdentityHashMap<Object, String>();
+        var dot = new StringBuilder("digraph observables {\n    rankdir=LR;\n");
+        for (var observable : observables) {
+            var id = "o" + ids.size();
+            ids.put(observable, id);
+            var label = describe(observable);
+            if (countingEvents) {
+                label += "\\nevents: " + getEventCount(observable);
+            }
+            dot.append(String.format("    %s [label=\"%s\"];%n", id, label));
+        }
+        var listenerCount = 0;
+        for (var observable : observables) {
+            for (var dependent : dependentsOf(observable)) {
+                if (ids.containsKey(dependent)) {
+                    dot.append(String.format("    %s -> %s;%n", ids.get(observable), ids.get(dependent)));
+                }
+            }
+            for (var listener : listenersOf(observable)) {
+                var id = "l" + listenerCount++;
+                dot.append(String.format("    %s [shape=box, label=\"%s\"];%n", id, describe(listener)));
+                dot.append(String.format("    %s -> %s;%n", ids.get(observable), id));
+            }
+        }
+        return dot.append("}\n").toString();
+    }
+
+    @Override
+    public String toString() {
+        return toDot();
+    }
+
+    private static String describe(Object object) {
+        var name = object.getClass().getName();
+        var description = object.toString();
+        if (description.startsWith(name)) {
+            // Not overridden, so leave out the package and the generated suffix of lambdas
+            var lambda = name.indexOf(LAMBDA_MARKER);
+            var shortName = name.substring(name.lastIndexOf('.') + 1,
+                    lambda == -1 ? name.length() : lambda + LAMBDA_MARKER.length());
+            description = shortName + "@" + Integer.toHexString(System.identityHashCode(object));
+        }
+        return description.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableFunction;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.*;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Observable map that groups the items of an {@link ObservableList} by key, see
+ * {@link ObservableList#groupBy(SerializableFunction)} and
+ * {@link ObservableList#groupByObservable(SerializableFunction)}. Every item of the source list has an {@link Entry}
+ * that remembers its key. The entries are kept in a {@link PositionalTree} in the order of the source list, and every
+ * group keeps its own entries in a {@link PositionalTree} too, which the items of the group are read from. The position
+ * of an item in its group is found by descending the tree of the group and comparing positions in the source tree, so
+ * adding, removing and moving an item is O(log² n) regardless of where in the list the change happens. This class is
+ * intended for internal use only and is not thread safe.
+ *
+ * @param <K> the type of the keys.
+ * @param <T> the type of items in the list.
+ */
+class GroupedObservableMap<K, T> extends AbstractObservableMap<K, ObservableList<T>> {
+
+    private final ObservableList<T> source;
+    private final SerializableFunction<T, K> keyFunction;
+    private final SerializableFunction<T, ObservableValue<K>> observableKeyFunction;
+    private transient PositionalTree<Entry<K, T>> entries = new PositionalTree<>();
+    private final Map<K, Group<K, T>> groups = new LinkedHashMap<>();
+    private final Map<K, ObservableList<T>> readOnlyView = Collections.unmodifiableMap(groups);
+    @SuppressWarnings("FieldCanBeLocal") // Needed to prevent premature GC
+    private final SerializableConsumer<ObservableList.ItemChangeEvent<T>> sourceItemListener = this::onSourceItemChangeEvent;
+
+    GroupedObservableMap(ObservableList<T> source, SerializableFunction<T, K> keyFunction) {
+        this(source, requireNonNull(keyFunction, "keyFunction must not be null"), null);
+    }
+
+    private GroupedObservableMap(ObservableList<T> source, SerializableFunction<T, K> keyFunction,
+                                 SerializableFunction<T, ObservableValue<K>> observableKeyFunction) {
+        this.source = requireNonNull(source, "source must not be null");
+        this.keyFunction = keyFunction;
+        this.observableKeyFunction = observableKeyFunction;
+        listenWeaklyTo(source, sourceItemListener, true);
+    }
+
+    /**
+     * Creates a map that groups the items of the given {@code source} by observable keys. When the key of an item
+     * changes, the item is moved from its old group to its new group.
+     *
+     * @param source      the list whose items to group.
+     * @param keyFunction the function that returns the observable key of an item.
+     */
+    static <K, T> GroupedObservableMap<K, T> withObservableKeys(ObservableList<T> source,
+                                                               SerializableFunction<T, ObservableValue<K>> keyFunction) {
+        return new GroupedObservableMap<>(source, null, requireNonNull(keyFunction, "keyFunction must not be null"));
+    }
+
+    @Override
+    public Map<K, ObservableList<T>> asMap() {
+        return readOnlyView;
+    }
+
+    private void onSourceItemChangeEvent(ObservableList.ItemChangeEvent<T> event) {
+        if (event.isItemAdded()) {
+            var entry = createEntry(event.getItem());
+            entry.sourceNode = entries.insert(event.getNewPosition(), entry);
+            addToGroup(entry);
+        } else if (event.isItemRemoved()) {
+            var entry = entries.get(event.getOldPosition());
+            removeFromGroup(entry);
+            entries.remove(entry.sourceNode);
+            stopListeningToKey(entry);
+        } else if (event.isItemMoved()) {
+            var entry = entries.get(event.getOldPosition());
+            var group = groups.get(entry.key);
+            var oldGroupPosition = group.entries.indexOf(entry.groupNode);
+            entries.remove(entry.sourceNode);
+            entry.sourceNode = entries.insert(event.getNewPosition(), entry);
+            group.entries.remove(entry.groupNode);
+            var newGroupPosition = positionInGroup(group, event.getNewPosition());
+            entry.groupNode = group.entries.insert(newGroupPosition, entry);
+            group.itemMoved(entry.item, oldGroupPosition, newGroupPosition);
+        } else {
+            regroup();
+        }
+    }
+
+    private Entry<K, T> createEntry(T item) {
+        var entry = new Entry<K, T>(item);
+        if (observableKeyFunction == null) {
+            entry.key = keyFunction.apply(item);
+        } else {
+            entry.keyValue = observableKeyFunction.apply(item);
+            entry.key = entry.keyValue.getValue();
+            entry.keyListener = event -> onKeyChange(entry, event.getValue());
+            entry.keyValue.addWeakListener(entry.keyListener, false);
+        }
+        return entry;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stopListeningToKey(Entry<K, T> entry) {
+        if (entry.keyValue instanceof AbstractObservable) {
+            ((AbstractObservable<ObservableValue.ValueChangeEvent<K>>) entry.keyValue).removeWeakListener(entry.keyListener);
+        }
+    }
+
+    private void onKeyChange(Entry<K, T> entry, K newKey) {
+        if (!Objects.equals(entry.key, newKey)) {
+            removeFromGroup(entry);
+            entry.key = newKey;
+            addToGroup(entry);
+        }
+    }
+
+    /**
+     * Returns the number of entries in the given {@code group} that come before the given position in the source list,
+     * which is the position in the group of an item at that position. This is O(log² n).
+     */
+    private int positionInGroup(Group<K, T> group, int sourcePosition) {
+        return group.entries.countWhile(other -> entries.indexOf(other.sourceNode) < sourcePosition);
+    }
+
+    private void addToGroup(Entry<K, T> entry) {
+        var group = groups.get(entry.key);
+        if (group == null) {
+            group = new Group<>();
+            entry.groupNode = group.entries.insert(0, entry);
+            group.updateObservableValues();
+            groups.put(entry.key, group);
+            updateObservableValues();
+            fireEvent(EntryChangeEvent.entryAdded(this, entry.key, group));
+        } else {
+            group.add(positionInGroup(group, entries.indexOf(entry.sourceNode)), entry);
+        }
+    }
+
+    private void removeFromGroup(Entry<K, T> entry) {
+        var group = groups.get(entry.key);
+        group.remove(entry);
+        if (group.isEmpty()) {
+            groups.remove(entry.key);
+            updateObservableValues();
+            fireEvent(EntryChangeEvent.entryRemoved(this, entry.key, group));
+        }
+    }
+
+    private void regroup() {
+        entries.forEach(this::stopListeningToKey);
+        entries.clear();
+        var newEntries = new LinkedHashMap<K, List<Entry<K, T>>>();
+        for (var item : source) {
+            var entry = createEntry(item);
+            entry.sourceNode = entries.insert(entries.size(), entry);
+            newEntries.computeIfAbsent(entry.key, k -> new ArrayList<>()).add(entry);
+        }
+        // Reuse the existing groups so that anybody observing them keeps getting updates
+        for (var it = groups.entrySet().iterator(); it.hasNext(); ) {
+            var mapEntry = it.next();
+            if (!newEntries.containsKey(mapEntry.getKey())) {
+                it.remove();
+                mapEntry.getValue().setEntries(Collections.emptyList());
+            }
+        }
+        newEntries.forEach((key, groupEntries) -> groups.computeIfAbsent(key, k -> new Group<>())
+                .setEntries(groupEntries));
+        updateObservableValues();
+        fireEvent(EntryChangeEvent.mapChanged(this));
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        // The trees are rebuilt from the entries, in source order, to keep the object graph shallow
+        var entryList = new ArrayList<Entry<K, T>>(entries.size());
+        entries.forEach(entryList::add);
+        out.writeObject(entryList);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        var entryList = (List<Entry<K, T>>) in.readObject();
+        entries = new PositionalTree<>();
+        groups.values().forEach(group -> group.entries = new PositionalTree<>());
+        for (var entry : entryList) {
+            entry.sourceNode = entries.insert(entries.size(), entry);
+            var group = groups.get(entry.key);
+            entry.groupNode = group.entries.insert(group.entries.size(), entry);
+        }
+        if (observableKeyFunction != null) {
+            // Only AbstractObservables serialize their weak listeners, and the keys may not have been completely
+            // deserialized yet
+            in.registerValidation(() -> entryList.stream()
+                    .filter(entry -> !(entry.keyValue instanceof AbstractObservable))
+                    .forEach(entry -> entry.keyValue.addWeakListener(entry.keyListener, false)), 0);
+        }
+    }
+
+    /**
+     * An item of the source list together with its key and its nodes in the trees.
+     */
+    private static final class Entry<K, T> implements Serializable {
+        private final T item;
+        private K key;
+        private ObservableValue<K> keyValue;
+        private SerializableConsumer<ObservableValue.ValueChangeEvent<K>> keyListener;
+        private transient PositionalTree.Node<Entry<K, T>> sourceNode;
+        private transient PositionalTree.Node<Entry<K, T>> groupNode;
+
+        private Entry(T item) {
+            this.item = item;
+        }
+    }
+
+    /**
+     * A group of items. The items are read from the tree of the entries of the group, so that they do not have to be
+     * kept in a list of their own.
+     */
+    private static class Group<K, T> extends AbstractObservableList<T> {
+
+        private transient PositionalTree<Entry<K, T>> entries = new PositionalTree<>();
+        private transient List<T> items;
+
+        @Override
+        public List<T> getItems() {
+            if (items == null) {
+                items = new Items();
+            }
+            return items;
+        }
+
+        private void add(int index, Entry<K, T> entry) {
+            entry.groupNode = entries.insert(index, entry);
+            updateObservableValues();
+            fireEvent(ItemChangeEvent.itemAdded(this, entry.item, index));
+        }
+
+        private void remove(Entry<K, T> entry) {
+            var index = entries.indexOf(entry.groupNode);
+            entries.remove(entry.groupNode);
+            entry.groupNode = null;
+            updateObservableValues();
+            fireEvent(ItemChangeEvent.itemRemoved(this, entry.item, index));
+        }
+
+        private void itemMoved(T item, int index, int newPosition) {
+            if (index != newPosition) {
+                fireEvent(ItemChangeEvent.itemMoved(this, item, index, newPosition));
+            }
+        }
+
+        /**
+         * Replaces the entries of the group. A group that was empty was just created, so nobody can be listening to it
+         * yet and no event is fired.
+         */
+        private void setEntries(List<Entry<K, T>> newEntries) {
+            var wasEmpty = entries.isEmpty();
+            entries.clear();
+            for (var entry : newEntries) {
+                entry.groupNode = entries.insert(entries.size(), entry);
+            }
+            updateObservableValues();
+            if (!wasEmpty) {
+                fireEvent(ItemChangeEvent.listChanged(this));
+            }
+        }
+
+        /**
+         * Read-only view of the items of the entries of the group. Looking up an item by position is O(log n).
+         */
+        private final class Items extends AbstractList<T> {
+
+            @Override
+            public T get(int index) {
+                return entries.get(index).item;
+            }
+
+            @Override
+            public int size() {
+                return entries.size();
+            }
+
+            @Override
+            public Iterator<T> iterator() {
+                var iterator = entries.iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public T next() {
+                        return iterator.next().item;
+                    }
+                };
+            }
+        }
+    }
+}
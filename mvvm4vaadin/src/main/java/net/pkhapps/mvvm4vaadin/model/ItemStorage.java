@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.List;
+
+/**
+ * Base class for the mutable lists that {@link DefaultObservableList} stores its items in. In addition to the normal
+ * list operations, an item storage can hand out immutable snapshots of its contents. This class is intended for
+ * internal use only and is not thread safe.
+ *
+ * @param <T> the type of items stored.
+ */
+abstract class ItemStorage<T> extends AbstractList<T> implements Serializable {
+
+    /**
+     * Returns an immutable snapshot of the items currently in the storage. The snapshot must never change, even when
+     * the storage itself is changed afterwards.
+     *
+     * @return an unmodifiable list.
+     */
+    abstract List<T> snapshot();
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import com.vaadin.flow.function.SerializableBiFunction;
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableFunction;
+import com.vaadin.flow.function.SerializablePredicate;
+
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Base class for computed values that aggregate the items of an {@link ObservableList}. The aggregate is updated
+ * incrementally from the {@link ObservableList.ItemChangeEvent}s of the list and only recomputed from scratch when the
+ * entire list changes. This class is intended for internal use only and is not thread safe.
+ *
+ * @param <T> the type of items in the list.
+ * @param <R> the type of the aggregate.
+ */
+abstract class ListAggregate<T, R> extends AbstractComputedValue<R> {
+
+    protected final ObservableList<T> source;
+    @SuppressWarnings("FieldCanBeLocal") // Needed to prevent premature GC
+    private final SerializableConsumer<ObservableList.ItemChangeEvent<T>> sourceItemListener = this::onSourceItemChangeEvent;
+
+    ListAggregate(ObservableList<T> source) {
+        this.source = requireNonNull(source, "source must not be null");
+    }
+
+    /**
+     * Starts listening to the source list and computes the initial aggregate. Subclasses must call this method at the
+     * end of their constructors.
+     */
+    protected void start() {
+        listenWeaklyTo(source, sourceItemListener, false);
+        reset();
+        updateCachedValue();
+    }
+
+    private void onSourceItemChangeEvent(ObservableList.ItemChangeEvent<T> event) {
+        if (event.isItemAdded()) {
+            itemAdded(event.getItem(), event.getNewPosition());
+        } else if (event.isItemRemoved()) {
+            itemRemoved(event.getItem(), event.getOldPosition());
+        } else if (event.isItemMoved()) {
+            itemMoved(event.getItem(), event.getOldPosition(), event.getNewPosition());
+        } else {
+            reset();
+        }
+        updateCachedValue();
+    }
+
+    /**
+     * Recomputes the aggregate from all the items in the source list.
+     */
+    protected abstract void reset();
+
+    protected abstract void itemAdded(T item, int position);
+
+    protected abstract void itemRemoved(T item, int position);
+
+    protected void itemMoved(T item, int oldPosition, int newPosition) {
+        // Most aggregates do not care about the order of the items
+    }
+
+    /**
+     * Base class for aggregates that add up a {@code long} contribution of every item. The contribution of every item is
+     * stored when the item is added and subtracted as such when the item is removed, so the aggregate does not drift if
+     * an item is mutated while it is in the list. A mutated item is only re-evaluated when it is moved or when the
+     * entire list changes. The contributions are kept in the order of the list in a {@link PositionalTree}, so adding,
+     * removing and moving an item is O(log n) regardless of its position.
+     */
+    abstract static class ContributionSum<T, R> extends ListAggregate<T, R> {
+
+        private final PositionalTree<Long> contributions = new PositionalTree<>(0L, Long::sum);
+
+        ContributionSum(ObservableList<T> source) {
+            super(source);
+        }
+
+        /**
+         * Returns the contribution of the given {@code item} to the total.
+         */
+        protected abstract long contributionOf(T item);
+
+        /**
+         * Returns the sum of the contributions of all the items.
+         */
+        protected long total() {
+            return contributions.result();
+        }
+
+        @Override
+        protected void reset() {
+            contributions.reset(source.stream().map(this::contributionOf).collect(Collectors.toList()));
+        }
+
+        @Override
+        protected void itemAdded(T item, int position) {
+            contributions.insert(position, contributionOf(item));
+        }
+
+        @Override
+        protected void itemRemoved(T item, int position) {
+            contributions.remove(position);
+        }
+
+        @Override
+        protected void itemMoved(T item, int oldPosition, int newPosition) {
+            contributions.remove(oldPosition);
+            contributions.insert(newPosition, contributionOf(item));
+        }
+    }
+
+    /**
+     * Counts the items that match a predicate, see {@link ContributionSum}.
+     */
+    static class Count<T> extends ContributionSum<T, Integer> {
+
+        private final SerializablePredicate<T> predicate;
+
+        Count(ObservableList<T> source, SerializablePredicate<T> predicate) {
+            super(source);
+            this.predicate = requireNonNull(predicate, "predicate must not be null");
+            start();
+        }
+
+        @Override
+        protected long contributionOf(T item) {
+            return predicate.test(item) ? 1 : 0;
+        }
+
+        @Override
+        protected Integer computeValue() {
+            return (int) total();
+        }
+    }
+
+    /**
+     * Sums a numeric property of the items, see {@link ContributionSum}.
+     */
+    static class Sum<T> extends ContributionSum<T, Long> {
+
+        private final SerializableToLongFunction<T> function;
+
+        Sum(ObservableList<T> source, SerializableToLongFunction<T> function) {
+            super(source);
+            this.function = requireNonNull(function, "function must not be null");
+            start();
+        }
+
+        @Override
+        protected long contributionOf(T item) {
+            return function.applyAsLong(item);
+        }
+
+        @Override
+        protected Long computeValue() {
+            return total();
+        }
+    }
+
+    /**
+     * Reduces the items using an associative combiner in O(log n) per change, see {@link PositionalTree}.
+     */
+    static class Reduce<T, A> extends ListAggregate<T, A> {
+
+        private final SerializableFunction<T, A> mapper;
+        private final PositionalTree<A> tree;
+
+        Reduce(ObservableList<T> source, A identity, SerializableFunction<T, A> mapper, SerializableBiFunction<A, A, A> combiner) {
+            super(source);
+            this.mapper = requireNonNull(mapper, "mapper must not be null");
+            this.tree = new PositionalTree<>(identity, combiner);
+            start();
+        }
+
+        @Override
+        protected void reset() {
+            tree.reset(source.stream().map(mapper).collect(Collectors.toList()));
+        }
+
+        @Override
+        protected void itemAdded(T item, int position) {
+            tree.insert(position, mapper.apply(item));
+        }
+
+        @Override
+        protected void itemRemoved(T item, int position) {
+            tree.remove(position);
+        }
+
+        @Override
+        protected void itemMoved(T item, int oldPosition, int newPosition) {
+            tree.remove(oldPosition);
+            tree.insert(newPosition, mapper.apply(item));
+        }
+
+        @Override
+        protected A computeValue() {
+            return tree.result();
+        }
+    }
+}
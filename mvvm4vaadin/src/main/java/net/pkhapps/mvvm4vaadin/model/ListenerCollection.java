@@ -18,47 +18,74 @@ package net.pkhapps.mvvm4vaadin.model;
 
 import com.vaadin.flow.function.SerializableConsumer;
 import com.vaadin.flow.shared.Registration;
+import net.pkhapps.mvvm4vaadin.model.metrics.ModelMetrics;
+import net.pkhapps.mvvm4vaadin.model.metrics.ModelMetricsRegistry;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.lang.invoke.SerializedLambda;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.Objects.requireNonNull;
 
 /**
  * A collection of listeners that can be added using both strong and weak references. This class is intended for
  * internal use only and is not thread safe.
+ * <p>
+ * When serialized, the collection writes its strong listeners and those weak listeners whose dependent is either
+ * unknown or still around and serializable. The weak listeners are added back once the entire object graph has been
+ * read. A lambda that is reached for the first time through an object that it captures, and that holds on to the
+ * lambda itself, forms a cycle that Java serialization cannot restore. This is the normal case for weak listeners, so
+ * the dependent and the captured arguments of a lambda are written before the lambda itself. Lambdas whose captured
+ * arguments cannot be inspected or are not serializable are left out.
  *
  * @param <EVENT> the type of event that can be sent to the listeners.
  */
 class ListenerCollection<EVENT> implements Serializable {
 
+    // [0] is the number of timed listeners being invoked on the current thread, [1] is the time spent in the listeners
+    // nested inside the innermost one so far
+    private static final ThreadLocal<long[]> listenerTiming = ThreadLocal.withInitial(() -> new long[2]);
+    // The number of timed listeners being invoked on all threads, so that the thread local is only looked up while
+    // some listener is being timed
+    private static final AtomicInteger timedListeners = new AtomicInteger();
 
     @SuppressWarnings({"FieldCanBeLocal", "unused"})
     // Storing this reference is needed to prevent premature garbage collection of the owner of the ListenerCollection.
     // This can happen when e.g. mapping an ObservableValue to another ObservableValue and no reference is stored to the
     // mapped value itself, even though observers have been added to it.
-    private final Serializable owner;
-    private Set<SerializableConsumer<? super EVENT>> strongListeners;
-    private Map<SerializableConsumer<? super EVENT>, Void> weakListeners;
+    private final Observable<?> owner;
+    private transient Set<SerializableConsumer<? super EVENT>> strongListeners;
+    // The values are the owners of the weak listeners, if known
+    private transient Map<SerializableConsumer<? super EVENT>, WeakReference<Object>> weakListeners;
 
     /**
      * Creates a new {@code ListenerCollection}.
      *
      * @param owner the object that owns the collection.
      */
-    ListenerCollection(Serializable owner) {
+    ListenerCollection(Observable<?> owner) {
         this.owner = owner;
     }
 
     /**
-     * Fires the given event to all registered listeners.
+     * Fires the given event to all registered listeners. If the registered {@linkplain ModelMetrics metrics} ask for the
+     * listeners to be timed, or if the event is fired by a listener that is being timed, every listener is timed and
+     * reported with its self time, see {@link ModelMetrics#listenerTimed(Observable, Object, long, long)}.
      *
      * @param event the event to fire.
+     * @return the number of listeners that were notified.
      */
-    void fireEvent(EVENT event) {
+    int fireEvent(EVENT event) {
         requireNonNull(event, "event must not be null");
         Set<SerializableConsumer<? super EVENT>> listeners = new HashSet<>();
         if (strongListeners != null) {
@@ -67,7 +94,39 @@ class ListenerCollection<EVENT> implements Serializable {
         if (weakListeners != null) {
             listeners.addAll(weakListeners.keySet());
         }
-        listeners.forEach(listener -> listener.accept(event));
+        var metrics = ModelMetricsRegistry.getListenerTiming();
+        if (metrics != ModelMetrics.NOOP && (metrics.timeListeners(owner, event) || isTimingListener())) {
+            var timing = listenerTiming.get();
+            listeners.forEach(listener -> invokeTimed(metrics, timing, listener, event));
+        } else {
+            listeners.forEach(listener -> listener.accept(event));
+        }
+        return listeners.size();
+    }
+
+    private static boolean isTimingListener() {
+        return timedListeners.get() > 0 && listenerTiming.get()[0] > 0;
+    }
+
+    private void invokeTimed(ModelMetrics metrics, long[] timing, SerializableConsumer<? super EVENT> listener,
+                             EVENT event) {
+        var nestedInOuter = timing[1];
+        timing[0]++;
+        timing[1] = 0;
+        timedListeners.incrementAndGet();
+        var start = System.nanoTime();
+        long total;
+        long nested;
+        try {
+            listener.accept(event);
+        } finally {
+            total = System.nanoTime() - start;
+            timedListeners.decrementAndGet();
+            nested = timing[1];
+            timing[0]--;
+            timing[1] = nestedInOuter + total;
+        }
+        metrics.listenerTimed(owner, listener, total - nested, total);
     }
 
     /**
@@ -82,7 +141,11 @@ class ListenerCollection<EVENT> implements Serializable {
             strongListeners = new HashSet<>();
         }
         strongListeners.add(listener);
-        return () -> strongListeners.remove(listener);
+        return () -> {
+            if (strongListeners != null) {
+                strongListeners.remove(listener);
+            }
+        };
     }
 
     /**
@@ -92,11 +155,62 @@ class ListenerCollection<EVENT> implements Serializable {
      * @param listener the listener to add.
      */
     void addWeakListener(SerializableConsumer<? super EVENT> listener) {
+        addWeakListener(listener, null);
+    }
+
+    /**
+     * Adds the given {@code listener} to this collection using a weak reference, remembering the object that owns the
+     * listener and thereby depends on the owner of this collection. The listener will become unregistered when it is
+     * garbage collected.
+     *
+     * @param listener  the listener to add.
+     * @param dependent the object that owns the listener, or {@code null} if unknown.
+     */
+    void addWeakListener(SerializableConsumer<? super EVENT> listener, Object dependent) {
         requireNonNull(listener, "listener must not be null");
         if (weakListeners == null) {
             weakListeners = new WeakHashMap<>();
         }
-        weakListeners.put(listener, null);
+        weakListeners.put(listener, dependent == null ? null : new WeakReference<>(dependent));
+    }
+
+    /**
+     * Removes the given {@code listener} from this collection if it was added using a weak reference. If the listener
+     * was not added, nothing happens.
+     *
+     * @param listener the listener to remove.
+     */
+    void removeWeakListener(SerializableConsumer<? super EVENT> listener) {
+        if (weakListeners != null) {
+            weakListeners.remove(listener);
+        }
+    }
+
+    /**
+     * Returns the known owners of the listeners that were added using weak references.
+     *
+     * @return a list of dependents, never {@code null}.
+     */
+    List<Object> getDependents() {
+        var dependents = new ArrayList<>();
+        if (weakListeners != null) {
+            for (var dependent : weakListeners.values()) {
+                var object = dependent == null ? null : dependent.get();
+                if (object != null) {
+                    dependents.add(object);
+                }
+            }
+        }
+        return dependents;
+    }
+
+    /**
+     * Returns the listeners that were added using strong references, such as bindings.
+     *
+     * @return a list of listeners, never {@code null}.
+     */
+    List<Object> getStrongListeners() {
+        return strongListeners == null ? new ArrayList<>() : new ArrayList<>(strongListeners);
     }
 
     /**
@@ -107,4 +221,85 @@ class ListenerCollection<EVENT> implements Serializable {
     boolean hasListeners() {
         return (strongListeners != null && strongListeners.size() > 0) || (weakListeners != null && weakListeners.size() > 0);
     }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        if (strongListeners == null) {
+            out.writeInt(0);
+        } else {
+            out.writeInt(strongListeners.size());
+            for (var listener : strongListeners) {
+                out.writeObject(listener);
+            }
+        }
+        var weakEntries = new ArrayList<Object[]>();
+        if (weakListeners != null) {
+            weakListeners.forEach((listener, dependentReference) -> {
+                var dependent = dependentReference == null ? null : dependentReference.get();
+                if (dependentReference != null && !(dependent instanceof Serializable)) {
+                    return;
+                }
+                var capturedArgs = capturedArgs(listener);
+                if (capturedArgs != null) {
+                    weakEntries.add(new Object[]{dependent, capturedArgs, listener});
+                }
+            });
+        }
+        out.writeInt(weakEntries.size());
+        for (var entry : weakEntries) {
+            // Write the objects that are likely to hold on to the listener first, see the class documentation
+            out.writeObject(entry[0]);
+            out.writeObject(entry[1]);
+            out.writeObject(entry[2]);
+        }
+    }
+
+    /**
+     * Returns the captured arguments of the given {@code listener} if it is a lambda, an empty array if it is not, and
+     * {@code null} if the listener is a lambda that cannot be written safely.
+     */
+    private static Object[] capturedArgs(Object listener) {
+        if (!listener.getClass().isSynthetic()) {
+            return new Object[0];
+        }
+        try {
+            var writeReplace = listener.getClass().getDeclaredMethod("writeReplace");
+            writeReplace.setAccessible(true);
+            var serializedLambda = (SerializedLambda) writeReplace.invoke(listener);
+            var capturedArgs = new Object[serializedLambda.getCapturedArgCount()];
+            for (int i = 0; i < capturedArgs.length; ++i) {
+                capturedArgs[i] = serializedLambda.getCapturedArg(i);
+                if (capturedArgs[i] != null && !(capturedArgs[i] instanceof Serializable)) {
+                    return null;
+                }
+            }
+            return capturedArgs;
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        var strongCount = in.readInt();
+        for (int i = 0; i < strongCount; ++i) {
+            if (strongListeners == null) {
+                strongListeners = new HashSet<>();
+            }
+            strongListeners.add((SerializableConsumer<? super EVENT>) in.readObject());
+        }
+        var weakCount = in.readInt();
+        var weakEntries = new ArrayList<Object[]>(weakCount);
+        for (int i = 0; i < weakCount; ++i) {
+            var dependent = in.readObject();
+            in.readObject(); // The captured arguments, which the listener refers to
+            weakEntries.add(new Object[]{in.readObject(), dependent});
+        }
+        if (!weakEntries.isEmpty()) {
+            // The listeners may not have been completely deserialized yet, so wait until the entire graph has been read
+            in.registerValidation(() -> weakEntries.forEach(entry ->
+                    addWeakListener((SerializableConsumer<? super EVENT>) entry[0], entry[1])), 0);
+        }
+    }
 }
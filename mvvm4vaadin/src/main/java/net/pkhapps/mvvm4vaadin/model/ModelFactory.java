@@ -16,11 +16,13 @@
 
 package net.pkhapps.mvvm4vaadin.model;
 
+import com.vaadin.flow.function.SerializableBiFunction;
 import com.vaadin.flow.function.SerializableRunnable;
 import com.vaadin.flow.function.SerializableSupplier;
 
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  *
@@ -102,6 +104,115 @@ public final class ModelFactory {
         return observableList(List.of(initialValue));
     }
 
+    /**
+     * Creates a new empty {@link DefaultObservableList} that stores its items in a
+     * {@linkplain DefaultObservableList.Storage#TREE balanced tree}.
+     *
+     * @param <T> the type of the items in the list.
+     * @return a new {@link DefaultObservableList}.
+     */
+    public static <T> DefaultObservableList<T> observableTreeList() {
+        return new DefaultObservableList<>(DefaultObservableList.Storage.TREE);
+    }
+
+    /**
+     * Creates a new empty {@link DefaultObservableList} that stores its items in a
+     * {@linkplain DefaultObservableList.Storage#TREE balanced tree}. This method exists to make it possible to use the
+     * {@code var} keyword and a static import of this method and still get the type right.
+     *
+     * @param type the type of the items in the list.
+     * @param <T>  the type of the items in the list.
+     * @return a new {@link DefaultObservableList}.
+     */
+    @SuppressWarnings("unused")
+    public static <T> DefaultObservableList<T> observableTreeList(Class<T> type) {
+        return observableTreeList();
+    }
+
+    /**
+     * Creates a new {@link DefaultObservableList} with the given {@code initialValue} that stores its items in a
+     * {@linkplain DefaultObservableList.Storage#TREE balanced tree}.
+     *
+     * @param initialValue the initial items of the list, may be {@code null} or empty.
+     * @param <T>          the type of the items in the list.
+     * @return a new {@link DefaultObservableList}.
+     */
+    public static <T> DefaultObservableList<T> observableTreeList(Collection<T> initialValue) {
+        return new DefaultObservableList<>(DefaultObservableList.Storage.TREE, initialValue);
+    }
+
+    /**
+     * Creates a new empty {@link DefaultObservableMap}.
+     *
+     * @param <K> the type of the keys of the map.
+     * @param <V> the type of the values of the map.
+     * @return a new {@link DefaultObservableMap}.
+     */
+    public static <K, V> DefaultObservableMap<K, V> observableMap() {
+        return new DefaultObservableMap<>();
+    }
+
+    /**
+     * Creates a new empty {@link DefaultObservableMap}. This method exists to make it possible to use the {@code var}
+     * keyword and a static import of this method and still get the type right.
+     *
+     * @param keyType   the type of the keys of the map.
+     * @param valueType the type of the values of the map.
+     * @param <K>       the type of the keys of the map.
+     * @param <V>       the type of the values of the map.
+     * @return a new {@link DefaultObservableMap}.
+     */
+    @SuppressWarnings("unused")
+    public static <K, V> DefaultObservableMap<K, V> observableMap(Class<K> keyType, Class<V> valueType) {
+        return observableMap();
+    }
+
+    /**
+     * Creates a new {@link DefaultObservableMap} with the given {@code initialValue}.
+     *
+     * @param initialValue the initial entries of the map, may be {@code null} or empty.
+     * @param <K>          the type of the keys of the map.
+     * @param <V>          the type of the values of the map.
+     * @return a new {@link DefaultObservableMap}.
+     */
+    public static <K, V> DefaultObservableMap<K, V> observableMap(Map<K, V> initialValue) {
+        return new DefaultObservableMap<>(initialValue);
+    }
+
+    /**
+     * Creates a new empty {@link DefaultObservableSet}.
+     *
+     * @param <T> the type of the items in the set.
+     * @return a new {@link DefaultObservableSet}.
+     */
+    public static <T> DefaultObservableSet<T> observableSet() {
+        return new DefaultObservableSet<>();
+    }
+
+    /**
+     * Creates a new empty {@link DefaultObservableSet}. This method exists to make it possible to use the {@code var}
+     * keyword and a static import of this method and still get the type right.
+     *
+     * @param type the type of the items in the set.
+     * @param <T>  the type of the items in the set.
+     * @return a new {@link DefaultObservableSet}.
+     */
+    @SuppressWarnings("unused")
+    public static <T> DefaultObservableSet<T> observableSet(Class<T> type) {
+        return observableSet();
+    }
+
+    /**
+     * Creates a new {@link DefaultObservableSet} with the given {@code initialValue}.
+     *
+     * @param initialValue the initial items of the set, may be {@code null} or empty.
+     * @param <T>          the type of the items in the set.
+     * @return a new {@link DefaultObservableSet}.
+     */
+    public static <T> DefaultObservableSet<T> observableSet(Collection<T> initialValue) {
+        return new DefaultObservableSet<>(initialValue);
+    }
+
     /**
      * @param valueSupplier
      * @param dependencies
@@ -122,6 +233,49 @@ public final class ModelFactory {
         return new ComputedValue<>(valueSupplier, dependencies);
     }
 
+    /**
+     * Creates a new {@link ObservableValue} that combines the values of {@code a} and {@code b} using the given
+     * {@code combiner}. Whenever either of them changes, the combiner is invoked with the new value of the changed
+     * observable value and the last known value of the other one. Unlike
+     * {@link #computedValue(SerializableSupplier, Observable[])}, the dependencies are typed and are not re-read on
+     * every change.
+     *
+     * @param a        the first observable value.
+     * @param b        the second observable value.
+     * @param combiner the function to use to combine the values, must be able to deal with {@code null} values.
+     * @param <A>      the type of the first value.
+     * @param <B>      the type of the second value.
+     * @param <R>      the type of the combined value.
+     * @return a new observable value.
+     */
+    public static <A, B, R> ObservableValue<R> combine(ObservableValue<A> a, ObservableValue<B> b,
+                                                       SerializableBiFunction<A, B, R> combiner) {
+        return new CombinedValue.Of2<>(a, b, combiner);
+    }
+
+    /**
+     * Creates a new {@link ObservableValue} that combines the values of {@code a}, {@code b} and {@code c} using the
+     * given {@code combiner}. Whenever any of them changes, the combiner is invoked with the new value of the changed
+     * observable value and the last known values of the other ones. Unlike
+     * {@link #computedValue(SerializableSupplier, Observable[])}, the dependencies are typed and are not re-read on
+     * every change.
+     *
+     * @param a        the first observable value.
+     * @param b        the second observable value.
+     * @param c        the third observable value.
+     * @param combiner the function to use to combine the values, must be able to deal with {@code null} values.
+     * @param <A>      the type of the first value.
+     * @param <B>      the type of the second value.
+     * @param <C>      the type of the third value.
+     * @param <R>      the type of the combined value.
+     * @return a new observable value.
+     */
+    public static <A, B, C, R> ObservableValue<R> combine(ObservableValue<A> a, ObservableValue<B> b,
+                                                          ObservableValue<C> c,
+                                                          SerializableFunction3<A, B, C, R> combiner) {
+        return new CombinedValue.Of3<>(a, b, c, combiner);
+    }
+
     public static <T> DefaultVetoableObservableValue<T> vetoableValue() {
         return new DefaultVetoableObservableValue<>();
     }
@@ -136,6 +290,29 @@ public final class ModelFactory {
         return vetoableValue();
     }
 
+    /**
+     * Creates a new {@link DefaultObservableKeySelection} with nothing selected.
+     *
+     * @param <K> the type of the keys.
+     * @return a new {@link DefaultObservableKeySelection}.
+     */
+    public static <K> DefaultObservableKeySelection<K> keySelection() {
+        return new DefaultObservableKeySelection<>();
+    }
+
+    /**
+     * Creates a new {@link DefaultObservableKeySelection} with nothing selected. This method exists to make it possible
+     * to use the {@code var} keyword and a static import of this method and still get the type right.
+     *
+     * @param type the type of the keys.
+     * @param <K>  the type of the keys.
+     * @return a new {@link DefaultObservableKeySelection}.
+     */
+    @SuppressWarnings("unused")
+    public static <K> DefaultObservableKeySelection<K> keySelection(Class<K> type) {
+        return keySelection();
+    }
+
     public static DefaultAction action(SerializableRunnable action) {
         return new DefaultAction(action);
     }
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import java.util.Objects;
+
+/**
+ * An observable value containing the key of the currently selected item (or {@code null} if nothing is selected) that
+ * can also hand out an observable "is selected" flag for any individual key. When the selection changes, only the flags
+ * of the previously selected key and the newly selected key are notified, which makes a selection change cost the same
+ * regardless of how many keys are being observed.
+ *
+ * @param <K> the type of the keys.
+ * @see ModelFactory#keySelection()
+ */
+public interface ObservableKeySelection<K> extends ObservableValue<K> {
+
+    /**
+     * Returns an observable value that contains true whenever the given {@code key} is selected and false otherwise.
+     * Repeated calls with equal keys return the same observable value for as long as it is in use.
+     *
+     * @param key the key to observe, may be {@code null} (in which case the flag is true when nothing is selected).
+     * @return an observable value containing the selection state of the key.
+     */
+    ObservableValue<Boolean> selected(K key);
+
+    /**
+     * Checks whether the given {@code key} is currently selected.
+     *
+     * @param key the key to check, may be {@code null}.
+     * @return true if the key is selected, false otherwise.
+     * @see #selected(Object)
+     */
+    default boolean isSelected(K key) {
+        return Objects.equals(getValue(), key);
+    }
+}
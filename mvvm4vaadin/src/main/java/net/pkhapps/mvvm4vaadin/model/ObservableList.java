@@ -16,10 +16,14 @@
 
 package net.pkhapps.mvvm4vaadin.model;
 
+import com.vaadin.flow.function.SerializableBiFunction;
+import com.vaadin.flow.function.SerializableComparator;
 import com.vaadin.flow.function.SerializableFunction;
 import com.vaadin.flow.function.SerializablePredicate;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
@@ -124,6 +128,46 @@ public interface ObservableList<T> extends Iterable<T>, Observable<ObservableLis
         return getItems().stream();
     }
 
+    /**
+     * Returns an immutable snapshot of the items currently in the list. Unlike {@link #getItems()}, the snapshot does
+     * not change when the list changes, so it can be iterated over while the list is being modified and it can be
+     * handed over to other threads.
+     * <p>
+     * The default implementation copies the items. Implementations are encouraged to override this method with
+     * something cheaper.
+     *
+     * @return an unmodifiable list that will never change.
+     * @see #parallelStream()
+     */
+    default List<T> snapshot() {
+        return Collections.unmodifiableList(new ArrayList<>(getItems()));
+    }
+
+    /**
+     * Returns a possibly parallel stream with a {@linkplain #snapshot() snapshot} of this observable list as its
+     * source. Changes made to the list while using the stream do not affect the stream.
+     *
+     * @return a possibly parallel stream over the items in this list at the time of the call.
+     * @see #stream()
+     */
+    default Stream<T> parallelStream() {
+        return snapshot().parallelStream();
+    }
+
+    /**
+     * Creates a {@link PositionIndex} that maps the keys returned by the given {@code keyFunction} to the positions of
+     * the items in this list. The index is updated incrementally as this list changes and is only referenced weakly by
+     * this list, so the caller must hold on to it for as long as it is needed.
+     *
+     * @param keyFunction the function to use to compute the key of an item. The key of an item must not change while
+     *                    the item is in the list.
+     * @param <K>         the type of the keys.
+     * @return the position index.
+     */
+    default <K> PositionIndex<T, K> indexBy(SerializableFunction<T, K> keyFunction) {
+        return new PositionIndex<>(this, keyFunction);
+    }
+
     /**
      * Maps this observable list to another observable list using the given {@code mappingFunction} and returns it. The
      * returned observable list changes whenever this observable value changes. The mapping function is invoked each
@@ -156,6 +200,100 @@ public interface ObservableList<T> extends Iterable<T>, Observable<ObservableLis
      */
     ObservableList<T> sorted(Comparator<T> comparator);
 
+    /**
+     * Groups the items of this observable list by the keys returned by the given {@code keyFunction}. The returned
+     * observable map contains one observable list per key, with the items that have that key in the same order as in
+     * this list. Whenever an item is added, removed or moved in this list, only the group of the item is changed. A new
+     * group is added to the map when an item with a new key is added, and a group is removed from the map when its last
+     * item is removed. Only a change of the entire list regroups all the items.
+     * <p>
+     * The groups are kept up-to-date by the returned map, so clients must hold on to the map and not only to the
+     * individual groups.
+     *
+     * @param keyFunction the function to use to compute the key of an item. The key of an item must not change while
+     *                    the item is in the list. Use {@link #groupByObservable(SerializableFunction)} for keys that
+     *                    can change.
+     * @param <K>         the type of the keys.
+     * @return an observable map of keys to groups.
+     */
+    <K> ObservableMap<K, ObservableList<T>> groupBy(SerializableFunction<T, K> keyFunction);
+
+    /**
+     * Groups the items of this observable list by the observable keys returned by the given {@code keyFunction}. This
+     * works like {@link #groupBy(SerializableFunction)}, except that the key of an item may change while the item is in
+     * the list. When that happens, the item is removed from its old group and added to its new group, in the same
+     * order as in this list. The function is called once for every item that is added to this list, and the returned
+     * map listens to the observable key of the item until the item is removed.
+     *
+     * @param keyFunction the function that returns the observable key of an item.
+     * @param <K>         the type of the keys.
+     * @return an observable map of keys to groups.
+     */
+    <K> ObservableMap<K, ObservableList<T>> groupByObservable(SerializableFunction<T, ObservableValue<K>> keyFunction);
+
+    /**
+     * Returns an observable value containing the number of items in this list that match the given {@code predicate}.
+     * The value is updated incrementally whenever an item is added, removed or moved and only recounted from scratch
+     * when the entire list changes. The predicate is evaluated once when an item is added, and the result is
+     * remembered until the item is removed. Mutating an item while it is in the list therefore does not change the
+     * count, but it does not corrupt the count either.
+     *
+     * @param predicate the predicate to evaluate on the items of this observable list.
+     * @return an observable value containing the number of matching items.
+     */
+    ObservableValue<Integer> count(SerializablePredicate<T> predicate);
+
+    /**
+     * Returns an observable value containing the sum of the values returned by the given {@code function} for all items
+     * in this list. The value is updated incrementally whenever an item is added, removed or moved and only recomputed
+     * from scratch when the entire list changes. The function is applied once when an item is added, and the result is
+     * remembered until the item is removed. Mutating an item while it is in the list therefore does not change the
+     * sum, but it does not corrupt the sum either.
+     *
+     * @param function the function to apply to the items of this observable list.
+     * @return an observable value containing the sum.
+     */
+    ObservableValue<Long> sum(SerializableToLongFunction<T> function);
+
+    /**
+     * Returns an observable value containing the smallest item in this list according to the given
+     * {@code comparator}, or {@code null} if the list is empty. {@code null} items are ignored. The value is updated in
+     * O(log n) whenever an item is added, removed or moved.
+     *
+     * @param comparator the comparator to use.
+     * @return an observable value containing the smallest item.
+     * @see #reduce(Object, SerializableFunction, SerializableBiFunction)
+     */
+    ObservableValue<T> min(SerializableComparator<T> comparator);
+
+    /**
+     * Returns an observable value containing the largest item in this list according to the given {@code comparator},
+     * or {@code null} if the list is empty. {@code null} items are ignored. The value is updated in O(log n) whenever
+     * an item is added, removed or moved.
+     *
+     * @param comparator the comparator to use.
+     * @return an observable value containing the largest item.
+     * @see #reduce(Object, SerializableFunction, SerializableBiFunction)
+     */
+    ObservableValue<T> max(SerializableComparator<T> comparator);
+
+    /**
+     * Returns an observable value containing the result of mapping every item in this list using the given
+     * {@code mapper} and then combining the mapped values, in list order, using the given {@code combiner}. The value
+     * is updated in O(log n) whenever an item is added, removed or moved and only recomputed from scratch when the
+     * entire list changes.
+     * <p>
+     * The combiner must be associative, and {@code combiner.apply(identity, a)} and {@code combiner.apply(a, identity)}
+     * must both be equal to {@code a}. The combiner does not have to be commutative.
+     *
+     * @param identity the value of the reduction when the list is empty.
+     * @param mapper   the function to apply to the items of this observable list.
+     * @param combiner the associative function to use to combine two mapped values.
+     * @param <A>      the type of the result.
+     * @return an observable value containing the result of the reduction.
+     */
+    <A> ObservableValue<A> reduce(A identity, SerializableFunction<T, A> mapper, SerializableBiFunction<A, A, A> combiner);
+
     /**
      * Event fired by an {@link ObservableList} when items are added, removed or moved and when the entire list contents
      * changes.
@@ -0,0 +1,285 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import com.vaadin.flow.function.SerializableBiPredicate;
+import com.vaadin.flow.function.SerializableFunction;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Objects;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An observable map is a map of keys to values that can be observed by other objects. Whenever an entry is added,
+ * removed or gets a new value, an {@link EntryChangeEvent} is fired to all registered observers. The map does not keep
+ * track of what happens to each individual value in case they are mutable.
+ *
+ * @param <K> the type of the keys of the map.
+ * @param <V> the type of the values of the map.
+ * @see ObservableList
+ * @see ObservableSet
+ */
+public interface ObservableMap<K, V> extends Observable<ObservableMap.EntryChangeEvent<K, V>> {
+
+    /**
+     * Returns the entries currently in the map.
+     *
+     * @return an unmodifiable map.
+     */
+    Map<K, V> asMap();
+
+    /**
+     * An observable value containing the value of {@link #isEmpty()}. Whenever the map becomes empty or non-empty,
+     * this value is updated.
+     *
+     * @return an observable value containing true if the map is empty and false if it contains at least one entry.
+     */
+    ObservableValue<Boolean> empty();
+
+    /**
+     * An observable value containing the value of {@link #getSize()}. Whenever entries are added to or removed from the
+     * map, this value is updated.
+     *
+     * @return an observable value containing the number of entries currently in the map.
+     */
+    ObservableValue<Integer> size();
+
+    /**
+     * Checks whether the map is currently empty or not.
+     *
+     * @return true if the map is empty, false if it contains at least one entry.
+     * @see #empty()
+     */
+    default boolean isEmpty() {
+        return asMap().isEmpty();
+    }
+
+    /**
+     * Returns the current size of the map.
+     *
+     * @return the number of entries in the map.
+     * @see #size()
+     */
+    default int getSize() {
+        return asMap().size();
+    }
+
+    /**
+     * Returns the value of the given {@code key}.
+     *
+     * @param key the key whose value to return.
+     * @return the value, or {@code null} if the map contains no entry for the key.
+     */
+    default V get(K key) {
+        return asMap().get(key);
+    }
+
+    /**
+     * Checks whether the map contains an entry for the given {@code key}.
+     *
+     * @param key the key to look for.
+     * @return true if the map contains an entry for the key, false otherwise.
+     */
+    default boolean containsKey(K key) {
+        return asMap().containsKey(key);
+    }
+
+    /**
+     * Maps the values of this observable map to another observable map using the given {@code mappingFunction} and
+     * returns it. The returned observable map has the same keys as this map and changes whenever this observable map
+     * changes. The mapping function is invoked each time an entry is added to or replaced in this map.
+     *
+     * @param mappingFunction the mapping function to apply to the values of this observable map.
+     * @param <E>             the type of the values in the mapped map.
+     * @return the mapped observable map.
+     * @see #filter(SerializableBiPredicate)
+     */
+    <E> ObservableMap<K, E> mapValues(SerializableFunction<V, E> mappingFunction);
+
+    /**
+     * Maps this observable map to another observable map that will contain all the entries of this observable map that
+     * match the given {@code predicate}. The predicate is evaluated each time an entry is added to or replaced in this
+     * map.
+     *
+     * @param predicate the predicate to evaluate on the keys and values of this observable map.
+     * @return the filtered observable map.
+     * @see #mapValues(SerializableFunction)
+     */
+    ObservableMap<K, V> filter(SerializableBiPredicate<K, V> predicate);
+
+    /**
+     * Event fired by an {@link ObservableMap} when entries are added, removed or replaced and when the entire map
+     * contents changes.
+     *
+     * @param <K> the type of the keys of the map.
+     * @param <V> the type of the values of the map.
+     */
+    class EntryChangeEvent<K, V> implements Serializable {
+
+        private enum Type {
+            ADDED, REMOVED, REPLACED, MAP_CHANGED
+        }
+
+        private final ObservableMap<K, V> sender;
+        private final Type type;
+        private final K key;
+        private final V oldValue;
+        private final V newValue;
+
+        private EntryChangeEvent(ObservableMap<K, V> sender, Type type, K key, V oldValue, V newValue) {
+            this.sender = requireNonNull(sender);
+            this.type = type;
+            this.key = key;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+        }
+
+        /**
+         * Creates a new {@code EntryChangeEvent} for the case when an entry has been added to the map.
+         *
+         * @param sender the map to which the entry was added.
+         * @param key    the key of the added entry.
+         * @param value  the value of the added entry.
+         * @param <K>    the type of the key.
+         * @param <V>    the type of the value.
+         * @return the new event.
+         */
+        public static <K, V> EntryChangeEvent<K, V> entryAdded(ObservableMap<K, V> sender, K key, V value) {
+            return new EntryChangeEvent<>(sender, Type.ADDED, key, null, value);
+        }
+
+        /**
+         * Creates a new {@code EntryChangeEvent} for the case when an entry has been removed from the map.
+         *
+         * @param sender   the map from which the entry was removed.
+         * @param key      the key of the removed entry.
+         * @param oldValue the value of the entry prior to its removal.
+         * @param <K>      the type of the key.
+         * @param <V>      the type of the value.
+         * @return the new event.
+         */
+        public static <K, V> EntryChangeEvent<K, V> entryRemoved(ObservableMap<K, V> sender, K key, V oldValue) {
+            return new EntryChangeEvent<>(sender, Type.REMOVED, key, oldValue, null);
+        }
+
+        /**
+         * Creates a new {@code EntryChangeEvent} for the case when the value of an existing entry has been replaced.
+         *
+         * @param sender   the map in which the entry was replaced.
+         * @param key      the key of the replaced entry.
+         * @param oldValue the value of the entry before it was replaced.
+         * @param newValue the current value of the entry.
+         * @param <K>      the type of the key.
+         * @param <V>      the type of the value.
+         * @return the new event.
+         */
+        public static <K, V> EntryChangeEvent<K, V> entryReplaced(ObservableMap<K, V> sender, K key, V oldValue, V newValue) {
+            return new EntryChangeEvent<>(sender, Type.REPLACED, key, oldValue, newValue);
+        }
+
+        /**
+         * Creates a new {@code EntryChangeEvent} for the case when the entire map has changed.
+         *
+         * @param sender the map that has changed.
+         * @param <K>    the type of the keys.
+         * @param <V>    the type of the values.
+         * @return the new event.
+         */
+        public static <K, V> EntryChangeEvent<K, V> mapChanged(ObservableMap<K, V> sender) {
+            return new EntryChangeEvent<>(sender, Type.MAP_CHANGED, null, null, null);
+        }
+
+        /**
+         * Returns whether this event was fired in response to an added entry.
+         */
+        public boolean isEntryAdded() {
+            return type == Type.ADDED;
+        }
+
+        /**
+         * Returns whether this event was fired in response to a removed entry.
+         */
+        public boolean isEntryRemoved() {
+            return type == Type.REMOVED;
+        }
+
+        /**
+         * Returns whether this event was fired in response to a replaced entry.
+         */
+        public boolean isEntryReplaced() {
+            return type == Type.REPLACED;
+        }
+
+        /**
+         * Returns whether this event was fired in response to a changed map.
+         */
+        public boolean isMapChanged() {
+            return type == Type.MAP_CHANGED;
+        }
+
+        /**
+         * Returns the observable map that fired this event.
+         *
+         * @return the observable map.
+         */
+        public ObservableMap<K, V> getSender() {
+            return sender;
+        }
+
+        /**
+         * Returns the key of the entry that the event concerned, if applicable.
+         *
+         * @return the key, may be {@code null}.
+         */
+        public K getKey() {
+            return key;
+        }
+
+        /**
+         * Returns the value of the entry before it was removed or replaced, if applicable.
+         *
+         * @return the old value, may be {@code null}.
+         */
+        public V getOldValue() {
+            return oldValue;
+        }
+
+        /**
+         * Returns the value of the entry after it was added or replaced, if applicable.
+         *
+         * @return the new value, may be {@code null}.
+         */
+        public V getNewValue() {
+            return newValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            EntryChangeEvent<?, ?> that = (EntryChangeEvent<?, ?>) o;
+            return type == that.type && sender.equals(that.sender) && Objects.equals(key, that.key) && Objects.equals(oldValue, that.oldValue) && Objects.equals(newValue, that.newValue);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sender, type, key, oldValue, newValue);
+        }
+    }
+}
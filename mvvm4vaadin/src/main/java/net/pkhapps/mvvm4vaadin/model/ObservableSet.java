@@ -0,0 +1,231 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import com.vaadin.flow.function.SerializablePredicate;
+
+import java.io.Serializable;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An observable set is a set of unique items that can be observed by other objects. Whenever an item is added or
+ * removed, an {@link ElementChangeEvent} is fired to all registered observers. The set does not keep track of what
+ * happens to each individual item in case they are mutable.
+ *
+ * @param <T> the type of items contained inside the observable set.
+ * @see ObservableList
+ * @see ObservableMap
+ */
+public interface ObservableSet<T> extends Iterable<T>, Observable<ObservableSet.ElementChangeEvent<T>> {
+
+    /**
+     * Returns the items currently in the set.
+     *
+     * @return an unmodifiable set.
+     * @see #iterator()
+     * @see #stream()
+     */
+    Set<T> getItems();
+
+    /**
+     * An observable value containing the value of {@link #isEmpty()}. Whenever the set becomes empty or non-empty,
+     * this value is updated.
+     *
+     * @return an observable value containing true if the set is empty and false if it contains at least one item.
+     */
+    ObservableValue<Boolean> empty();
+
+    /**
+     * An observable value containing the value of {@link #getSize()}. Whenever items are added to or removed from the
+     * set, this value is updated.
+     *
+     * @return an observable value containing the number of items currently in the set.
+     */
+    ObservableValue<Integer> size();
+
+    /**
+     * Checks whether the set is currently empty or not.
+     *
+     * @return true if the set is empty, false if it contains at least one item.
+     * @see #empty()
+     */
+    default boolean isEmpty() {
+        return getItems().isEmpty();
+    }
+
+    /**
+     * Returns the current size of the set.
+     *
+     * @return the number of items in the set.
+     * @see #size()
+     */
+    default int getSize() {
+        return getItems().size();
+    }
+
+    /**
+     * Checks whether the set contains the given {@code item}.
+     *
+     * @param item the item to look for.
+     * @return true if the set contains the item, false otherwise.
+     */
+    default boolean contains(T item) {
+        return getItems().contains(item);
+    }
+
+    /**
+     * {@inheritDoc} The iterator cannot be used to remove items from the set. If the set is changed (items added or
+     * removed) while using this iterator, the behavior is undefined.
+     */
+    @Override
+    default Iterator<T> iterator() {
+        return getItems().iterator();
+    }
+
+    /**
+     * Returns a sequential stream with this observable set as its source. If the set is changed (items added or
+     * removed) while using this stream, the behavior is undefined.
+     *
+     * @return a sequential stream over the items in this set.
+     */
+    default Stream<T> stream() {
+        return getItems().stream();
+    }
+
+    /**
+     * Maps this observable set to another observable set that will contain all the items of this observable set that
+     * match the given {@code predicate}. The predicate is evaluated each time an item is added to this set.
+     *
+     * @param predicate the predicate to evaluate on the items of this observable set.
+     * @return the filtered observable set.
+     */
+    ObservableSet<T> filter(SerializablePredicate<T> predicate);
+
+    /**
+     * Event fired by an {@link ObservableSet} when items are added or removed and when the entire set contents changes.
+     *
+     * @param <T> the type of items in the set.
+     */
+    class ElementChangeEvent<T> implements Serializable {
+
+        private enum Type {
+            ADDED, REMOVED, SET_CHANGED
+        }
+
+        private final ObservableSet<T> sender;
+        private final Type type;
+        private final T item;
+
+        private ElementChangeEvent(ObservableSet<T> sender, Type type, T item) {
+            this.sender = requireNonNull(sender);
+            this.type = type;
+            this.item = item;
+        }
+
+        /**
+         * Creates a new {@code ElementChangeEvent} for the case when an item has been added to the set.
+         *
+         * @param sender the set to which the item was added.
+         * @param item   the added item.
+         * @param <T>    the type of the added item.
+         * @return the new event.
+         */
+        public static <T> ElementChangeEvent<T> itemAdded(ObservableSet<T> sender, T item) {
+            return new ElementChangeEvent<>(sender, Type.ADDED, item);
+        }
+
+        /**
+         * Creates a new {@code ElementChangeEvent} for the case when an item has been removed from the set.
+         *
+         * @param sender the set from which the item was removed.
+         * @param item   the removed item.
+         * @param <T>    the type of the removed item.
+         * @return the new event.
+         */
+        public static <T> ElementChangeEvent<T> itemRemoved(ObservableSet<T> sender, T item) {
+            return new ElementChangeEvent<>(sender, Type.REMOVED, item);
+        }
+
+        /**
+         * Creates a new {@code ElementChangeEvent} for the case when the entire set has changed.
+         *
+         * @param sender the set that has changed.
+         * @param <T>    the type of the items in the set.
+         * @return the new event.
+         */
+        public static <T> ElementChangeEvent<T> setChanged(ObservableSet<T> sender) {
+            return new ElementChangeEvent<>(sender, Type.SET_CHANGED, null);
+        }
+
+        /**
+         * Returns whether this event was fired in response to an added item.
+         */
+        public boolean isItemAdded() {
+            return type == Type.ADDED;
+        }
+
+        /**
+         * Returns whether this event was fired in response to a removed item.
+         */
+        public boolean isItemRemoved() {
+            return type == Type.REMOVED;
+        }
+
+        /**
+         * Returns whether this event was fired in response to a changed set.
+         */
+        public boolean isSetChanged() {
+            return type == Type.SET_CHANGED;
+        }
+
+        /**
+         * Returns the observable set that fired this event.
+         *
+         * @return the observable set.
+         */
+        public ObservableSet<T> getSender() {
+            return sender;
+        }
+
+        /**
+         * Returns the item that the event concerned, if applicable.
+         *
+         * @return the item, may be {@code null}.
+         */
+        public T getItem() {
+            return item;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            ElementChangeEvent<?> that = (ElementChangeEvent<?>) o;
+            return type == that.type && sender.equals(that.sender) && Objects.equals(item, that.item);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sender, type, item);
+        }
+    }
+}
@@ -154,6 +154,24 @@ public interface ObservableValue<T> extends Observable<ObservableValue.ValueChan
         return map(v -> v != null ? mappingFunction.apply(v) : defaultValue);
     }
 
+    /**
+     * Maps this observable value to another observable value using the given {@code mappingFunction}, and returns an
+     * observable value that contains the value of that observable value. Whenever this observable value changes, the
+     * returned observable value stops observing the previous observable value and starts observing the new one. It
+     * only ever observes one observable value at a time. The mapping function must be able to deal with {@code null}
+     * values, or special care must be taken to ensure this observable value can never contain {@code null}. If the
+     * mapping function returns {@code null}, the returned observable value contains {@code null}.
+     * <p>
+     * This is useful when a model exposes another model through an observable value, and you want to observe a
+     * property of whatever model is currently exposed, e.g. the summary of the currently selected ticket.
+     *
+     * @param mappingFunction the mapping function to apply to the value of this observable value.
+     * @param <E>             the type of the value of the mapped observable value.
+     * @return the flat-mapped observable value.
+     * @see #map(SerializableFunction)
+     */
+    <E> ObservableValue<E> flatMap(SerializableFunction<T, ObservableValue<E>> mappingFunction);
+
     /**
      * Maps this observable value to another observable value that will contain the {@linkplain #getValue() current
      * value} when it matches the given {@code predicate} and {@code null} when it does not.
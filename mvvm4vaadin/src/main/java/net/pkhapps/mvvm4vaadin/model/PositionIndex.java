@@ -0,0 +1,229 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.function.SerializableFunction;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A hash-based index that maps keys derived from the items of an {@link ObservableList} to the positions of the items
+ * in the list. The index is updated incrementally whenever the list changes.
+ * <p>
+ * The index mirrors the list in a {@link PositionalTree} that has one node per item, and maps every key to the node of
+ * its item. When an item is added or removed, the positions of the items after it shift, but their nodes stay the
+ * same, so the map does not have to be touched. The position of an item is computed from its node when it is looked
+ * up. Adding, removing and moving an item anywhere in the list is therefore O(log n), and so is looking up a key. If
+ * several items have the same key, the nodes of the key are kept in a tree of their own, which makes changes to those
+ * items O(log² n).
+ * <p>
+ * The keys of the items must not change while the items are in the list. If several items have the same key, the index
+ * returns the position of the first one. This class is not thread safe.
+ *
+ * @param <T> the type of items in the list.
+ * @param <K> the type of the keys.
+ * @see ObservableList#indexBy(SerializableFunction)
+ */
+public class PositionIndex<T, K> implements Serializable {
+
+    private final ObservableList<T> list;
+    private final SerializableFunction<T, K> keyFunction;
+    private transient PositionalTree<K> nodes = new PositionalTree<>();
+    // The value is the node of the item for a key with one item, and a tree of the nodes in list order for a key with
+    // several items
+    private transient Map<K, Object> nodesByKey = new HashMap<>();
+    @SuppressWarnings("FieldCanBeLocal") // Needed to prevent premature GC
+    private final SerializableConsumer<ObservableList.ItemChangeEvent<T>> listListener = this::onItemChangeEvent;
+    private transient boolean stale = true;
+    private transient int knownSize;
+
+    PositionIndex(ObservableList<T> list, SerializableFunction<T, K> keyFunction) {
+        this.list = requireNonNull(list, "list must not be null");
+        this.keyFunction = requireNonNull(keyFunction, "keyFunction must not be null");
+        this.knownSize = list.getSize();
+        registerListListener();
+    }
+
+    private void registerListListener() {
+        if (list instanceof AbstractObservableList) {
+            // Make sure the index is up-to-date before any ordinary listener gets the chance to use it
+            ((AbstractObservableList<T>) list).addWeakIndexListener(listListener);
+        } else {
+            list.addWeakListener(listListener, false);
+        }
+    }
+
+    /**
+     * Returns the 0-based position of the first item in the list with the given {@code key}, or -1 if the list contains
+     * no such item.
+     *
+     * @param key the key to look for, may be {@code null}.
+     * @return the position of the item, or -1 if not found.
+     */
+    public int indexOf(K key) {
+        ensureValid();
+        var value = nodesByKey.get(key);
+        return value == null ? -1 : nodes.indexOf(firstNode(value));
+    }
+
+    /**
+     * Returns the first item in the list with the given {@code key}.
+     *
+     * @param key the key to look for, may be {@code null}.
+     * @return an {@code Optional} containing the item, or an empty {@code Optional} if not found.
+     */
+    public Optional<T> find(K key) {
+        var position = indexOf(key);
+        return position == -1 ? Optional.empty() : Optional.ofNullable(list.get(position));
+    }
+
+    /**
+     * Checks whether the list contains an item with the given {@code key}.
+     *
+     * @param key the key to look for, may be {@code null}.
+     * @return true if the list contains at least one item with the key, false otherwise.
+     */
+    public boolean contains(K key) {
+        return indexOf(key) != -1;
+    }
+
+    // Invariants: unless the index is stale, the nodes are in the same order as the items in the list and hold their
+    // keys, and every key is mapped to the nodes that hold it. A stale index is rebuilt on the next lookup.
+
+    private void onItemChangeEvent(ObservableList.ItemChangeEvent<T> event) {
+        if (knownSize != list.getSize() - sizeDelta(event)) {
+            // Somebody looked something up while the list was in the middle of a change we have not heard of yet
+            stale = true;
+        } else if (!stale) {
+            // A stale index is rebuilt from scratch on the next lookup, so there is no point in updating it
+            applyChange(event);
+        }
+        knownSize = list.getSize();
+    }
+
+    private void applyChange(ObservableList.ItemChangeEvent<T> event) {
+        if (event.isItemAdded()) {
+            var position = event.getNewPosition();
+            var key = keyFunction.apply(event.getItem());
+            addNode(key, nodes.insert(position, key), position);
+        } else if (event.isItemRemoved()) {
+            var node = nodes.getNode(event.getOldPosition());
+            removeNode(node.getValue(), event.getOldPosition());
+            nodes.remove(node);
+        } else if (event.isItemMoved()) {
+            var node = nodes.getNode(event.getOldPosition());
+            var key = node.getValue();
+            removeNode(key, event.getOldPosition());
+            nodes.remove(node);
+            addNode(key, nodes.insert(event.getNewPosition(), key), event.getNewPosition());
+        } else {
+            stale = true;
+        }
+    }
+
+    private static int sizeDelta(ObservableList.ItemChangeEvent<?> event) {
+        if (event.isItemAdded()) {
+            return 1;
+        } else if (event.isItemRemoved()) {
+            return -1;
+        } else {
+            return 0;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private PositionalTree.Node<K> firstNode(Object value) {
+        if (value instanceof PositionalTree.Node) {
+            return (PositionalTree.Node<K>) value;
+        } else {
+            return ((PositionalTree<PositionalTree.Node<K>>) value).get(0);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void addNode(K key, PositionalTree.Node<K> node, int position) {
+        var value = nodesByKey.get(key);
+        if (value == null) {
+            nodesByKey.put(key, node);
+            return;
+        }
+        PositionalTree<PositionalTree.Node<K>> keyNodes;
+        if (value instanceof PositionalTree.Node) {
+            keyNodes = new PositionalTree<>();
+            keyNodes.insert(0, (PositionalTree.Node<K>) value);
+            nodesByKey.put(key, keyNodes);
+        } else {
+            keyNodes = (PositionalTree<PositionalTree.Node<K>>) value;
+        }
+        keyNodes.insert(keyNodes.countWhile(other -> nodes.indexOf(other) < position), node);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void removeNode(K key, int position) {
+        var value = nodesByKey.get(key);
+        if (value instanceof PositionalTree.Node) {
+            nodesByKey.remove(key);
+            return;
+        }
+        var keyNodes = (PositionalTree<PositionalTree.Node<K>>) value;
+        keyNodes.remove(keyNodes.countWhile(other -> nodes.indexOf(other) < position));
+        if (keyNodes.size() == 1) {
+            nodesByKey.put(key, keyNodes.get(0));
+        }
+    }
+
+    private void ensureValid() {
+        var size = list.getSize();
+        if (knownSize != size) {
+            // The list is being changed and we have not been notified yet
+            stale = true;
+            knownSize = size;
+        }
+        if (stale) {
+            nodes.clear();
+            nodesByKey.clear();
+            for (var item : list) {
+                var key = keyFunction.apply(item);
+                var position = nodes.size();
+                addNode(key, nodes.insert(position, key), position);
+            }
+            stale = false;
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // The index is rebuilt on the first lookup. The list may not have been fully deserialized yet, so we cannot ask
+        // it for its size here.
+        nodes = new PositionalTree<>();
+        nodesByKey = new HashMap<>();
+        stale = true;
+        knownSize = -1;
+        if (!(list instanceof AbstractObservable)) {
+            // Only AbstractObservables serialize their weak listeners
+            in.registerValidation(this::registerListListener, 0);
+        }
+    }
+}
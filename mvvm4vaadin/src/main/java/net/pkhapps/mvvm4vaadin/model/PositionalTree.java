@@ -0,0 +1,598 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import com.vaadin.flow.function.SerializableBiFunction;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A positional AVL tree where every node knows the size of its subtree. This is the tree that the models use to keep
+ * things in list order:
+ * <ul>
+ *     <li>Inserting, removing, replacing and looking up values by position is O(log n).</li>
+ *     <li>The nodes know their parents, so the position of a {@link Node} returned by {@link #insert(int, Object)} can
+ *     be computed from the node itself in O(log n). A node stays valid until it is removed, however the tree is
+ *     rebalanced.</li>
+ *     <li>If the tree is given an associative combiner, every node caches the reduction of its subtree, in order, and
+ *     the reduction of all values is always available at the root. The combiner does not have to be commutative.</li>
+ *     <li>{@linkplain #snapshot() Snapshots} are O(1). Every node remembers which generation of the tree it was created
+ *     in, and taking a snapshot starts a new generation. Nodes from earlier generations are never changed again: a
+ *     change copies them on the path from the root to the changed position and shares the rest of the tree with the
+ *     snapshots.</li>
+ * </ul>
+ * Since a change may copy the nodes that have been shared with a snapshot, nodes returned by {@link #insert(int, Object)}
+ * only stay valid as long as no snapshots are taken. When serialized, the tree writes its values in order and rebuilds
+ * a perfectly balanced tree when read, so nodes do not survive serialization either. This class is intended for
+ * internal use only and is not thread safe, but the snapshots are.
+ *
+ * @param <E> the type of the values.
+ */
+class PositionalTree<E> implements Iterable<E>, Serializable {
+
+    private final E identity;
+    private final SerializableBiFunction<E, E, E> combiner;
+    private transient Node<E> root;
+    private transient Object generation = new Object();
+
+    /**
+     * Creates a new, empty {@code PositionalTree} without reductions.
+     */
+    PositionalTree() {
+        this.identity = null;
+        this.combiner = null;
+    }
+
+    /**
+     * Creates a new, empty {@code PositionalTree} that reduces its values using the given {@code combiner}.
+     *
+     * @param identity the reduction of an empty tree.
+     * @param combiner the associative function that combines two values.
+     */
+    PositionalTree(E identity, SerializableBiFunction<E, E, E> combiner) {
+        this.identity = identity;
+        this.combiner = requireNonNull(combiner, "combiner must not be null");
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Returns the reduction of all the values in the tree, or the identity if the tree is empty or has no combiner.
+     */
+    E result() {
+        return root == null || combiner == null ? identity : root.reduction;
+    }
+
+    /**
+     * Returns the value at the given {@code index}.
+     */
+    E get(int index) {
+        return getNode(index).value;
+    }
+
+    /**
+     * Returns the node at the given {@code index}.
+     */
+    Node<E> getNode(int index) {
+        Objects.checkIndex(index, size());
+        return getNode(root, index);
+    }
+
+    /**
+     * Replaces the value at the given {@code index} and returns the old value.
+     */
+    E set(int index, E value) {
+        Objects.checkIndex(index, size());
+        var old = getNode(root, index).value;
+        setRoot(set(root, index, value));
+        return old;
+    }
+
+    /**
+     * Inserts the given {@code value} at the given {@code index} and returns its node.
+     */
+    Node<E> insert(int index, E value) {
+        Objects.checkIndex(index, size() + 1);
+        var node = new Node<>(value, generation);
+        setRoot(insert(root, index, node));
+        return node;
+    }
+
+    /**
+     * Removes the value at the given {@code index} and returns it.
+     */
+    E remove(int index) {
+        Objects.checkIndex(index, size());
+        var old = getNode(root, index).value;
+        setRoot(remove(root, index));
+        return old;
+    }
+
+    /**
+     * Removes the given {@code node}, which must be in this tree.
+     */
+    void remove(Node<E> node) {
+        setRoot(remove(root, indexOf(node)));
+        if (node.generation == generation) {
+            node.left = null;
+            node.right = null;
+            node.parent = null;
+        }
+    }
+
+    /**
+     * Returns the position of the given {@code node}, which must be in this tree.
+     */
+    int indexOf(Node<E> node) {
+        int index = size(node.left);
+        while (node.parent != null) {
+            if (node == node.parent.right) {
+                index += size(node.parent.left) + 1;
+            }
+            node = node.parent;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the number of values at the start of the tree that match the given {@code predicate}. The predicate must
+     * be monotone: once it rejects a value, it must reject every value after it too.
+     */
+    int countWhile(Predicate<E> predicate) {
+        int count = 0;
+        var node = root;
+        while (node != null) {
+            if (predicate.test(node.value)) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Replaces the contents of the tree with the given values. This is O(n).
+     */
+    void reset(List<E> values) {
+        setRoot(build(values, 0, values.size()));
+    }
+
+    void clear() {
+        root = null;
+    }
+
+    /**
+     * Returns an immutable list of the values currently in the tree. The list never changes, even when the tree itself
+     * is changed afterwards.
+     */
+    List<E> snapshot() {
+        generation = new Object();
+        return new Snapshot<>(root);
+    }
+
+    /**
+     * Returns an iterator over the values currently in the tree. The tree must not be changed while iterating, use a
+     * {@linkplain #snapshot() snapshot} for that.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new NodeIterator<>(root, 0, size());
+    }
+
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        forEach(root, action);
+    }
+
+    private void setRoot(Node<E> root) {
+        this.root = root;
+        if (root != null) {
+            root.parent = null;
+        }
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static int height(Node<?> node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static <E> Node<E> getNode(Node<E> node, int index) {
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                node = node.right;
+            } else {
+                return node;
+            }
+        }
+    }
+
+    /**
+     * Returns the given {@code node} if it belongs to the current generation, or a copy of it that does if it has been
+     * shared with a snapshot. The caller must {@linkplain #update(Node) update} the returned node once it has changed
+     * it, which also makes it the parent of its children.
+     */
+    private Node<E> mutable(Node<E> node) {
+        if (node.generation == generation) {
+            return node;
+        }
+        var copy = new Node<>(node.value, generation);
+        copy.left = node.left;
+        copy.right = node.right;
+        copy.reduction = node.reduction;
+        copy.size = node.size;
+        copy.height = node.height;
+        return copy;
+    }
+
+    /**
+     * Recomputes the size, height and reduction of the given {@code node}, which must belong to the current generation,
+     * from its children, and makes the node the parent of its children. The parents are not part of the snapshots, so
+     * they are updated even in shared nodes.
+     */
+    private Node<E> update(Node<E> node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        node.height = Math.max(height(node.left), height(node.right)) + 1;
+        if (node.left != null) {
+            node.left.parent = node;
+        }
+        if (node.right != null) {
+            node.right.parent = node;
+        }
+        if (combiner != null) {
+            var reduction = node.value;
+            if (node.left != null) {
+                reduction = combiner.apply(node.left.reduction, reduction);
+            }
+            if (node.right != null) {
+                reduction = combiner.apply(reduction, node.right.reduction);
+            }
+            node.reduction = reduction;
+        }
+        return node;
+    }
+
+    private Node<E> rotateRight(Node<E> node) {
+        node = mutable(node);
+        var left = mutable(node.left);
+        node.left = left.right;
+        left.right = update(node);
+        return update(left);
+    }
+
+    private Node<E> rotateLeft(Node<E> node) {
+        node = mutable(node);
+        var right = mutable(node.right);
+        node.right = right.left;
+        right.left = update(node);
+        return update(right);
+    }
+
+    /**
+     * Rebalances the given {@code node}, which must belong to the current generation, with a single or double rotation
+     * if the heights of its children differ by more than one. Inserting or removing one value changes the height of a
+     * subtree by at most one, so this is enough to restore the AVL invariant on the way back up from the changed
+     * position.
+     */
+    private Node<E> balance(Node<E> node) {
+        int difference = height(node.left) - height(node.right);
+        if (difference > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        } else if (difference < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return update(node);
+    }
+
+    private Node<E> set(Node<E> node, int index, E value) {
+        node = mutable(node);
+        int leftSize = size(node.left);
+        if (index < leftSize) {
+            node.left = set(node.left, index, value);
+        } else if (index > leftSize) {
+            node.right = set(node.right, index - leftSize - 1, value);
+        } else {
+            node.value = value;
+        }
+        return update(node);
+    }
+
+    private Node<E> insert(Node<E> node, int index, Node<E> newNode) {
+        if (node == null) {
+            return update(newNode);
+        }
+        node = mutable(node);
+        int leftSize = size(node.left);
+        if (index <= leftSize) {
+            node.left = insert(node.left, index, newNode);
+        } else {
+            node.right = insert(node.right, index - leftSize - 1, newNode);
+        }
+        return balance(node);
+    }
+
+    private Node<E> remove(Node<E> node, int index) {
+        int leftSize = size(node.left);
+        if (index == leftSize) {
+            if (node.left == null) {
+                return node.right;
+            } else if (node.right == null) {
+                return node.left;
+            }
+            // Move the successor node into the place of the removed node instead of copying its value, so that the
+            // nodes held by the callers stay valid
+            var successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            var right = removeFirst(node.right);
+            successor = mutable(successor);
+            successor.right = right;
+            successor.left = node.left;
+            return balance(successor);
+        }
+        node = mutable(node);
+        if (index < leftSize) {
+            node.left = remove(node.left, index);
+        } else {
+            node.right = remove(node.right, index - leftSize - 1);
+        }
+        return balance(node);
+    }
+
+    private Node<E> removeFirst(Node<E> node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node = mutable(node);
+        node.left = removeFirst(node.left);
+        return balance(node);
+    }
+
+    private Node<E> build(List<E> values, int from, int to) {
+        if (from >= to) {
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        var node = new Node<>(values.get(middle), generation);
+        node.left = build(values, from, middle);
+        node.right = build(values, middle + 1, to);
+        return update(node);
+    }
+
+    private static <E> void forEach(Node<E> node, Consumer<? super E> action) {
+        while (node != null) {
+            forEach(node.left, action);
+            action.accept(node.value);
+            node = node.right;
+        }
+    }
+
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        // Writing the values in order instead of the nodes keeps the stream small and avoids deep recursion
+        out.defaultWriteObject();
+        out.writeInt(size());
+        for (var value : this) {
+            out.writeObject(value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        var size = in.readInt();
+        var values = new ArrayList<E>(size);
+        for (int i = 0; i < size; ++i) {
+            values.add((E) in.readObject());
+        }
+        generation = new Object();
+        reset(values);
+    }
+
+    /**
+     * A node of a {@link PositionalTree}.
+     *
+     * @param <E> the type of the value.
+     */
+    static final class Node<E> implements Serializable {
+        private final transient Object generation;
+        private transient Node<E> parent;
+        private Node<E> left;
+        private Node<E> right;
+        private E value;
+        private E reduction;
+        private int size;
+        private int height;
+
+        private Node(E value, Object generation) {
+            this.value = value;
+            this.generation = generation;
+        }
+
+        E getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * In-order iterator over the values between two positions. Seeking to the start position is O(log n) and every
+     * subsequent step is O(1) amortized.
+     */
+    private static final class NodeIterator<E> implements Iterator<E> {
+
+        private final Deque<Node<E>> stack = new ArrayDeque<>();
+        private int remaining;
+
+        private NodeIterator(Node<E> root, int from, int to) {
+            this.remaining = to - from;
+            var node = root;
+            var index = from;
+            while (node != null && remaining > 0) {
+                int leftSize = size(node.left);
+                if (index < leftSize) {
+                    stack.push(node);
+                    node = node.left;
+                } else if (index == leftSize) {
+                    stack.push(node);
+                    node = null;
+                } else {
+                    index -= leftSize + 1;
+                    node = node.right;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public E next() {
+            if (remaining <= 0) {
+                throw new NoSuchElementException();
+            }
+            var node = stack.pop();
+            remaining--;
+            for (var n = node.right; n != null; n = n.left) {
+                stack.push(n);
+            }
+            return node.value;
+        }
+    }
+
+    /**
+     * Spliterator that splits by position, which keeps the halves balanced and makes parallel streams over large
+     * snapshots efficient.
+     */
+    private static final class NodeSpliterator<E> implements Spliterator<E> {
+
+        private final Node<E> root;
+        private int from;
+        private final int to;
+
+        private NodeSpliterator(Node<E> root, int from, int to) {
+            this.root = root;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            if (from < to) {
+                action.accept(getNode(root, from++).value);
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            var iterator = new NodeIterator<>(root, from, to);
+            from = to;
+            iterator.forEachRemaining(action);
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int middle = (from + to) >>> 1;
+            if (middle <= from) {
+                return null;
+            }
+            var prefix = new NodeSpliterator<>(root, from, middle);
+            from = middle;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return to - from;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+        }
+    }
+
+    /**
+     * Immutable list view of a tree root that has been shared with a snapshot.
+     */
+    private static final class Snapshot<E> extends AbstractList<E> implements Serializable {
+
+        private final Node<E> root;
+
+        private Snapshot(Node<E> root) {
+            this.root = root;
+        }
+
+        @Override
+        public E get(int index) {
+            Objects.checkIndex(index, size());
+            return getNode(root, index).value;
+        }
+
+        @Override
+        public int size() {
+            return PositionalTree.size(root);
+        }
+
+        @Override
+        public Iterator<E> iterator() {
+            return new NodeIterator<>(root, 0, size());
+        }
+
+        @Override
+        public void forEach(Consumer<? super E> action) {
+            PositionalTree.forEach(root, action);
+        }
+
+        @Override
+        public Spliterator<E> spliterator() {
+            return new NodeSpliterator<>(root, 0, size());
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import java.io.Serializable;
+
+/**
+ * A function that accepts three arguments and produces a result, and is also {@link Serializable}.
+ *
+ * @param <A> the type of the first argument.
+ * @param <B> the type of the second argument.
+ * @param <C> the type of the third argument.
+ * @param <R> the type of the result.
+ * @see ModelFactory#combine(ObservableValue, ObservableValue, ObservableValue, SerializableFunction3)
+ */
+@FunctionalInterface
+public interface SerializableFunction3<A, B, C, R> extends Serializable {
+
+    /**
+     * Applies this function to the given arguments.
+     *
+     * @param a the first argument.
+     * @param b the second argument.
+     * @param c the third argument.
+     * @return the result.
+     */
+    R apply(A a, B b, C c);
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import java.io.Serializable;
+import java.util.function.ToLongFunction;
+
+/**
+ * A {@link ToLongFunction} that is also {@link Serializable}.
+ *
+ * @param <T> the type of the input to the function.
+ * @see ObservableList#sum(SerializableToLongFunction)
+ */
+@FunctionalInterface
+public interface SerializableToLongFunction<T> extends ToLongFunction<T>, Serializable {
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * An {@link ItemStorage} backed by a {@link PositionalTree}. Positional reads, inserts, removals and replacements are
+ * O(log n). Snapshots are O(1): a change after a snapshot copies the nodes on the path from the root to the changed
+ * position and shares the rest of the tree with the snapshot. Iterating over the storage iterates over a snapshot, so
+ * the storage may be changed while iterating. This class is intended for internal use only and is not thread safe, but
+ * the snapshots are.
+ *
+ * @param <T> the type of items stored.
+ */
+class TreeItemStorage<T> extends ItemStorage<T> {
+
+    private final PositionalTree<T> tree = new PositionalTree<>();
+    private transient List<T> snapshot;
+
+    @Override
+    List<T> snapshot() {
+        if (snapshot == null) {
+            snapshot = tree.snapshot();
+        }
+        return snapshot;
+    }
+
+    @Override
+    public T get(int index) {
+        return tree.get(index);
+    }
+
+    @Override
+    public int size() {
+        return tree.size();
+    }
+
+    @Override
+    public T set(int index, T element) {
+        Objects.checkIndex(index, size());
+        snapshot = null;
+        return tree.set(index, element);
+    }
+
+    @Override
+    public void add(int index, T element) {
+        Objects.checkIndex(index, size() + 1);
+        snapshot = null;
+        tree.insert(index, element);
+        modCount++;
+    }
+
+    @Override
+    public boolean addAll(Collection<? extends T> c) {
+        if (c.isEmpty()) {
+            return false;
+        }
+        snapshot = null;
+        int size = size();
+        int newSize = size + c.size();
+        // Appending the items one by one is O(m log n) and rebuilding a perfectly balanced tree is O(n + m), so only
+        // rebuild the tree when the batch is large compared to the tree
+        if ((long) c.size() * (32 - Integer.numberOfLeadingZeros(newSize)) < newSize) {
+            for (var item : c) {
+                tree.insert(size++, item);
+            }
+        } else {
+            var all = new ArrayList<T>(newSize);
+            tree.forEach(all::add);
+            all.addAll(c);
+            tree.reset(all);
+        }
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public T remove(int index) {
+        Objects.checkIndex(index, size());
+        snapshot = null;
+        var old = tree.remove(index);
+        modCount++;
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        snapshot = null;
+        tree.clear();
+        modCount++;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot().iterator();
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        snapshot().forEach(action);
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        return snapshot().spliterator();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import java.util.Map;
+import java.util.function.BiPredicate;
+
+/**
+ * An extended version of {@link ObservableMap} that allows clients to also change the map and not only observe it.
+ *
+ * @param <K> the type of the keys of the map.
+ * @param <V> the type of the values of the map.
+ * @see WritableObservableList
+ * @see WritableObservableSet
+ */
+public interface WritableObservableMap<K, V> extends ObservableMap<K, V> {
+
+    /**
+     * Associates the given {@code value} with the given {@code key}, notifying all observers that an entry has been
+     * added or replaced. If the map already contains an equal value for the key, nothing happens and no observers are
+     * notified. Implementations may decide whether they support {@code null} keys and values or not.
+     *
+     * @param key   the key of the entry.
+     * @param value the value of the entry.
+     * @return the previous value of the key, or {@code null} if there was none.
+     */
+    V put(K key, V value);
+
+    /**
+     * Puts all the entries of the given {@code entries} map into this map, notifying all observers of each added or
+     * replaced entry.
+     *
+     * @param entries the entries to put.
+     * @see #setEntries(Map)
+     */
+    default void putAll(Map<K, V> entries) {
+        entries.forEach(this::put);
+    }
+
+    /**
+     * Removes the entry of the given {@code key}, notifying all observers of the change. If the map contains no entry
+     * for the key, nothing happens and no observers are notified.
+     *
+     * @param key the key of the entry to remove.
+     * @return the value of the removed entry, or {@code null} if there was none.
+     */
+    V remove(K key);
+
+    /**
+     * Removes all entries that match the given predicate, notifying all observers of each removed entry. If no entries
+     * match the predicate, nothing happens and no observers are notified.
+     *
+     * @param predicate the predicate to evaluate on the keys and values of all the entries in this observable map.
+     */
+    void removeIf(BiPredicate<K, V> predicate);
+
+    /**
+     * Removes all the entries from this map, notifying all observers that the entire map has changed.
+     */
+    void clear();
+
+    /**
+     * Replaces the contents of this map with the given {@code entries}, notifying all observers that the entire map has
+     * changed.
+     *
+     * @param entries the entries to replace the contents of this map with.
+     * @see #putAll(Map)
+     */
+    void setEntries(Map<K, V> entries);
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import java.util.Collection;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * An extended version of {@link ObservableSet} that allows clients to also change the set and not only observe it.
+ *
+ * @param <T> the type of items contained inside the observable set.
+ * @see WritableObservableList
+ * @see WritableObservableMap
+ */
+public interface WritableObservableSet<T> extends ObservableSet<T> {
+
+    /**
+     * Adds the given {@code item} to this set, notifying all observers of the change. If the set already contains the
+     * item, nothing happens and no observers are notified. Implementations may decide whether they support
+     * {@code null} items or not.
+     *
+     * @param item the item to add.
+     * @return true if the item was added, false if it already was in the set.
+     */
+    boolean add(T item);
+
+    /**
+     * Adds the given {@code items} to this set, notifying all observers of each item that was not already in the set.
+     *
+     * @param items the items to add.
+     * @see #setItems(Collection)
+     */
+    default void addAll(Collection<T> items) {
+        items.forEach(this::add);
+    }
+
+    /**
+     * Removes the given {@code item} from this set, notifying all observers of the change. If the item does not exist
+     * in the set, nothing happens and no observers are notified.
+     *
+     * @param item the item to remove.
+     * @return true if the item was removed, false if it was not in the set.
+     * @see #removeIf(Predicate)
+     */
+    boolean remove(T item);
+
+    /**
+     * Removes all items that match the given predicate, notifying all observers of each removed item. If no items match
+     * the predicate, nothing happens and no observers are notified.
+     *
+     * @param predicate the predicate to evaluate on all the items in this observable set.
+     * @see #remove(Object)
+     */
+    void removeIf(Predicate<T> predicate);
+
+    /**
+     * Removes all the items from this set, notifying all observers that the entire set has changed.
+     */
+    void clear();
+
+    /**
+     * Replaces the contents of this set with the given {@code items}, notifying all observers that the entire set has
+     * changed.
+     *
+     * @param items the items to replace the contents of this set with.
+     * @see #setItems(Stream)
+     */
+    void setItems(Collection<T> items);
+
+    /**
+     * Replaces the contents of this set with the given {@code items}, notifying all observers that the entire set has
+     * changed.
+     *
+     * @param items the items to replace the contents of this set with.
+     * @see #setItems(Collection)
+     */
+    default void setItems(Stream<T> items) {
+        setItems(items.collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model.metrics;
+
+import net.pkhapps.mvvm4vaadin.model.Observable;
+import net.pkhapps.mvvm4vaadin.model.ObservableList;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Implementation of {@link ModelMetrics} that keeps counters in memory, to be scraped by the application itself. The
+ * number of events fired is also counted per sender class, which makes it possible to find the models that generate
+ * event storms. This class is thread safe.
+ * <p>
+ * This implementation is not registered automatically. Register it using
+ * {@link ModelMetricsRegistry#register(ModelMetrics)}.
+ */
+public class InMemoryModelMetrics implements ModelMetrics {
+
+    private final LongAdder eventsFired = new LongAdder();
+    private final LongAdder listenersInvoked = new LongAdder();
+    private final LongAccumulator maxPropagationDepth = new LongAccumulator(Math::max, 0);
+    private final LongAdder recomputations = new LongAdder();
+    private final LongAdder changingRecomputations = new LongAdder();
+    private final LongAdder listMutations = new LongAdder();
+    private final Map<Class<?>, LongAdder> eventsFiredBySenderClass = new ConcurrentHashMap<>();
+
+    @Override
+    public void eventFired(Observable<?> sender, Object event, int listenersInvoked, int propagationDepth,
+                           long durationNanos) {
+        eventsFired.increment();
+        this.listenersInvoked.add(listenersInvoked);
+        maxPropagationDepth.accumulate(propagationDepth);
+        eventsFiredBySenderClass.computeIfAbsent(sender.getClass(), c -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void valueRecomputed(ObservableValue<?> value, boolean changed) {
+        recomputations.increment();
+        if (changed) {
+            changingRecomputations.increment();
+        }
+    }
+
+    @Override
+    public void listMutated(ObservableList<?> list, ListMutation mutation, int affectedItems) {
+        listMutations.increment();
+    }
+
+    /**
+     * Returns the number of events fired by all observables.
+     */
+    public long getEventsFired() {
+        return eventsFired.sum();
+    }
+
+    /**
+     * Returns the total number of times a listener has been notified of an event.
+     */
+    public long getListenersInvoked() {
+        return listenersInvoked.sum();
+    }
+
+    /**
+     * Returns the deepest propagation depth seen, see {@link ModelMetrics#eventFired(Observable, Object, int, int, long)}.
+     */
+    public long getMaxPropagationDepth() {
+        return maxPropagationDepth.get();
+    }
+
+    /**
+     * Returns the number of times a computed value has re-computed its value.
+     */
+    public long getRecomputations() {
+        return recomputations.sum();
+    }
+
+    /**
+     * Returns the number of re-computations that actually changed the value. A large difference between this number
+     * and {@link #getRecomputations()} indicates computed values that are re-computed needlessly.
+     */
+    public long getChangingRecomputations() {
+        return changingRecomputations.sum();
+    }
+
+    /**
+     * Returns the number of times a list has been mutated.
+     */
+    public long getListMutations() {
+        return listMutations.sum();
+    }
+
+    /**
+     * Returns the number of events fired per sender class, sorted by class name.
+     *
+     * @return an unmodifiable snapshot of the counters.
+     */
+    public Map<String, Long> getEventsFiredBySenderClass() {
+        var result = new TreeMap<String, Long>();
+        eventsFiredBySenderClass.forEach((senderClass, count) -> result.put(senderClass.getName(), count.sum()));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public void reset() {
+        eventsFired.reset();
+        listenersInvoked.reset();
+        maxPropagationDepth.reset();
+        recomputations.reset();
+        changingRecomputations.reset();
+        listMutations.reset();
+        eventsFiredBySenderClass.clear();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s[eventsFired=%d, listenersInvoked=%d, maxPropagationDepth=%d, recomputations=%d, "
+                        + "changingRecomputations=%d, listMutations=%d]", getClass().getSimpleName(), getEventsFired(),
+                getListenersInvoked(), getMaxPropagationDepth(), getRecomputations(), getChangingRecomputations(),
+                getListMutations());
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model.metrics;
+
+import net.pkhapps.mvvm4vaadin.model.Observable;
+import net.pkhapps.mvvm4vaadin.model.ObservableList;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+
+/**
+ * Service provider interface for collecting metrics about how events propagate through the models. Implementations
+ * are either discovered using {@link java.util.ServiceLoader} or registered programmatically with
+ * {@link ModelMetricsRegistry#register(ModelMetrics)}.
+ * <p>
+ * The methods are invoked synchronously on the thread that changed the model, so implementations must be thread safe
+ * and fast. All methods do nothing by default.
+ */
+public interface ModelMetrics {
+
+    /**
+     * Metrics implementation that does nothing. This is used when no other implementation has been registered.
+     */
+    ModelMetrics NOOP = new ModelMetrics() {
+    };
+
+    /**
+     * The different ways a {@link net.pkhapps.mvvm4vaadin.model.DefaultObservableList} can be mutated.
+     */
+    enum ListMutation {
+        ADD, ADD_ALL, REMOVE, REMOVE_IF, MOVE, CLEAR, SET_ITEMS
+    }
+
+    /**
+     * Invoked after an observable has fired an event and all its listeners have been notified.
+     *
+     * @param sender           the observable that fired the event.
+     * @param event            the event that was fired.
+     * @param listenersInvoked the number of listeners that were notified.
+     * @param propagationDepth the number of events that were being fired on the current thread when this event was
+     *                         fired, including this one. An event fired by a listener of another event has a depth of
+     *                         2, and so on.
+     * @param durationNanos    how long it took to notify the listeners, in nanoseconds.
+     */
+    default void eventFired(Observable<?> sender, Object event, int listenersInvoked, int propagationDepth,
+                            long durationNanos) {
+    }
+
+    /**
+     * Invoked after a computed value has re-computed its value.
+     *
+     * @param value   the computed value.
+     * @param changed whether the value changed as a result of the re-computation.
+     */
+    default void valueRecomputed(ObservableValue<?> value, boolean changed) {
+    }
+
+    /**
+     * Invoked after a list has been mutated, before any events have been fired.
+     *
+     * @param list          the list that was mutated.
+     * @param mutation      the type of mutation.
+     * @param affectedItems the number of items that were added, removed or moved.
+     */
+    default void listMutated(ObservableList<?> list, ListMutation mutation, int affectedItems) {
+    }
+
+    /**
+     * Invoked before the listeners of an event are notified, to decide whether they should be timed. If any registered
+     * implementation returns true, every listener of the event is timed and reported to
+     * {@link #listenerTimed(Observable, Object, long, long)}. The listeners of events fired by a timed listener are
+     * always timed as well, so that their time can be subtracted from the time of the outer listener. This method is
+     * invoked before any timing is done, so implementations that sample events should decide here.
+     *
+     * @param observable the observable that is about to notify its listeners.
+     * @param event      the event that is being fired.
+     * @return true to time the listeners of the event, false otherwise.
+     */
+    default boolean timeListeners(Observable<?> observable, Object event) {
+        return false;
+    }
+
+    /**
+     * Invoked after a timed listener has returned, see {@link #timeListeners(Observable, Object)}. This method may be
+     * invoked even if this implementation did not ask for the listeners to be timed.
+     *
+     * @param observable the observable that notified the listener.
+     * @param listener   the listener.
+     * @param selfNanos  how long the listener took, in nanoseconds, not counting the time spent in the listeners of
+     *                   events fired by the listener itself.
+     * @param totalNanos how long the listener took, in nanoseconds, including the time spent in the listeners of
+     *                   events fired by the listener itself.
+     */
+    default void listenerTimed(Observable<?> observable, Object listener, long selfNanos, long totalNanos) {
+    }
+
+    /**
+     * Returns whether this implementation only times listeners, see {@link #timeListeners(Observable, Object)}. Such
+     * implementations are left out of {@link ModelMetricsRegistry#get()}, so that registering one does not make the
+     * models keep track of the propagation depth and duration of every event. They are still asked whether to time
+     * the listeners of every event. Returns false by default.
+     *
+     * @return true if this implementation only times listeners, false otherwise.
+     */
+    default boolean timesListenersOnly() {
+        return false;
+    }
+
+    /**
+     * Invoked after this implementation has been unregistered from the {@link ModelMetricsRegistry}, so that it can
+     * release whatever it has collected. The other methods may still be invoked a few times afterwards by threads
+     * that were already reporting when the implementation was unregistered.
+     */
+    default void unregistered() {
+    }
+}
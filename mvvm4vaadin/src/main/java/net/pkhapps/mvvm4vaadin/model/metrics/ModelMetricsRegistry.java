@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model.metrics;
+
+import com.vaadin.flow.shared.Registration;
+import net.pkhapps.mvvm4vaadin.model.Observable;
+import net.pkhapps.mvvm4vaadin.model.ObservableList;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Registry of the {@link ModelMetrics} implementations that the models report to. When the class is loaded, all
+ * implementations that are available through {@link ServiceLoader} are registered. If no implementations are
+ * registered, {@link #get()} returns {@link ModelMetrics#NOOP} and the models skip all bookkeeping that is only needed
+ * for metrics. This class is thread safe.
+ */
+public final class ModelMetricsRegistry {
+
+    private static final List<ModelMetrics> registered = new ArrayList<>();
+    private static volatile ModelMetrics current = ModelMetrics.NOOP;
+    private static volatile ModelMetrics listenerTiming = ModelMetrics.NOOP;
+
+    static {
+        ServiceLoader.load(ModelMetrics.class).forEach(ModelMetricsRegistry::register);
+    }
+
+    private ModelMetricsRegistry() {
+    }
+
+    /**
+     * Returns the metrics to report to. If more than one implementation has been registered, the returned object
+     * reports to all of them. Implementations that {@linkplain ModelMetrics#timesListenersOnly() only time listeners}
+     * are left out.
+     *
+     * @return the metrics, never {@code null}.
+     */
+    public static ModelMetrics get() {
+        return current;
+    }
+
+    /**
+     * Returns the metrics to ask whether to time listeners, and to report timed listeners to. Unlike {@link #get()},
+     * the returned object includes the implementations that only time listeners.
+     *
+     * @return the metrics, {@link ModelMetrics#NOOP} if no implementations have been registered.
+     */
+    public static ModelMetrics getListenerTiming() {
+        return listenerTiming;
+    }
+
+    /**
+     * Registers the given {@code metrics} implementation. When the implementation is unregistered using the returned
+     * handle, its {@link ModelMetrics#unregistered()} method is invoked.
+     *
+     * @param metrics the metrics implementation to register.
+     * @return a registration handle for unregistering the implementation when no longer needed.
+     */
+    public static Registration register(ModelMetrics metrics) {
+        requireNonNull(metrics, "metrics must not be null");
+        synchronized (registered) {
+            registered.add(metrics);
+            update();
+        }
+        return () -> {
+            boolean removed;
+            synchronized (registered) {
+                removed = registered.remove(metrics);
+                if (removed) {
+                    update();
+                }
+            }
+            if (removed) {
+                metrics.unregistered();
+            }
+        };
+    }
+
+    private static void update() {
+        current = combine(registered.stream().filter(metrics -> !metrics.timesListenersOnly())
+                .collect(Collectors.toList()));
+        listenerTiming = combine(registered);
+    }
+
+    private static ModelMetrics combine(List<ModelMetrics> metrics) {
+        if (metrics.isEmpty()) {
+            return ModelMetrics.NOOP;
+        } else if (metrics.size() == 1) {
+            return metrics.get(0);
+        } else {
+            return new CompositeModelMetrics(metrics.toArray(new ModelMetrics[0]));
+        }
+    }
+
+    private static final class CompositeModelMetrics implements ModelMetrics {
+
+        private final ModelMetrics[] delegates;
+
+        private CompositeModelMetrics(ModelMetrics[] delegates) {
+            this.delegates = delegates;
+        }
+
+        @Override
+        public void eventFired(Observable<?> sender, Object event, int listenersInvoked, int propagationDepth,
+                               long durationNanos) {
+            for (var delegate : delegates) {
+                delegate.eventFired(sender, event, listenersInvoked, propagationDepth, durationNanos);
+            }
+        }
+
+        @Override
+        public void valueRecomputed(ObservableValue<?> value, boolean changed) {
+            for (var delegate : delegates) {
+                delegate.valueRecomputed(value, changed);
+            }
+        }
+
+        @Override
+        public void listMutated(ObservableList<?> list, ListMutation mutation, int affectedItems) {
+            for (var delegate : delegates) {
+                delegate.listMutated(list, mutation, affectedItems);
+            }
+        }
+
+        @Override
+        public boolean timeListeners(Observable<?> observable, Object event) {
+            var timeListeners = false;
+            for (var delegate : delegates) {
+                // Ask every delegate, since they may be sampling
+                timeListeners |= delegate.timeListeners(observable, event);
+            }
+            return timeListeners;
+        }
+
+        @Override
+        public void listenerTimed(Observable<?> observable, Object listener, long selfNanos, long totalNanos) {
+            for (var delegate : delegates) {
+                delegate.listenerTimed(observable, listener, selfNanos, totalNanos);
+            }
+        }
+    }
+}
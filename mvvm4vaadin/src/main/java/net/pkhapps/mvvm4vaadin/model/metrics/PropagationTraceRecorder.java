@@ -0,0 +1,412 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model.metrics;
+
+import net.pkhapps.mvvm4vaadin.model.Observable;
+import net.pkhapps.mvvm4vaadin.model.ObservableList;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Implementation of {@link ModelMetrics} that records every fired event in a fixed-size ring buffer, for diagnosing
+ * propagation storms where a single change sets off a cascade of events. There is one buffer per thread, which is
+ * allocated up front the first time the thread fires an event. When the buffer is full, the oldest events are
+ * overwritten.
+ * <p>
+ * Since Vaadin handles the requests of a UI one at a time on a single thread, calling {@link #getEntries()} or
+ * {@link #dump()} at the end of a request, for instance from a click listener, shows the cascade caused by that
+ * request. Call {@link #clear()} at the start of the request to leave out events from earlier requests.
+ * <p>
+ * Recording an event does not allocate anything and does not call {@code toString()} on anything. The recorder stores
+ * the class and identity hash code of the sender, the kind of the event, the positions of list changes and references
+ * to the changed values or items in preallocated arrays, and only formats them when the entries are read. This means
+ * that an entry describes a value as it is when the entries are read, not as it was when the event was fired. The
+ * recorder does not keep references to the senders or the events themselves, but it does keep the recorded values
+ * until they are overwritten, {@linkplain #clear() cleared} or the recorder is unregistered. The recorder is not
+ * registered automatically. Register it using {@link ModelMetricsRegistry#register(ModelMetrics)}. When it is
+ * unregistered, the buffers of all threads are dropped.
+ */
+public class PropagationTraceRecorder implements ModelMetrics {
+
+    private final int capacity;
+    private final ThreadLocal<RingBuffer> buffer;
+    private final Map<Thread, RingBuffer> buffers = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Creates a new {@code PropagationTraceRecorder}.
+     *
+     * @param capacity the maximum number of events to keep per thread.
+     */
+    public PropagationTraceRecorder(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1");
+        }
+        this.capacity = capacity;
+        this.buffer = ThreadLocal.withInitial(() -> {
+            var buffer = new RingBuffer(capacity);
+            buffers.put(Thread.currentThread(), buffer);
+            return buffer;
+        });
+    }
+
+    /**
+     * Returns the maximum number of events kept per thread.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void eventFired(Observable<?> sender, Object event, int listenersInvoked, int propagationDepth,
+                           long durationNanos) {
+        buffer.get().record(sender, event, listenersInvoked, propagationDepth, durationNanos);
+    }
+
+    /**
+     * Drops the buffers of all threads.
+     */
+    @Override
+    public void unregistered() {
+        forEachBuffer(RingBuffer::release);
+    }
+
+    /**
+     * Returns the events recorded on the current thread, in the order they were fired. An event fired by a listener of
+     * another event comes after that event, even though it was recorded before it.
+     *
+     * @return an unmodifiable list of entries.
+     */
+    public List<Entry> getEntries() {
+        return buffer.get().entries();
+    }
+
+    /**
+     * Returns a human-readable dump of the events recorded on the current thread, with one line per event indented by
+     * propagation depth.
+     *
+     * @return the dump.
+     */
+    public String dump() {
+        var entries = getEntries();
+        var dump = new StringBuilder();
+        if (entries.isEmpty()) {
+            return dump.toString();
+        }
+        var firstStart = entries.get(0).startNanos;
+        for (var entry : entries) {
+            dump.append(String.format("%+10.3f ms ", (entry.startNanos - firstStart) / 1_000_000.0))
+                    .append("  ".repeat(entry.getDepth() - 1))
+                    .append(simpleName(entry.getSenderClassName()))
+                    .append('@').append(Integer.toHexString(entry.getSenderIdentity()))
+                    .append(' ').append(entry.getDescription())
+                    .append(String.format(" listeners=%d took=%.3f ms%n", entry.getListenerCount(),
+                            entry.getDuration().toNanos() / 1_000_000.0));
+        }
+        return dump.toString();
+    }
+
+    /**
+     * Clears the events recorded on the current thread.
+     */
+    public void clear() {
+        buffer.get().clear();
+    }
+
+    /**
+     * Clears the events recorded on all threads.
+     */
+    public void clearAll() {
+        forEachBuffer(RingBuffer::clear);
+    }
+
+    private void forEachBuffer(Consumer<RingBuffer> action) {
+        List<RingBuffer> snapshot;
+        synchronized (buffers) {
+            snapshot = new ArrayList<>(buffers.values());
+        }
+        snapshot.forEach(action);
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(Math.max(className.lastIndexOf('.'), className.lastIndexOf('$')) + 1);
+    }
+
+    /**
+     * A recorded event.
+     */
+    public static final class Entry {
+
+        private final String senderClassName;
+        private final int senderIdentity;
+        private final String description;
+        private final String oldValue;
+        private final String newValue;
+        private final int depth;
+        private final int listenerCount;
+        private final long startNanos;
+        private final long durationNanos;
+
+        private Entry(String senderClassName, int senderIdentity, String description, String oldValue,
+                      String newValue, int depth, int listenerCount, long startNanos, long durationNanos) {
+            this.senderClassName = senderClassName;
+            this.senderIdentity = senderIdentity;
+            this.description = description;
+            this.oldValue = oldValue;
+            this.newValue = newValue;
+            this.depth = depth;
+            this.listenerCount = listenerCount;
+            this.startNanos = startNanos;
+            this.durationNanos = durationNanos;
+        }
+
+        /**
+         * Returns the name of the class of the observable that fired the event.
+         */
+        public String getSenderClassName() {
+            return senderClassName;
+        }
+
+        /**
+         * Returns the {@linkplain System#identityHashCode(Object) identity hash code} of the observable that fired the
+         * event.
+         */
+        public int getSenderIdentity() {
+            return senderIdentity;
+        }
+
+        /**
+         * Returns a description of the event, such as {@code hello -> world} for a value change.
+         */
+        public String getDescription() {
+            return description;
+        }
+
+        /**
+         * Returns the old value as a string if the event is an {@link ObservableValue.ValueChangeEvent}, {@code null}
+         * otherwise.
+         */
+        public String getOldValue() {
+            return oldValue;
+        }
+
+        /**
+         * Returns the new value as a string if the event is an {@link ObservableValue.ValueChangeEvent}, {@code null}
+         * otherwise.
+         */
+        public String getNewValue() {
+            return newValue;
+        }
+
+        /**
+         * Returns the propagation depth of the event, see
+         * {@link ModelMetrics#eventFired(Observable, Object, int, int, long)}.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        /**
+         * Returns the number of listeners that were notified of the event.
+         */
+        public int getListenerCount() {
+            return listenerCount;
+        }
+
+        /**
+         * Returns how long it took to notify the listeners, including any events fired by the listeners themselves.
+         */
+        public Duration getDuration() {
+            return Duration.ofNanos(durationNanos);
+        }
+    }
+
+    /**
+     * Preallocated ring buffer of events, stored as parallel arrays. The buffer is only written by its own thread, but
+     * it can be cleared or released by any thread, so all access is synchronized. The lock is uncontended in practice.
+     */
+    private static final class RingBuffer {
+
+        private static final byte VALUE_CHANGED = 1;
+        private static final byte ITEM_ADDED = 2;
+        private static final byte ITEM_REMOVED = 3;
+        private static final byte ITEM_MOVED = 4;
+        private static final byte LIST_CHANGED = 5;
+        private static final byte OTHER = 6;
+
+        private final int capacity;
+        private Class<?>[] senderClasses;
+        private int[] senderIdentities;
+        private byte[] kinds;
+        private Class<?>[] eventClasses;
+        private Object[] oldValues;
+        private Object[] newValues;
+        private int[] oldPositions;
+        private int[] newPositions;
+        private int[] depths;
+        private int[] listenerCounts;
+        private long[] startNanos;
+        private long[] durationNanos;
+        private int next = 0;
+        private int size = 0;
+
+        private RingBuffer(int capacity) {
+            this.capacity = capacity;
+            allocate();
+        }
+
+        private void allocate() {
+            senderClasses = new Class<?>[capacity];
+            senderIdentities = new int[capacity];
+            kinds = new byte[capacity];
+            eventClasses = new Class<?>[capacity];
+            oldValues = new Object[capacity];
+            newValues = new Object[capacity];
+            oldPositions = new int[capacity];
+            newPositions = new int[capacity];
+            depths = new int[capacity];
+            listenerCounts = new int[capacity];
+            startNanos = new long[capacity];
+            durationNanos = new long[capacity];
+        }
+
+        private synchronized void record(Observable<?> sender, Object event, int listenerCount, int depth,
+                                         long duration) {
+            if (senderClasses == null) {
+                // Released, but the recorder is still in use
+                allocate();
+            }
+            senderClasses[next] = sender.getClass();
+            senderIdentities[next] = System.identityHashCode(sender);
+            eventClasses[next] = event.getClass();
+            oldValues[next] = null;
+            newValues[next] = null;
+            if (event instanceof ObservableValue.ValueChangeEvent) {
+                var valueChangeEvent = (ObservableValue.ValueChangeEvent<?>) event;
+                kinds[next] = VALUE_CHANGED;
+                oldValues[next] = valueChangeEvent.getOldValue();
+                newValues[next] = valueChangeEvent.getValue();
+            } else if (event instanceof ObservableList.ItemChangeEvent) {
+                var itemChangeEvent = (ObservableList.ItemChangeEvent<?>) event;
+                if (itemChangeEvent.isItemAdded()) {
+                    kinds[next] = ITEM_ADDED;
+                } else if (itemChangeEvent.isItemRemoved()) {
+                    kinds[next] = ITEM_REMOVED;
+                } else if (itemChangeEvent.isItemMoved()) {
+                    kinds[next] = ITEM_MOVED;
+                } else {
+                    kinds[next] = LIST_CHANGED;
+                }
+                newValues[next] = itemChangeEvent.getItem();
+                oldPositions[next] = itemChangeEvent.getOldPosition();
+                newPositions[next] = itemChangeEvent.getNewPosition();
+            } else {
+                kinds[next] = OTHER;
+            }
+            depths[next] = depth;
+            listenerCounts[next] = listenerCount;
+            startNanos[next] = System.nanoTime() - duration;
+            durationNanos[next] = duration;
+            next = (next + 1) % capacity;
+            if (size < capacity) {
+                size++;
+            }
+        }
+
+        private String describe(int index) {
+            switch (kinds[index]) {
+                case VALUE_CHANGED:
+                    return oldValues[index] + " -> " + newValues[index];
+                case ITEM_ADDED:
+                    return "added " + newValues[index] + " at " + newPositions[index];
+                case ITEM_REMOVED:
+                    return "removed " + newValues[index] + " from " + oldPositions[index];
+                case ITEM_MOVED:
+                    return "moved " + newValues[index] + " from " + oldPositions[index] + " to " + newPositions[index];
+                case LIST_CHANGED:
+                    return "list changed";
+                default:
+                    return eventClasses[index].getSimpleName();
+            }
+        }
+
+        private Entry entry(int index) {
+            var valueChanged = kinds[index] == VALUE_CHANGED;
+            return new Entry(senderClasses[index].getName(), senderIdentities[index], describe(index),
+                    valueChanged ? String.valueOf(oldValues[index]) : null,
+                    valueChanged ? String.valueOf(newValues[index]) : null, depths[index], listenerCounts[index],
+                    startNanos[index], durationNanos[index]);
+        }
+
+        private synchronized List<Entry> entries() {
+            // Events are recorded when all listeners have been notified, so nested events are recorded before the
+            // events that caused them. Rebuild the order in which they were fired from the depths.
+            var subtrees = new ArrayDeque<List<Entry>>();
+            var first = (next - size + capacity) % capacity;
+            for (int i = 0; i < size; ++i) {
+                var entry = entry((first + i) % capacity);
+                var children = new ArrayDeque<List<Entry>>();
+                while (!subtrees.isEmpty() && subtrees.peek().get(0).depth > entry.depth) {
+                    children.push(subtrees.pop());
+                }
+                var subtree = new ArrayList<Entry>();
+                subtree.add(entry);
+                children.forEach(subtree::addAll);
+                subtrees.push(subtree);
+            }
+            var entries = new ArrayList<Entry>(size);
+            subtrees.descendingIterator().forEachRemaining(entries::addAll);
+            return Collections.unmodifiableList(entries);
+        }
+
+        private synchronized void clear() {
+            if (senderClasses != null) {
+                Arrays.fill(senderClasses, null);
+                Arrays.fill(eventClasses, null);
+                Arrays.fill(oldValues, null);
+                Arrays.fill(newValues, null);
+            }
+            next = 0;
+            size = 0;
+        }
+
+        private synchronized void release() {
+            senderClasses = null;
+            senderIdentities = null;
+            kinds = null;
+            eventClasses = null;
+            oldValues = null;
+            newValues = null;
+            oldPositions = null;
+            newPositions = null;
+            depths = null;
+            listenerCounts = null;
+            startNanos = null;
+            durationNanos = null;
+            next = 0;
+            size = 0;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model.metrics;
+
+import com.vaadin.flow.shared.Registration;
+import net.pkhapps.mvvm4vaadin.model.Observable;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Opt-in detector of listeners that take too long to handle an event. When enabled, the listeners of a sample of all
+ * fired events are timed, and any listener that is slower than the threshold is passed to a
+ * {@link SlowListenerReporter}. The time of a listener does not include the time spent in the listeners of events that
+ * it fires itself, so when a change cascades through several models, only the listeners that are slow on their own are
+ * reported. When disabled, which is the default, the listeners are invoked without any timing at all.
+ * <p>
+ * The detector is a {@link ModelMetrics} implementation that is registered with the {@link ModelMetricsRegistry} while
+ * detection is enabled. It {@linkplain ModelMetrics#timesListenersOnly() only times listeners}, so enabling it does not
+ * make the models track every event, and the listeners of events that are not sampled are invoked without any timing.
+ * This class is thread safe.
+ */
+public final class SlowListenerDetector {
+
+    private static Detector current;
+    private static Registration currentRegistration;
+
+    private SlowListenerDetector() {
+    }
+
+    /**
+     * Enables the detection of slow listeners, timing every event and logging slow listeners using
+     * {@link SlowListenerReporter#logging()}.
+     *
+     * @param threshold the shortest duration that is considered slow.
+     * @return a registration handle for disabling the detection again.
+     */
+    public static Registration enable(Duration threshold) {
+        return enable(threshold, 1.0, SlowListenerReporter.logging());
+    }
+
+    /**
+     * Enables the detection of slow listeners, replacing any earlier configuration.
+     *
+     * @param threshold    the shortest duration that is considered slow.
+     * @param samplingRate the fraction of events whose listeners are timed, between 0.0 (none) and 1.0 (all).
+     * @param reporter     the reporter to pass slow listeners to.
+     * @return a registration handle for disabling the detection again. It does nothing if the detection has been
+     * re-configured in the meantime.
+     * @throws IllegalArgumentException if the sampling rate is out of range.
+     */
+    public static Registration enable(Duration threshold, double samplingRate, SlowListenerReporter reporter) {
+        if (samplingRate < 0.0 || samplingRate > 1.0) {
+            throw new IllegalArgumentException("samplingRate must be between 0.0 and 1.0");
+        }
+        var detector = new Detector(threshold, samplingRate, reporter);
+        synchronized (SlowListenerDetector.class) {
+            if (currentRegistration != null) {
+                currentRegistration.remove();
+            }
+            current = detector;
+            currentRegistration = ModelMetricsRegistry.register(detector);
+        }
+        return () -> {
+            synchronized (SlowListenerDetector.class) {
+                if (current == detector) {
+                    currentRegistration.remove();
+                    current = null;
+                    currentRegistration = null;
+                }
+            }
+        };
+    }
+
+    /**
+     * Checks whether the detection of slow listeners is enabled.
+     *
+     * @return true if enabled, false otherwise.
+     */
+    public static synchronized boolean isEnabled() {
+        return current != null;
+    }
+
+    private static final class Detector implements ModelMetrics {
+
+        private final long thresholdNanos;
+        private final double samplingRate;
+        private final SlowListenerReporter reporter;
+
+        private Detector(Duration threshold, double samplingRate, SlowListenerReporter reporter) {
+            this.thresholdNanos = requireNonNull(threshold, "threshold must not be null").toNanos();
+            this.samplingRate = samplingRate;
+            this.reporter = requireNonNull(reporter, "reporter must not be null");
+        }
+
+        @Override
+        public boolean timesListenersOnly() {
+            return true;
+        }
+
+        @Override
+        public boolean timeListeners(Observable<?> observable, Object event) {
+            return samplingRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < samplingRate;
+        }
+
+        @Override
+        public void listenerTimed(Observable<?> observable, Object listener, long selfNanos, long totalNanos) {
+            if (selfNanos >= thresholdNanos) {
+                reporter.report(observable, listener, Duration.ofNanos(selfNanos));
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model.metrics;
+
+import net.pkhapps.mvvm4vaadin.model.Observable;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * Callback that is notified of listeners that are slower than the threshold of the {@link SlowListenerDetector}.
+ * Implementations must be thread safe.
+ */
+@FunctionalInterface
+public interface SlowListenerReporter {
+
+    /**
+     * Invoked after a slow listener has returned.
+     *
+     * @param observable the observable that notified the listener.
+     * @param listener   the slow listener. For lambdas, the name of the class includes the name of the class that
+     *                   declared the lambda. Bindings describe themselves in {@code toString()}.
+     * @param duration   how long the listener took, not counting the time spent in the listeners of events fired by
+     *                   the listener itself.
+     */
+    void report(Observable<?> observable, Object listener, Duration duration);
+
+    /**
+     * Returns a reporter that logs every slow listener as a warning using SLF4J.
+     *
+     * @return the reporter.
+     */
+    static SlowListenerReporter logging() {
+        var logger = LoggerFactory.getLogger(SlowListenerDetector.class);
+        return (observable, listener, duration) -> logger.warn("Listener {} of {} took {} ms", listener, observable,
+                duration.toMillis());
+    }
+}
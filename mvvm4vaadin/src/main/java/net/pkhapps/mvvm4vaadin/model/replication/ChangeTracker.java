@@ -0,0 +1,396 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model.replication;
+
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.shared.Registration;
+import net.pkhapps.mvvm4vaadin.model.ObservableList;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+import net.pkhapps.mvvm4vaadin.model.WritableObservableList;
+import net.pkhapps.mvvm4vaadin.model.WritableObservableValue;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Change tracker that makes it possible to replicate a session by only sending the observables that have changed,
+ * instead of re-serializing the entire model graph on every request. There is typically one tracker per session.
+ * <p>
+ * Observables are tracked under an ID that must be the same on every node. Whenever a tracked observable changes, the
+ * tracker increments its {@linkplain #getVersion() version} and marks the observable as dirty. For values, only the
+ * latest value is kept. For lists, the individual edits are kept, unless the entire list has changed or there are more
+ * edits than items, in which case the items themselves are sent.
+ * <p>
+ * The node that has handled a request calls {@link #createDelta()} and sends the result to the other nodes, which pass
+ * it to {@link #applyDelta(byte[])} of their own trackers. Deltas must be applied in the order they were created. All
+ * tracked values and list items must be serializable. This class is not thread safe.
+ */
+public final class ChangeTracker implements Serializable {
+
+    private static final byte VALUE = 1;
+    private static final byte LIST_ITEMS = 2;
+    private static final byte LIST_EDITS = 3;
+    private static final byte ITEM_ADDED = 1;
+    private static final byte ITEM_REMOVED = 2;
+    private static final byte ITEM_MOVED = 3;
+
+    private final Map<String, Tracked> tracked = new LinkedHashMap<>();
+    private final Map<String, Tracked> dirty = new LinkedHashMap<>();
+    private long version = 0;
+    private long replicatedVersion = 0;
+    private boolean applyingDelta = false;
+
+    /**
+     * Starts tracking the given {@code value} under the given {@code id}.
+     *
+     * @param id    the ID of the value, must be unique within this tracker and the same on every node.
+     * @param value the value to track.
+     * @param <T>   the type of the value.
+     * @return a registration handle that can be used to stop tracking the value.
+     * @throws IllegalArgumentException if something is already tracked under the given ID.
+     */
+    public <T> Registration track(String id, WritableObservableValue<T> value) {
+        return track(new TrackedValue<>(this, id, requireNonNull(value, "value must not be null")));
+    }
+
+    /**
+     * Starts tracking the given {@code list} under the given {@code id}.
+     *
+     * @param id   the ID of the list, must be unique within this tracker and the same on every node.
+     * @param list the list to track.
+     * @param <T>  the type of items in the list.
+     * @return a registration handle that can be used to stop tracking the list.
+     * @throws IllegalArgumentException if something is already tracked under the given ID.
+     */
+    public <T> Registration track(String id, WritableObservableList<T> list) {
+        return track(new TrackedList<>(this, id, requireNonNull(list, "list must not be null")));
+    }
+
+    private Registration track(Tracked entry) {
+        if (tracked.containsKey(entry.id)) {
+            throw new IllegalArgumentException("Something is already tracked under the ID " + entry.id);
+        }
+        tracked.put(entry.id, entry);
+        entry.register();
+        return () -> {
+            if (tracked.remove(entry.id, entry)) {
+                dirty.remove(entry.id);
+                entry.unregister();
+            }
+        };
+    }
+
+    /**
+     * Returns the version of this tracker, which is incremented every time a tracked observable changes on this node
+     * and set to the version of the delta whenever a delta is applied.
+     *
+     * @return the version.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Checks whether any tracked observable has changed since the last time a delta was created or applied.
+     *
+     * @return true if there are changes to replicate, false otherwise.
+     */
+    public boolean isDirty() {
+        return !dirty.isEmpty();
+    }
+
+    /**
+     * Creates a delta containing all the changes since the last time a delta was created or applied, and marks all
+     * tracked observables as clean.
+     *
+     * @return the delta, to be passed to {@link #applyDelta(byte[])} on the other nodes.
+     */
+    public byte[] createDelta() {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeLong(replicatedVersion);
+            out.writeLong(version);
+            out.writeInt(dirty.size());
+            for (var entry : dirty.values()) {
+                out.writeUTF(entry.id);
+                entry.writeChanges(out);
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not write delta", ex);
+        }
+        dirty.values().forEach(Tracked::clean);
+        dirty.clear();
+        replicatedVersion = version;
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Applies a delta created by {@link #createDelta()} on another node to the observables tracked by this tracker.
+     * The changes are not tracked, so they will not be sent back in the next delta. Changes to observables that are
+     * not tracked by this tracker are ignored.
+     *
+     * @param delta the delta to apply.
+     * @throws IllegalStateException if the delta was not created from the version of this tracker, or if this tracker
+     *                               has changes that have not been replicated yet. The session has to be replicated in
+     *                               full in this case.
+     */
+    public void applyDelta(byte[] delta) {
+        requireNonNull(delta, "delta must not be null");
+        if (isDirty()) {
+            throw new IllegalStateException("Cannot apply a delta while there are changes that have not been replicated");
+        }
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(delta))) {
+            var baseVersion = in.readLong();
+            var deltaVersion = in.readLong();
+            if (baseVersion != version) {
+                throw new IllegalStateException("Delta is based on version " + baseVersion
+                        + " but the current version is " + version);
+            }
+            applyingDelta = true;
+            try {
+                var count = in.readInt();
+                for (int i = 0; i < count; ++i) {
+                    var id = in.readUTF();
+                    var kind = in.readByte();
+                    var entry = tracked.get(id);
+                    var changes = readChanges(in, kind);
+                    if (entry != null) {
+                        entry.applyChanges(kind, changes);
+                    }
+                }
+            } finally {
+                applyingDelta = false;
+            }
+            version = deltaVersion;
+            replicatedVersion = deltaVersion;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read delta", ex);
+        } catch (ClassNotFoundException ex) {
+            throw new IllegalArgumentException("Delta contains an unknown class", ex);
+        }
+    }
+
+    private static Object readChanges(ObjectInputStream in, byte kind) throws IOException, ClassNotFoundException {
+        switch (kind) {
+            case VALUE:
+                return in.readObject();
+            case LIST_ITEMS: {
+                var size = in.readInt();
+                var items = new ArrayList<>(size);
+                for (int i = 0; i < size; ++i) {
+                    items.add(in.readObject());
+                }
+                return items;
+            }
+            case LIST_EDITS: {
+                var size = in.readInt();
+                var edits = new ArrayList<Edit>(size);
+                for (int i = 0; i < size; ++i) {
+                    var type = in.readByte();
+                    var position = in.readInt();
+                    var argument = type == ITEM_ADDED ? in.readObject() : type == ITEM_MOVED ? in.readInt() : null;
+                    edits.add(new Edit(type, position, argument));
+                }
+                return edits;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown change kind " + kind);
+        }
+    }
+
+    private void markDirty(Tracked entry) {
+        version++;
+        dirty.put(entry.id, entry);
+    }
+
+    /**
+     * Base class for tracked observables. The listeners are named classes rather than lambdas so that the tracker can
+     * be serialized together with the observables that refer to it.
+     */
+    private static abstract class Tracked implements Serializable {
+
+        final ChangeTracker tracker;
+        final String id;
+
+        Tracked(ChangeTracker tracker, String id) {
+            this.tracker = tracker;
+            this.id = requireNonNull(id, "id must not be null");
+        }
+
+        abstract void register();
+
+        abstract void unregister();
+
+        abstract void writeChanges(ObjectOutputStream out) throws IOException;
+
+        abstract void applyChanges(byte kind, Object changes);
+
+        void clean() {
+        }
+    }
+
+    private static class TrackedValue<T> extends Tracked implements SerializableConsumer<ObservableValue.ValueChangeEvent<T>> {
+
+        private final WritableObservableValue<T> value;
+        private Registration registration;
+
+        TrackedValue(ChangeTracker tracker, String id, WritableObservableValue<T> value) {
+            super(tracker, id);
+            this.value = value;
+        }
+
+        @Override
+        void register() {
+            registration = value.addListener(this, false);
+        }
+
+        @Override
+        void unregister() {
+            registration.remove();
+        }
+
+        @Override
+        public void accept(ObservableValue.ValueChangeEvent<T> event) {
+            if (!tracker.applyingDelta) {
+                tracker.markDirty(this);
+            }
+        }
+
+        @Override
+        void writeChanges(ObjectOutputStream out) throws IOException {
+            out.writeByte(VALUE);
+            out.writeObject(value.getValue());
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void applyChanges(byte kind, Object changes) {
+            value.setValue((T) changes);
+        }
+    }
+
+    private static class TrackedList<T> extends Tracked implements SerializableConsumer<ObservableList.ItemChangeEvent<T>> {
+
+        private final WritableObservableList<T> list;
+        private final List<Edit> edits = new ArrayList<>();
+        private boolean listChanged = false;
+        private Registration registration;
+
+        TrackedList(ChangeTracker tracker, String id, WritableObservableList<T> list) {
+            super(tracker, id);
+            this.list = list;
+        }
+
+        @Override
+        void register() {
+            registration = list.addListener(this, false);
+        }
+
+        @Override
+        void unregister() {
+            registration.remove();
+        }
+
+        @Override
+        public void accept(ObservableList.ItemChangeEvent<T> event) {
+            if (tracker.applyingDelta) {
+                return;
+            }
+            if (!listChanged) {
+                if (event.isItemAdded()) {
+                    edits.add(new Edit(ITEM_ADDED, event.getNewPosition(), event.getItem()));
+                } else if (event.isItemRemoved()) {
+                    edits.add(new Edit(ITEM_REMOVED, event.getOldPosition(), null));
+                } else if (event.isItemMoved()) {
+                    edits.add(new Edit(ITEM_MOVED, event.getOldPosition(), event.getNewPosition()));
+                } else {
+                    listChanged = true;
+                    edits.clear();
+                }
+            }
+            tracker.markDirty(this);
+        }
+
+        @Override
+        void writeChanges(ObjectOutputStream out) throws IOException {
+            if (listChanged || edits.size() > list.getSize()) {
+                // Sending the items is cheaper than replaying the edits
+                out.writeByte(LIST_ITEMS);
+                out.writeInt(list.getSize());
+                for (var item : list) {
+                    out.writeObject(item);
+                }
+            } else {
+                out.writeByte(LIST_EDITS);
+                out.writeInt(edits.size());
+                for (var edit : edits) {
+                    out.writeByte(edit.type);
+                    out.writeInt(edit.position);
+                    if (edit.type == ITEM_ADDED) {
+                        out.writeObject(edit.argument);
+                    } else if (edit.type == ITEM_MOVED) {
+                        out.writeInt((Integer) edit.argument);
+                    }
+                }
+            }
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        void applyChanges(byte kind, Object changes) {
+            if (kind == LIST_ITEMS) {
+                list.setItems((List<T>) changes);
+            } else if (kind == LIST_EDITS) {
+                for (var edit : (List<Edit>) changes) {
+                    if (edit.type == ITEM_ADDED) {
+                        list.add(edit.position, (T) edit.argument);
+                    } else if (edit.type == ITEM_REMOVED) {
+                        list.remove(edit.position);
+                    } else {
+                        list.move(edit.position, (Integer) edit.argument);
+                    }
+                }
+            } else {
+                throw new IllegalArgumentException("Cannot apply changes of kind " + kind + " to a list");
+            }
+        }
+
+        @Override
+        void clean() {
+            edits.clear();
+            listChanged = false;
+        }
+    }
+
+    private static class Edit implements Serializable {
+
+        private final byte type;
+        private final int position;
+        private final Object argument; // The added item or the new position of a moved item
+
+        private Edit(byte type, int position, Object argument) {
+            this.type = type;
+            this.position = position;
+            this.argument = argument;
+        }
+    }
+}
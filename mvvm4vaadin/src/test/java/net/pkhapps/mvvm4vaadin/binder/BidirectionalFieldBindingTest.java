@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.binder;
+
+import com.vaadin.flow.component.textfield.TextField;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static net.pkhapps.mvvm4vaadin.binder.BindingFactory.bindBidirectional;
+import static net.pkhapps.mvvm4vaadin.model.ModelFactory.observableValue;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BidirectionalFieldBindingTest {
+
+    @Test
+    void bindBidirectional_modelChanged_valueAppliedToField() {
+        var model = observableValue("hello");
+        var view = new RecordingTextField();
+        bindBidirectional(model, view);
+        assertEquals("hello", view.getValue());
+
+        model.setValue("hi");
+        assertEquals("hi", view.getValue());
+        model.setValue(null);
+        assertEquals("", view.getValue());
+    }
+
+    @Test
+    void bindBidirectional_userChangedValue_valueWrittenToModelButNotEchoed() {
+        var model = observableValue("hello");
+        var view = new RecordingTextField();
+        bindBidirectional(model, view);
+        view.writes.clear();
+
+        view.simulateUserInput("hi");
+        assertEquals("hi", model.getValue());
+        assertTrue(view.writes.isEmpty());
+    }
+
+    @Test
+    void bindBidirectional_modelAdjustsValue_adjustedValueAppliedToField() {
+        var model = observableValue("hello");
+        var view = new RecordingTextField();
+        bindBidirectional(model, view, value -> model.setValue(value.trim()));
+        view.writes.clear();
+
+        view.simulateUserInput("  hi  ");
+        assertEquals("hi", model.getValue());
+        assertEquals(List.of("hi"), view.writes);
+        assertEquals("hi", view.getValue());
+    }
+
+    @Test
+    void bindBidirectional_removed_noLongerBound() {
+        var model = observableValue("hello");
+        var view = new RecordingTextField();
+        var registration = bindBidirectional(model, view);
+        registration.remove();
+
+        model.setValue("hi");
+        assertEquals("hello", view.getValue());
+        view.simulateUserInput("howdy");
+        assertEquals("hi", model.getValue());
+    }
+
+    private static class RecordingTextField extends TextField {
+
+        private final List<String> writes = new ArrayList<>();
+
+        @Override
+        public void setValue(String value) {
+            writes.add(value);
+            super.setValue(value);
+        }
+
+        void simulateUserInput(String value) {
+            setModelValue(value, true);
+        }
+    }
+}
@@ -25,6 +25,8 @@ import net.pkhapps.mvvm4vaadin.model.ObservableList;
 import net.pkhapps.mvvm4vaadin.model.ObservableValue;
 import org.junit.jupiter.api.Test;
 
+import java.util.Set;
+
 import static net.pkhapps.mvvm4vaadin.binder.BindingFactory.*;
 import static net.pkhapps.mvvm4vaadin.model.ModelFactory.observableList;
 import static net.pkhapps.mvvm4vaadin.model.ModelFactory.observableValue;
@@ -123,6 +125,58 @@ public class BindingFactoryTest {
         assertTrue(view.getClassNames().isEmpty());
     }
 
+    @Test
+    void testBindClassNamesOnAttach() {
+        var model = observableValue(Set.of("first", "second"));
+        var view = new TextField();
+        view.addClassName("other");
+        bindClassNamesOnAttach(model, view);
+        assertEquals(Set.of("other"), view.getClassNames());
+
+        simulateAttach(view);
+        assertEquals(Set.of("other", "first", "second"), view.getClassNames());
+        model.setValue(Set.of("second", "third"));
+        assertEquals(Set.of("other", "second", "third"), view.getClassNames());
+        model.setValue(null);
+        assertEquals(Set.of("other"), view.getClassNames());
+
+        model.setValue(Set.of("first"));
+        simulateDetach(view);
+        assertEquals(Set.of("other"), view.getClassNames());
+        model.setValue(Set.of("second"));
+        assertEquals(Set.of("other"), view.getClassNames());
+    }
+
+    @Test
+    void testBindThemeNamesOnAttach() {
+        var model = observableValue(Set.of("first", "second"));
+        var view = new TextField();
+        bindThemeNamesOnAttach(model, view);
+        assertTrue(view.getThemeNames().isEmpty());
+
+        simulateAttach(view);
+        assertEquals(Set.of("first", "second"), view.getThemeNames());
+        model.setValue(Set.of("second", "third"));
+        assertEquals(Set.of("second", "third"), view.getThemeNames());
+
+        simulateDetach(view);
+        assertTrue(view.getThemeNames().isEmpty());
+    }
+
+    @Test
+    void testClassToggles() {
+        var selected = observableValue(false);
+        var bug = observableValue(true);
+        var view = new Div();
+        bindClassNames(classToggles().toggle("selected", selected).toggle("bug", bug).build(), view);
+        assertEquals(Set.of("bug"), view.getClassNames());
+
+        selected.setValue(true);
+        assertEquals(Set.of("selected", "bug"), view.getClassNames());
+        bug.setValue(null);
+        assertEquals(Set.of("selected"), view.getClassNames());
+    }
+
     @Test
     void testBindErrorMessageOnAttach() {
         var model = observableValue("error");
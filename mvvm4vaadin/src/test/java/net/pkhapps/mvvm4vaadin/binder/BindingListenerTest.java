@@ -0,0 +1,174 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.binder;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Input;
+import com.vaadin.flow.component.html.Span;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Set;
+
+import static net.pkhapps.mvvm4vaadin.binder.BindingFactory.*;
+import static net.pkhapps.mvvm4vaadin.model.ModelFactory.observableValue;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BindingListenerTest {
+
+    @Test
+    void getFlushMode_noFlushModeSet_immediate() {
+        assertEquals(FlushMode.IMMEDIATE, getFlushMode(new Span()));
+    }
+
+    @Test
+    void getFlushMode_setOnAncestor_inherited() {
+        var span = new Span();
+        var container = new Div(new Div(span));
+        setFlushMode(container, FlushMode.BEFORE_CLIENT_RESPONSE);
+        assertEquals(FlushMode.BEFORE_CLIENT_RESPONSE, getFlushMode(span));
+
+        setFlushMode(span, FlushMode.IMMEDIATE);
+        assertEquals(FlushMode.IMMEDIATE, getFlushMode(span));
+    }
+
+    @Test
+    void beforeClientResponse_severalChanges_latestValueAppliedOnce() {
+        var ui = new UI();
+        var model = observableValue("hello");
+        var texts = new ArrayList<String>();
+        var span = new Span() {
+            @Override
+            public void setText(String text) {
+                texts.add(text);
+                super.setText(text);
+            }
+        };
+        ui.add(span);
+        setFlushMode(ui, FlushMode.BEFORE_CLIENT_RESPONSE);
+        bindText(model, span);
+
+        model.setValue("hi");
+        model.setValue("howdy");
+        model.setValue("hey");
+        assertEquals("", span.getText());
+
+        runBeforeClientResponse(ui);
+        assertEquals("hey", span.getText());
+        assertEquals(1, texts.size());
+
+        model.setValue("hello again");
+        runBeforeClientResponse(ui);
+        assertEquals("hello again", span.getText());
+        assertEquals(2, texts.size());
+    }
+
+    @Test
+    void beforeClientResponse_severalChanges_oldValueOfFirstChangeUsed() {
+        var ui = new UI();
+        var model = observableValue("first");
+        var span = new Span();
+        ui.add(span);
+        bindClassName(model, span);
+        setFlushMode(span, FlushMode.BEFORE_CLIENT_RESPONSE);
+
+        model.setValue("second");
+        model.setValue("third");
+        runBeforeClientResponse(ui);
+        assertEquals("third", span.getClassName());
+    }
+
+    @Test
+    void beforeClientResponse_notAttached_changeAppliedRightAway() {
+        var model = observableValue("hello");
+        var span = new Span();
+        setFlushMode(span, FlushMode.BEFORE_CLIENT_RESPONSE);
+        bindText(model, span);
+        assertEquals("hello", span.getText());
+
+        model.setValue("hi");
+        assertEquals("hi", span.getText());
+    }
+
+    @Test
+    void remove_changePending_pendingChangeDiscarded() {
+        var ui = new UI();
+        var value = observableValue("hello");
+        var classNames = observableValue(Set.of("first"));
+        var field = new Input();
+        ui.add(field);
+        setFlushMode(ui, FlushMode.BEFORE_CLIENT_RESPONSE);
+        var valueRegistration = bindFieldValue(value, field);
+        var classNamesRegistration = bindClassNames(classNames, field);
+        runBeforeClientResponse(ui);
+        assertEquals("hello", field.getValue());
+        assertEquals(Set.of("first"), field.getClassNames());
+
+        value.setValue("hi");
+        classNames.setValue(Set.of("second"));
+        valueRegistration.remove();
+        classNamesRegistration.remove();
+        runBeforeClientResponse(ui);
+        assertEquals("", field.getValue());
+        assertTrue(field.getClassNames().isEmpty());
+    }
+
+    @Test
+    void setFlushMode_afterBinding_cachedFlushModeUpdated() {
+        var ui = new UI();
+        var model = observableValue("hello");
+        var span = new Span();
+        var container = new Div(span);
+        ui.add(container);
+        bindText(model, span);
+
+        setFlushMode(container, FlushMode.BEFORE_CLIENT_RESPONSE);
+        model.setValue("hi");
+        assertEquals("hello", span.getText());
+
+        setFlushMode(container, null);
+        runBeforeClientResponse(ui);
+        model.setValue("howdy");
+        assertEquals("howdy", span.getText());
+    }
+
+    @Test
+    void pause_changePendingForClientResponse_changeAppliedWhenResumed() {
+        var ui = new UI();
+        var model = observableValue("hello");
+        var span = new Span();
+        var container = new Div(span);
+        ui.add(container);
+        setFlushMode(ui, FlushMode.BEFORE_CLIENT_RESPONSE);
+        bindText(model, span);
+        runBeforeClientResponse(ui);
+
+        model.setValue("hi");
+        BindingRegistry.setPaused(container, true);
+        runBeforeClientResponse(ui);
+        assertEquals("hello", span.getText());
+
+        model.setValue("howdy");
+        BindingRegistry.setPaused(container, false);
+        assertEquals("howdy", span.getText());
+    }
+
+    private static void runBeforeClientResponse(UI ui) {
+        ui.getInternals().getStateTree().runExecutionsBeforeClientResponse();
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.binder;
+
+import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.DetachEvent;
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.component.textfield.TextField;
+import com.vaadin.flow.shared.Registration;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.pkhapps.mvvm4vaadin.binder.BindingFactory.*;
+import static net.pkhapps.mvvm4vaadin.model.ModelFactory.observableList;
+import static net.pkhapps.mvvm4vaadin.model.ModelFactory.observableValue;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BindingRegistryTest {
+
+    @Test
+    void bindOnAttach_severalBindings_oneRegistryPerComponent() {
+        var view = new Span();
+        bindTextOnAttach(observableValue("hello"), view);
+        bindClassNameOnAttach(observableValue("my-class"), view);
+        bindVisibleOnAttach(observableValue(true), view);
+        bindEnabledOnAttach(observableValue(true), view);
+        bindMethodOnAttach(observableValue("title"), view, view::setTitle);
+
+        var registry = ComponentUtil.getData(view, BindingRegistry.class);
+        assertNotNull(registry);
+        assertSame(registry, BindingRegistry.of(view));
+        assertEquals(5, registry.size());
+    }
+
+    @Test
+    void attachAndDetach_allBindingsActivatedAndDeactivated() {
+        var view = new Span();
+        var registry = BindingRegistry.of(view);
+        var active = new AtomicInteger();
+        for (int i = 0; i < 10; ++i) {
+            registry.add(() -> countingRegistration(active));
+        }
+        assertFalse(registry.isActive());
+        assertEquals(0, active.get());
+
+        simulateAttach(view);
+        assertTrue(registry.isActive());
+        assertEquals(10, active.get());
+
+        simulateDetach(view);
+        assertFalse(registry.isActive());
+        assertEquals(0, active.get());
+
+        simulateAttach(view);
+        assertEquals(10, active.get());
+    }
+
+    @Test
+    void attach_alreadyActive_bindingsNotActivatedTwice() {
+        var view = new Span();
+        var registry = BindingRegistry.of(view);
+        var active = new AtomicInteger();
+        registry.add(() -> countingRegistration(active));
+
+        simulateAttach(view);
+        simulateAttach(view);
+        assertEquals(1, active.get());
+    }
+
+    @Test
+    void add_whileActive_bindingActivatedRightAway() {
+        var view = new Span();
+        var registry = BindingRegistry.of(view);
+        var active = new AtomicInteger();
+        simulateAttach(view);
+
+        registry.add(() -> countingRegistration(active));
+        assertEquals(1, active.get());
+
+        simulateDetach(view);
+        assertEquals(0, active.get());
+    }
+
+    @Test
+    void bindVisibleAndPauseBindingsWhenHidden_hidden_descendantBindingsPausedUntilRevealed() {
+        var visible = observableValue(true);
+        var text = observableValue("hello");
+        var span = new Span();
+        var container = new Div(new Div(span));
+        bindTextOnAttach(text, span);
+        simulateAttach(span);
+        bindVisibleAndPauseBindingsWhenHidden(visible, container);
+
+        visible.setValue(false);
+        assertFalse(container.isVisible());
+        text.setValue("hi");
+        text.setValue("howdy");
+        assertEquals("hello", span.getText());
+        assertTrue(BindingRegistry.of(span).isPaused());
+        assertTrue(BindingRegistry.of(span).isActive());
+
+        visible.setValue(true);
+        assertTrue(container.isVisible());
+        assertEquals("howdy", span.getText());
+        assertFalse(BindingRegistry.of(span).isPaused());
+    }
+
+    @Test
+    void bindVisibleAndPauseBindingsWhenHidden_attachedWhileHidden_bindingsStayPaused() {
+        var container = new Div();
+        bindVisibleAndPauseBindingsWhenHidden(observableValue(false), container);
+        var span = new Span();
+        container.add(span);
+        bindTextOnAttach(observableValue("hello"), span);
+
+        simulateAttach(span);
+        assertTrue(BindingRegistry.of(span).isPaused());
+        assertEquals("", span.getText());
+    }
+
+    @Test
+    void bindVisibleAndPauseBindingsWhenHidden_removed_bindingsResumed() {
+        var span = new Span();
+        var container = new Div(span);
+        bindTextOnAttach(observableValue("hello"), span);
+        simulateAttach(span);
+        var registration = bindVisibleAndPauseBindingsWhenHidden(observableValue(false), container);
+        assertTrue(BindingRegistry.of(span).isPaused());
+
+        registration.remove();
+        assertFalse(BindingRegistry.of(span).isPaused());
+        assertEquals("hello", span.getText());
+    }
+
+    @Test
+    void bindVisibleAndPauseBindingsWhenHidden_hidden_componentsLeftAsTheyAre() {
+        var visible = observableValue(true);
+        var value = observableValue("hello");
+        var items = observableList(new Span("first"), new Span("second"));
+        var field = new TextField();
+        var list = new Div();
+        var container = new Div(field, list);
+        bindFieldValueOnAttach(value, field);
+        bindChildrenOnAttach(items, list);
+        simulateAttach(field);
+        simulateAttach(list);
+        bindVisibleAndPauseBindingsWhenHidden(visible, container);
+        var first = list.getComponentAt(0);
+
+        visible.setValue(false);
+        assertEquals("hello", field.getValue());
+        assertEquals(2, list.getComponentCount());
+        assertSame(first, list.getComponentAt(0));
+
+        value.setValue("hi");
+        value.setValue("howdy");
+        items.add(new Span("third"));
+        assertEquals("hello", field.getValue());
+        assertEquals(2, list.getComponentCount());
+
+        visible.setValue(true);
+        assertEquals("howdy", field.getValue());
+        assertEquals(3, list.getComponentCount());
+        assertSame(first, list.getComponentAt(0)); // A single change is applied as is
+        assertSame(items.get(2), list.getComponentAt(2));
+    }
+
+    @Test
+    void bindVisibleAndPauseBindingsWhenHidden_severalListChanges_appliedAsOneListChange() {
+        var visible = observableValue(false);
+        var items = observableList(new Span("first"), new Span("second"));
+        var list = new Div();
+        var container = new Div(list);
+        bindChildrenOnAttach(items, list);
+        simulateAttach(list);
+        bindVisibleAndPauseBindingsWhenHidden(visible, container);
+
+        items.remove(0);
+        items.add(new Span("third"));
+        items.move(1, 0);
+        assertEquals(2, list.getComponentCount());
+        assertEquals("first", ((Span) list.getComponentAt(0)).getText());
+
+        visible.setValue(true);
+        assertEquals(2, list.getComponentCount());
+        assertSame(items.get(0), list.getComponentAt(0));
+        assertSame(items.get(1), list.getComponentAt(1));
+    }
+
+    private static Registration countingRegistration(AtomicInteger active) {
+        active.incrementAndGet();
+        return active::decrementAndGet;
+    }
+
+    private static void simulateAttach(Component component) {
+        ComponentUtil.fireEvent(component, new AttachEvent(component, true));
+    }
+
+    private static void simulateDetach(Component component) {
+        ComponentUtil.fireEvent(component, new DetachEvent(component));
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.diagnostics;
+
+import com.vaadin.flow.component.html.Div;
+import com.vaadin.flow.component.html.Span;
+import net.pkhapps.mvvm4vaadin.binder.BindingFactory;
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableList;
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableValue;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MemoryFootprintTest {
+
+    @Test
+    void of_model_observablesCounted() {
+        var model = new Model();
+        var footprint = MemoryFootprint.of(model);
+
+        assertEquals(1, footprint.getEntry(Model.class).orElseThrow().getCount());
+        // The name, and the size and empty values of the list
+        assertEquals(3, footprint.getEntry(DefaultObservableValue.class).orElseThrow().getCount());
+        assertEquals(1, footprint.getEntry(DefaultObservableList.class).orElseThrow().getCount());
+        assertEquals(1, footprint.getEntry("net.pkhapps.mvvm4vaadin.model.AbstractObservableValue$MappedObservableValue")
+                .orElseThrow().getCount());
+        assertTrue(footprint.getTotalBytes() > 0);
+        assertEquals(footprint.getTotalBytes(), footprint.getEntries().stream()
+                .mapToLong(MemoryFootprint.Entry::getEstimatedBytes).sum());
+    }
+
+    @Test
+    void of_model_itemsAttributedToList() {
+        var small = MemoryFootprint.of(new Model());
+        var model = new Model();
+        for (int i = 0; i < 100; ++i) {
+            model.items.add("Item number " + i);
+        }
+        var large = MemoryFootprint.of(model);
+
+        var smallList = small.getEntry(DefaultObservableList.class).orElseThrow().getEstimatedBytes();
+        var largeList = large.getEntry(DefaultObservableList.class).orElseThrow().getEstimatedBytes();
+        assertTrue(largeList - smallList > 100 * 40);
+        assertTrue(large.getEntry(String.class).isEmpty());
+    }
+
+    @Test
+    void of_forgottenStrongListeners_lambdasCounted() {
+        var model = new Model();
+        var captured = new ArrayList<Integer>();
+        for (int i = 0; i < 50; ++i) {
+            var n = i;
+            model.name.addListener(event -> captured.add(n));
+        }
+        var footprint = MemoryFootprint.of(model);
+
+        assertEquals(50, footprint.getEntry(getClass().getName() + "$$Lambda").orElseThrow().getCount());
+    }
+
+    @Test
+    void of_weaklyReachableDerivedValues_notCounted() {
+        var model = new Model();
+        for (int i = 0; i < 10; ++i) {
+            model.name.map(String::length);
+        }
+        var footprint = MemoryFootprint.of(model.name);
+
+        assertTrue(footprint.getEntry("net.pkhapps.mvvm4vaadin.model.AbstractObservableValue$MappedObservableValue")
+                .isEmpty());
+    }
+
+    @Test
+    void of_view_childrenAndBindingsCounted() {
+        var view = new View(new Model());
+        var footprint = MemoryFootprint.of(view);
+
+        assertEquals(1, footprint.getEntry(View.class).orElseThrow().getCount());
+        assertEquals(1, footprint.getEntry(Span.class).orElseThrow().getCount());
+        assertEquals(1, footprint.getEntry(Model.class).orElseThrow().getCount());
+        assertTrue(footprint.getEntry(BindingFactory.class.getName() + "$$Lambda").isPresent());
+    }
+
+    @Test
+    void of_excludedObject_notCounted() {
+        var model = new Model();
+        var view = new View(model);
+        var footprint = MemoryFootprint.of(view, Set.of(model));
+
+        assertTrue(footprint.getEntry(Model.class).isEmpty());
+        assertTrue(footprint.getEntry(DefaultObservableList.class).isEmpty());
+        assertEquals(1, footprint.getEntry(Span.class).orElseThrow().getCount());
+    }
+
+    @Test
+    void toReport_oneLinePerClassAndTotal() {
+        var footprint = MemoryFootprint.of(new Model());
+        var lines = footprint.toReport().split("\n");
+
+        assertTrue(lines[0].startsWith("Class"));
+        assertEquals(footprint.getEntries().size() + 2, lines.length);
+        assertTrue(lines[lines.length - 1].startsWith("Total"));
+        assertTrue(lines[lines.length - 1].trim().endsWith(String.valueOf(footprint.getTotalBytes())));
+    }
+
+    static class Model {
+        final DefaultObservableValue<String> name = new DefaultObservableValue<>("hello");
+        final ObservableValue<Integer> nameLength = name.map(String::length);
+        final DefaultObservableList<String> items = new DefaultObservableList<>(List.of());
+    }
+
+    static class View extends Div {
+        final Model model;
+
+        View(Model model) {
+            this.model = model;
+            var span = new Span();
+            BindingFactory.bindText(model.name, span);
+            add(span);
+        }
+    }
+}
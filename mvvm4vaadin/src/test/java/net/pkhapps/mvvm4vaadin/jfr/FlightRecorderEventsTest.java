@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.jfr;
+
+import com.vaadin.flow.component.html.Span;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.pkhapps.mvvm4vaadin.binder.BindingFactory;
+import net.pkhapps.mvvm4vaadin.model.DefaultAction;
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableList;
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableValue;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRecorderEventsTest {
+
+    @Test
+    void enabledEvents_recorded() throws Exception {
+        var spanIdentity = new int[1];
+        var valueIdentity = new int[1];
+        var events = record(() -> {
+            var value = new DefaultObservableValue<>("hello");
+            var length = value.map(String::length);
+            var span = new Span();
+            spanIdentity[0] = System.identityHashCode(span);
+            valueIdentity[0] = System.identityHashCode(value);
+            BindingFactory.bindText(value, span);
+            var list = new DefaultObservableList<String>();
+            var action = new DefaultAction(() -> list.add("item"));
+
+            value.setValue("world!");
+            action.run();
+            assertEquals(6, length.getValue());
+        });
+
+        var valueChanged = eventsOfType(events, "net.pkhapps.mvvm4vaadin.ObservableValueChanged");
+        assertTrue(valueChanged.stream().anyMatch(event ->
+                event.getString("observableClass").equals(DefaultObservableValue.class.getName())
+                        && event.getInt("listenerCount") == 2));
+        var listChanged = eventsOfType(events, "net.pkhapps.mvvm4vaadin.ObservableListChanged");
+        assertEquals(1, listChanged.size());
+        assertEquals("itemAdded", listChanged.get(0).getString("changeType"));
+        var recomputed = eventsOfType(events, "net.pkhapps.mvvm4vaadin.ComputedValueRecomputed");
+        assertTrue(recomputed.stream().anyMatch(event -> event.getBoolean("changed")));
+        var actions = eventsOfType(events, "net.pkhapps.mvvm4vaadin.ActionExecuted");
+        assertEquals(1, actions.size());
+        assertEquals(DefaultAction.class.getName(), actions.get(0).getString("actionClass"));
+        var bindings = eventsOfType(events, "net.pkhapps.mvvm4vaadin.BindingApplied");
+        assertEquals(List.of("bindText", "bindText"), bindings.stream().map(event -> event.getString("binding"))
+                .collect(Collectors.toList()));
+        assertEquals(Span.class.getName(), bindings.get(0).getString("targetClass"));
+        assertEquals(spanIdentity[0], bindings.get(0).getInt("targetIdentity"));
+        assertEquals(DefaultObservableValue.class.getName(), bindings.get(0).getString("observableClass"));
+        assertEquals(valueIdentity[0], bindings.get(0).getInt("observableIdentity"));
+    }
+
+    @Test
+    void disabledByDefault_beginReturnsNull() {
+        assertNull(FlightRecorderEvents.beginObservableEvent(new Object(), new Object()));
+        assertNull(FlightRecorderEvents.beginRecomputation(new Object()));
+        assertNull(FlightRecorderEvents.beginAction(new Object()));
+        assertNull(FlightRecorderEvents.beginBinding("bindText", new Object(), new Span()));
+        var value = new DefaultObservableValue<>("hello");
+        assertNull(FlightRecorderEvents.beginObservableEvent(value, new ObservableValue.ValueChangeEvent<>(value, "hello", "world")));
+    }
+
+    private static List<RecordedEvent> record(Runnable runnable) throws Exception {
+        var file = Files.createTempFile("mvvm4vaadin", ".jfr");
+        try (var recording = new Recording()) {
+            for (var name : List.of("ObservableValueChanged", "ObservableListChanged", "ComputedValueRecomputed",
+                    "ActionExecuted", "BindingApplied")) {
+                recording.enable("net.pkhapps.mvvm4vaadin." + name);
+            }
+            recording.start();
+            runnable.run();
+            recording.stop();
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static List<RecordedEvent> eventsOfType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name))
+                .collect(Collectors.toList());
+    }
+}
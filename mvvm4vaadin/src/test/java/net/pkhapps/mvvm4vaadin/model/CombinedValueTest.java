@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.pkhapps.mvvm4vaadin.model.ModelFactory.combine;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CombinedValueTest {
+
+    @Test
+    void combine2_initialValue() {
+        var a = new DefaultObservableValue<>("hello");
+        var b = new DefaultObservableValue<>(42);
+        var combined = combine(a, b, (s, i) -> s + i);
+        assertEquals("hello42", combined.getValue());
+    }
+
+    @Test
+    void combine2_dependencyChanged_eventFired() {
+        var a = new DefaultObservableValue<>("hello");
+        var b = new DefaultObservableValue<>(42);
+        var combined = combine(a, b, (s, i) -> s + i);
+        var events = new ArrayList<ObservableValue.ValueChangeEvent<String>>();
+        combined.addListener(events::add, false);
+
+        a.setValue("world");
+        b.setValue(43);
+
+        assertEquals("world43", combined.getValue());
+        assertEquals(List.of(
+                new ObservableValue.ValueChangeEvent<>(combined, "hello42", "world42"),
+                new ObservableValue.ValueChangeEvent<>(combined, "world42", "world43")
+        ), events);
+    }
+
+    @Test
+    void combine3_combinerInvokedOncePerChange() {
+        var a = new DefaultObservableValue<>(1);
+        var b = new DefaultObservableValue<>(2);
+        var c = new DefaultObservableValue<>(3);
+        var invocations = new AtomicInteger();
+        var combined = combine(a, b, c, (x, y, z) -> {
+            invocations.incrementAndGet();
+            return x + y + z;
+        });
+        assertEquals(6, combined.getValue());
+        assertEquals(1, invocations.get());
+
+        c.setValue(30);
+        assertEquals(33, combined.getValue());
+        assertEquals(2, invocations.get());
+
+        b.setValue(20);
+        a.setValue(10);
+        assertEquals(60, combined.getValue());
+        assertEquals(4, invocations.get());
+    }
+
+    @Test
+    void combine3_nullValues_passedToCombiner() {
+        var a = new DefaultObservableValue<String>();
+        var b = new DefaultObservableValue<String>();
+        var c = new DefaultObservableValue<String>();
+        var combined = combine(a, b, c, (x, y, z) -> x + ":" + y + ":" + z);
+        assertEquals("null:null:null", combined.getValue());
+
+        b.setValue("b");
+        assertEquals("null:b:null", combined.getValue());
+    }
+}
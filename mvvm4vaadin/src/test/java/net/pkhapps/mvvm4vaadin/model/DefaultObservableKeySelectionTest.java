@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DefaultObservableKeySelectionTest {
+
+    @Test
+    void create_empty() {
+        var selection = new DefaultObservableKeySelection<String>();
+        assertNull(selection.getValue());
+        assertFalse(selection.selected("foo").getValue());
+        assertTrue(selection.selected(null).getValue());
+    }
+
+    @Test
+    void create_initialKey() {
+        var selection = new DefaultObservableKeySelection<>("foo");
+        assertEquals("foo", selection.getValue());
+        assertTrue(selection.isSelected("foo"));
+        assertTrue(selection.selected("foo").getValue());
+        assertFalse(selection.selected("bar").getValue());
+    }
+
+    @Test
+    void selected_sameKey_sameFlagReturned() {
+        var selection = new DefaultObservableKeySelection<String>();
+        assertSame(selection.selected("foo"), selection.selected("foo"));
+    }
+
+    @Test
+    void setValue_onlyOldAndNewKeysNotified() {
+        var selection = new DefaultObservableKeySelection<>(1);
+        var notifications = new AtomicInteger();
+        var flags = new ArrayList<ObservableValue<Boolean>>();
+        for (int i = 0; i < 100; ++i) {
+            var flag = selection.selected(i);
+            flag.addListener(event -> notifications.incrementAndGet(), false);
+            flags.add(flag);
+        }
+
+        selection.setValue(42);
+
+        assertEquals(2, notifications.get());
+        assertFalse(flags.get(1).getValue());
+        assertTrue(flags.get(42).getValue());
+    }
+
+    @Test
+    void setValue_flagEventsContainOldAndNewState() {
+        var selection = new DefaultObservableKeySelection<>("foo");
+        var fooEvent = new AtomicReference<ObservableValue.ValueChangeEvent<Boolean>>();
+        var barEvent = new AtomicReference<ObservableValue.ValueChangeEvent<Boolean>>();
+        var foo = selection.selected("foo");
+        var bar = selection.selected("bar");
+        foo.addListener(fooEvent::set, false);
+        bar.addListener(barEvent::set, false);
+
+        selection.setValue("bar");
+
+        assertSame(foo, fooEvent.get().getSender());
+        assertTrue(fooEvent.get().getOldValue());
+        assertFalse(fooEvent.get().getValue());
+        assertSame(bar, barEvent.get().getSender());
+        assertFalse(barEvent.get().getOldValue());
+        assertTrue(barEvent.get().getValue());
+    }
+
+    @Test
+    void setValue_selectionListenersStillNotified() {
+        var selection = new DefaultObservableKeySelection<>("foo");
+        var lastEvent = new AtomicReference<ObservableValue.ValueChangeEvent<String>>();
+        selection.addListener(lastEvent::set, false);
+
+        selection.setValue("bar");
+
+        assertEquals("foo", lastEvent.get().getOldValue());
+        assertEquals("bar", lastEvent.get().getValue());
+    }
+
+    @Test
+    void mappedFlag_followsSelection() {
+        var selection = new DefaultObservableKeySelection<String>();
+        var className = selection.selected("foo").map(s -> s ? "selected" : null);
+        assertNull(className.getValue());
+
+        selection.setValue("foo");
+        assertEquals("selected", className.getValue());
+
+        selection.setValue(null);
+        assertNull(className.getValue());
+    }
+}
@@ -226,6 +226,89 @@ public class DefaultObservableListTest {
         assertTrue(lastEvent.get().isListChanged());
     }
 
+    @Test
+    void snapshot_unaffectedByLaterChanges() {
+        var list = new DefaultObservableList<>(List.of("hello", "world"));
+        var snapshot = list.snapshot();
+
+        list.add("foo");
+        list.remove(0);
+        list.move(0, 1);
+
+        assertEquals(List.of("hello", "world"), snapshot);
+        assertEquals(List.of("foo", "world"), list.getItems());
+        assertEquals(List.of("foo", "world"), list.snapshot());
+    }
+
+    @Test
+    void snapshot_unchangedList_sameSnapshotReturned() {
+        var list = new DefaultObservableList<>(List.of("hello", "world"));
+        assertSame(list.snapshot(), list.snapshot());
+    }
+
+    @Test
+    void snapshot_isUnmodifiable() {
+        var list = new DefaultObservableList<>(List.of("hello", "world"));
+        assertThrows(UnsupportedOperationException.class, () -> list.snapshot().add("foo"));
+    }
+
+    @Test
+    void snapshot_clearAndSetItems_snapshotUnaffected() {
+        var list = new DefaultObservableList<>(List.of("hello", "world"));
+        var first = list.snapshot();
+        list.clear();
+        var second = list.snapshot();
+        list.setItems(List.of("foo"));
+
+        assertEquals(List.of("hello", "world"), first);
+        assertEquals(Collections.emptyList(), second);
+        assertEquals(List.of("foo"), list.getItems());
+    }
+
+    @Test
+    void getItems_remainsLiveAfterSnapshot() {
+        var list = new DefaultObservableList<>(List.of("hello", "world"));
+        var items = list.getItems();
+        list.snapshot();
+
+        list.add("foo");
+
+        assertEquals(List.of("hello", "world", "foo"), items);
+    }
+
+    @Test
+    void parallelStream_iteratesOverSnapshot() {
+        var list = new DefaultObservableList<Integer>();
+        for (int i = 0; i < 10_000; ++i) {
+            list.add(i);
+        }
+        var stream = list.parallelStream();
+        list.clear();
+
+        assertEquals(49_995_000L, stream.mapToLong(Integer::longValue).sum());
+    }
+
+    @Test
+    void treeStorage_editsAndEvents() {
+        var list = new DefaultObservableList<>(DefaultObservableList.Storage.TREE, List.of("hello", "world"));
+        var events = new ArrayList<ObservableList.ItemChangeEvent<String>>();
+        list.addListener(events::add, false);
+        var snapshot = list.snapshot();
+
+        list.add(1, "cruel");
+        list.move(0, 2);
+        list.remove("world");
+
+        assertEquals(List.of("cruel", "hello"), list.getItems());
+        assertEquals(2, list.size().getValue());
+        assertEquals(List.of("hello", "world"), snapshot);
+        assertEquals(3, events.size());
+        assertTrue(events.get(0).isItemAdded());
+        assertTrue(events.get(1).isItemMoved());
+        assertTrue(events.get(2).isItemRemoved());
+        assertEquals(1, events.get(2).getOldPosition());
+    }
+
     @Test
     void mappedList_mapperFunction_valuesConvertedCorrectly() {
         var list = new DefaultObservableList<>(List.of(0, 1, 2, 3));
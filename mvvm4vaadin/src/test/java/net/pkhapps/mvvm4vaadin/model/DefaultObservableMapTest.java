@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DefaultObservableMapTest {
+
+    @Test
+    void create_empty() {
+        var map = new DefaultObservableMap<String, Integer>();
+        assertTrue(map.isEmpty());
+        assertTrue(map.empty().getValue());
+        assertEquals(0, map.getSize());
+        assertEquals(0, map.size().getValue());
+        assertEquals(Collections.emptyMap(), map.asMap());
+    }
+
+    @Test
+    void create_initialValue() {
+        var map = new DefaultObservableMap<>(Map.of("one", 1, "two", 2));
+        assertFalse(map.isEmpty());
+        assertFalse(map.empty().getValue());
+        assertEquals(2, map.getSize());
+        assertEquals(2, map.size().getValue());
+        assertEquals(Map.of("one", 1, "two", 2), map.asMap());
+    }
+
+    @Test
+    void clear_emptyMap_noEventFired() {
+        var map = new DefaultObservableMap<String, Integer>();
+        var events = new ArrayList<ObservableMap.EntryChangeEvent<String, Integer>>();
+        map.addListener(events::add, false);
+
+        map.clear();
+
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void put_newKey_entryAddedEventFired() {
+        var map = new DefaultObservableMap<String, Integer>();
+        var lastEvent = new AtomicReference<ObservableMap.EntryChangeEvent<String, Integer>>();
+        map.addListener(lastEvent::set, false);
+
+        assertNull(map.put("one", 1));
+
+        assertEquals(1, map.get("one"));
+        assertTrue(map.containsKey("one"));
+        assertEquals(1, map.size().getValue());
+        assertEquals(map, lastEvent.get().getSender());
+        assertTrue(lastEvent.get().isEntryAdded());
+        assertEquals("one", lastEvent.get().getKey());
+        assertEquals(1, lastEvent.get().getNewValue());
+    }
+
+    @Test
+    void put_existingKey_entryReplacedEventFired() {
+        var map = new DefaultObservableMap<>(Map.of("one", 1));
+        var lastEvent = new AtomicReference<ObservableMap.EntryChangeEvent<String, Integer>>();
+        map.addListener(lastEvent::set, false);
+
+        assertEquals(1, map.put("one", 11));
+
+        assertEquals(11, map.get("one"));
+        assertEquals(1, map.size().getValue());
+        assertTrue(lastEvent.get().isEntryReplaced());
+        assertEquals("one", lastEvent.get().getKey());
+        assertEquals(1, lastEvent.get().getOldValue());
+        assertEquals(11, lastEvent.get().getNewValue());
+    }
+
+    @Test
+    void put_sameValue_noEventFired() {
+        var map = new DefaultObservableMap<>(Map.of("one", 1));
+        var lastEvent = new AtomicReference<ObservableMap.EntryChangeEvent<String, Integer>>();
+        map.addListener(lastEvent::set, false);
+
+        map.put("one", 1);
+
+        assertNull(lastEvent.get());
+    }
+
+    @Test
+    void remove_entryRemovedEventFired() {
+        var map = new DefaultObservableMap<>(Map.of("one", 1));
+        var lastEvent = new AtomicReference<ObservableMap.EntryChangeEvent<String, Integer>>();
+        map.addListener(lastEvent::set, false);
+
+        assertEquals(1, map.remove("one"));
+
+        assertTrue(map.isEmpty());
+        assertTrue(map.empty().getValue());
+        assertTrue(lastEvent.get().isEntryRemoved());
+        assertEquals("one", lastEvent.get().getKey());
+        assertEquals(1, lastEvent.get().getOldValue());
+    }
+
+    @Test
+    void remove_nonexistentKey_noEventFired() {
+        var map = new DefaultObservableMap<>(Map.of("one", 1));
+        var lastEvent = new AtomicReference<ObservableMap.EntryChangeEvent<String, Integer>>();
+        map.addListener(lastEvent::set, false);
+
+        assertNull(map.remove("two"));
+
+        assertNull(lastEvent.get());
+    }
+
+    @Test
+    void removeIf_oneEventPerRemovedEntry() {
+        var map = new DefaultObservableMap<>(Map.of("one", 1, "two", 2, "three", 3));
+        var events = new ArrayList<ObservableMap.EntryChangeEvent<String, Integer>>();
+        map.addListener(events::add, false);
+
+        map.removeIf((key, value) -> value % 2 == 1);
+
+        assertEquals(Map.of("two", 2), map.asMap());
+        assertEquals(2, events.size());
+        assertTrue(events.stream().allMatch(ObservableMap.EntryChangeEvent::isEntryRemoved));
+    }
+
+    @Test
+    void setEntries_mapChangedEventFired() {
+        var map = new DefaultObservableMap<>(Map.of("one", 1));
+        var lastEvent = new AtomicReference<ObservableMap.EntryChangeEvent<String, Integer>>();
+        map.addListener(lastEvent::set, false);
+
+        map.setEntries(Map.of("two", 2, "three", 3));
+
+        assertEquals(Map.of("two", 2, "three", 3), map.asMap());
+        assertEquals(2, map.size().getValue());
+        assertTrue(lastEvent.get().isMapChanged());
+    }
+
+    @Test
+    void mapValues_followsSource() {
+        var map = new DefaultObservableMap<String, Integer>();
+        map.put("one", 1);
+        var mapped = map.mapValues(value -> "#" + value);
+        var lastEvent = new AtomicReference<ObservableMap.EntryChangeEvent<String, String>>();
+        mapped.addListener(lastEvent::set, false);
+        assertEquals(Map.of("one", "#1"), mapped.asMap());
+
+        map.put("two", 2);
+        assertEquals(Map.of("one", "#1", "two", "#2"), mapped.asMap());
+        assertTrue(lastEvent.get().isEntryAdded());
+
+        map.put("one", 11);
+        assertEquals("#11", mapped.get("one"));
+        assertEquals(ObservableMap.EntryChangeEvent.entryReplaced(mapped, "one", "#1", "#11"), lastEvent.get());
+
+        map.remove("two");
+        assertEquals(Map.of("one", "#11"), mapped.asMap());
+        assertEquals(1, mapped.size().getValue());
+
+        map.clear();
+        assertTrue(mapped.isEmpty());
+        assertTrue(lastEvent.get().isMapChanged());
+    }
+
+    @Test
+    void filter_followsSource() {
+        var map = new DefaultObservableMap<String, Integer>();
+        map.put("one", 1);
+        map.put("two", 2);
+        var even = map.filter((key, value) -> value % 2 == 0);
+        var events = new ArrayList<ObservableMap.EntryChangeEvent<String, Integer>>();
+        even.addListener(events::add, false);
+        assertEquals(Map.of("two", 2), even.asMap());
+
+        map.put("one", 10);
+        map.put("two", 3);
+        map.put("four", 4);
+        map.put("four", 44);
+        map.put("five", 5);
+
+        assertEquals(Map.of("one", 10, "four", 44), even.asMap());
+        assertEquals(List.of(
+                ObservableMap.EntryChangeEvent.entryAdded(even, "one", 10),
+                ObservableMap.EntryChangeEvent.entryRemoved(even, "two", 2),
+                ObservableMap.EntryChangeEvent.entryAdded(even, "four", 4),
+                ObservableMap.EntryChangeEvent.entryReplaced(even, "four", 4, 44)
+        ), events);
+        assertEquals(2, even.size().getValue());
+    }
+}
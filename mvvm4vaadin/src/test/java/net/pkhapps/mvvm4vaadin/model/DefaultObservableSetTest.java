@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DefaultObservableSetTest {
+
+    @Test
+    void create_empty() {
+        var set = new DefaultObservableSet<String>();
+        assertTrue(set.isEmpty());
+        assertTrue(set.empty().getValue());
+        assertEquals(0, set.getSize());
+        assertEquals(0, set.size().getValue());
+        assertEquals(Collections.emptySet(), set.getItems());
+    }
+
+    @Test
+    void create_initialValue() {
+        var set = new DefaultObservableSet<>(List.of("hello", "world", "hello"));
+        assertEquals(2, set.getSize());
+        assertEquals(2, set.size().getValue());
+        assertEquals(Set.of("hello", "world"), set.getItems());
+    }
+
+    @Test
+    void add_newItem_eventFired() {
+        var set = new DefaultObservableSet<String>();
+        var lastEvent = new AtomicReference<ObservableSet.ElementChangeEvent<String>>();
+        set.addListener(lastEvent::set, false);
+
+        assertTrue(set.add("hello"));
+
+        assertTrue(set.contains("hello"));
+        assertFalse(set.empty().getValue());
+        assertEquals(set, lastEvent.get().getSender());
+        assertTrue(lastEvent.get().isItemAdded());
+        assertEquals("hello", lastEvent.get().getItem());
+    }
+
+    @Test
+    void add_existingItem_noEventFired() {
+        var set = new DefaultObservableSet<>(List.of("hello"));
+        var lastEvent = new AtomicReference<ObservableSet.ElementChangeEvent<String>>();
+        set.addListener(lastEvent::set, false);
+
+        assertFalse(set.add("hello"));
+
+        assertNull(lastEvent.get());
+    }
+
+    @Test
+    void remove_eventFired() {
+        var set = new DefaultObservableSet<>(List.of("hello", "world"));
+        var lastEvent = new AtomicReference<ObservableSet.ElementChangeEvent<String>>();
+        set.addListener(lastEvent::set, false);
+
+        assertTrue(set.remove("hello"));
+        assertFalse(set.remove("hello"));
+
+        assertEquals(Set.of("world"), set.getItems());
+        assertEquals(1, set.size().getValue());
+        assertEquals(ObservableSet.ElementChangeEvent.itemRemoved(set, "hello"), lastEvent.get());
+    }
+
+    @Test
+    void removeIf_oneEventPerRemovedItem() {
+        var set = new DefaultObservableSet<>(List.of("hello", "cruel", "world"));
+        var events = new ArrayList<ObservableSet.ElementChangeEvent<String>>();
+        set.addListener(events::add, false);
+
+        set.removeIf(item -> item.contains("l") && item.length() == 5);
+
+        assertEquals(Collections.emptySet(), set.getItems());
+        assertEquals(3, events.size());
+        assertTrue(set.empty().getValue());
+    }
+
+    @Test
+    void setItems_setChangedEventFired() {
+        var set = new DefaultObservableSet<>(List.of("hello"));
+        var lastEvent = new AtomicReference<ObservableSet.ElementChangeEvent<String>>();
+        set.addListener(lastEvent::set, false);
+
+        set.setItems(List.of("farewell", "world"));
+
+        assertEquals(Set.of("farewell", "world"), set.getItems());
+        assertTrue(lastEvent.get().isSetChanged());
+    }
+
+    @Test
+    void filter_followsSource() {
+        var set = new DefaultObservableSet<>(List.of(1, 2, 3));
+        var even = set.filter(i -> i % 2 == 0);
+        var lastEvent = new AtomicReference<ObservableSet.ElementChangeEvent<Integer>>();
+        even.addListener(lastEvent::set, false);
+        assertEquals(Set.of(2), even.getItems());
+
+        set.add(4);
+        assertEquals(Set.of(2, 4), even.getItems());
+        assertEquals(ObservableSet.ElementChangeEvent.itemAdded(even, 4), lastEvent.get());
+
+        set.add(5);
+        assertEquals(Set.of(2, 4), even.getItems());
+        assertTrue(lastEvent.get().isItemAdded());
+
+        set.remove(2);
+        assertEquals(Set.of(4), even.getItems());
+        assertEquals(ObservableSet.ElementChangeEvent.itemRemoved(even, 2), lastEvent.get());
+
+        set.clear();
+        assertTrue(even.empty().getValue());
+        assertTrue(lastEvent.get().isSetChanged());
+    }
+}
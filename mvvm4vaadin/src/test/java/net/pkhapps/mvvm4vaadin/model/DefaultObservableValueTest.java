@@ -20,6 +20,8 @@ import com.vaadin.flow.data.converter.StringToIntegerConverter;
 import com.vaadin.flow.function.SerializableConsumer;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -291,4 +293,70 @@ public class DefaultObservableValueTest {
         assertTrue(v1.isEqualTo(v2));
         assertTrue(v2.isEqualTo(v1));
     }
+
+    @Test
+    void flatMappedValue_followsCurrentInnerValue() {
+        var first = new DefaultObservableValue<>("first");
+        var second = new DefaultObservableValue<>("second");
+        var outer = new DefaultObservableValue<ObservableValue<String>>(first);
+        var flatMapped = outer.flatMap(v -> v);
+        var events = new ArrayList<String>();
+        flatMapped.addListener(event -> events.add(event.getValue()), false);
+        assertEquals("first", flatMapped.getValue());
+
+        first.setValue("first changed");
+        assertEquals("first changed", flatMapped.getValue());
+
+        outer.setValue(second);
+        assertEquals("second", flatMapped.getValue());
+
+        second.setValue("second changed");
+        assertEquals("second changed", flatMapped.getValue());
+        assertEquals(List.of("first changed", "second", "second changed"), events);
+    }
+
+    @Test
+    void flatMappedValue_previousInnerValueChanged_noEventFired() {
+        var first = new DefaultObservableValue<>("first");
+        var second = new DefaultObservableValue<>("second");
+        var outer = new DefaultObservableValue<ObservableValue<String>>(first);
+        var flatMapped = outer.flatMap(v -> v);
+        outer.setValue(second);
+        var events = new ArrayList<String>();
+        flatMapped.addListener(event -> events.add(event.getValue()), false);
+
+        first.setValue("first changed");
+
+        assertEquals("second", flatMapped.getValue());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void flatMappedValue_nullInner_nullValue() {
+        var inner = new DefaultObservableValue<>("inner");
+        var outer = new DefaultObservableValue<ObservableValue<String>>();
+        var flatMapped = outer.flatMap(v -> v);
+        assertNull(flatMapped.getValue());
+
+        outer.setValue(inner);
+        assertEquals("inner", flatMapped.getValue());
+
+        outer.setValue(null);
+        assertNull(flatMapped.getValue());
+    }
+
+    @Test
+    void flatMappedValue_mappedFromModel() {
+        var firstModel = new DefaultObservableValue<>(1);
+        var secondModel = new DefaultObservableValue<>(2);
+        var selectedModel = new DefaultObservableValue<>(firstModel);
+        var doubled = selectedModel.flatMap(model -> model.map(v -> v * 2));
+        assertEquals(2, doubled.getValue());
+
+        selectedModel.setValue(secondModel);
+        assertEquals(4, doubled.getValue());
+
+        secondModel.setValue(5);
+        assertEquals(10, doubled.getValue());
+    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import com.vaadin.flow.component.html.Span;
+import net.pkhapps.mvvm4vaadin.binder.BindingFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DependencyGraphTest {
+
+    @Test
+    public void dependenciesOf_mappedValue_sourceReturned() {
+        var source = ModelFactory.observableValue("hello");
+        var mapped = source.map(String::length);
+
+        assertEquals(List.of(source), DependencyGraph.dependenciesOf(mapped));
+        assertTrue(DependencyGraph.dependenciesOf(source).isEmpty());
+    }
+
+    @Test
+    public void dependentsOf_mappedValue_mappedValueReturned() {
+        var source = ModelFactory.observableValue("hello");
+        var mapped = source.map(String::length);
+
+        assertEquals(List.of(mapped), DependencyGraph.dependentsOf(source));
+        assertTrue(DependencyGraph.dependentsOf(mapped).isEmpty());
+    }
+
+    @Test
+    public void dependenciesOf_computedValue_allDependenciesReturned() {
+        var name = ModelFactory.observableValue("Joe");
+        var age = ModelFactory.observableValue(42);
+        var computed = new ComputedValue<>(() -> name.getValue() + age.getValue(), List.of(name, age));
+
+        assertEquals(List.of(name, age), DependencyGraph.dependenciesOf(computed));
+        assertEquals(List.of(computed), DependencyGraph.dependentsOf(name));
+        assertEquals(List.of(computed), DependencyGraph.dependentsOf(age));
+    }
+
+    @Test
+    public void dependenciesOf_mappedList_sourceReturned() {
+        var source = ModelFactory.observableList(List.of("a", "bb"));
+        var mapped = source.map(String::length);
+
+        assertEquals(List.of(source), DependencyGraph.dependenciesOf(mapped));
+        assertTrue(DependencyGraph.dependentsOf(source).contains(mapped));
+    }
+
+    @Test
+    public void listenersOf_binding_listenerReturned() {
+        var source = ModelFactory.observableValue("hello");
+        BindingFactory.bindText(source, new Span());
+
+        assertEquals(1, DependencyGraph.listenersOf(source).size());
+        assertTrue(DependencyGraph.listenersOf(source).get(0).toString().contains("bindText"));
+    }
+
+    @Test
+    public void of_chainOfMappedValues_wholeChainFound() {
+        var source = ModelFactory.observableValue("hello");
+        var first = source.map(String::length);
+        var second = first.map(length -> length * 2);
+        var third = second.map(String::valueOf);
+
+        var graph = DependencyGraph.of(second);
+        assertEquals(4, graph.getObservables().size());
+        assertTrue(graph.getObservables().containsAll(List.of(source, first, second, third)));
+    }
+
+    @Test
+    public void countEvents_valueChanged_eventsCountedUntilRemoved() {
+        var source = ModelFactory.observableValue("hello");
+        var mapped = source.map(String::length);
+        var graph = DependencyGraph.of(source);
+
+        var registration = graph.countEvents();
+        source.setValue("hi");
+        source.setValue("hey");
+        registration.remove();
+        source.setValue("howdy");
+
+        assertEquals(2, graph.getEventCount(source));
+        assertEquals(2, graph.getEventCount(mapped));
+        assertEquals(0, graph.getEventCount(ModelFactory.observableValue("other")));
+    }
+
+    @Test
+    public void toDot_nodesEdgesAndListenersIncluded() {
+        var source = ModelFactory.observableValue("hello");
+        var mapped = source.map(String::toUpperCase);
+        BindingFactory.bindText(mapped, new Span());
+        var graph = DependencyGraph.of(source);
+        graph.countEvents().remove();
+
+        var dot = graph.toDot();
+        assertTrue(dot.startsWith("digraph observables {"));
+        assertTrue(dot.contains("DefaultObservableValue@" + Integer.toHexString(System.identityHashCode(source))
+                + "\\nevents: 0"));
+        assertTrue(dot.contains("MappedObservableValue@"));
+        assertTrue(dot.contains("o0 -> o1;") || dot.contains("o1 -> o0;"));
+        assertTrue(dot.contains("l0 [shape=box"));
+        assertTrue(dot.trim().endsWith("}"));
+    }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GroupedObservableMapTest {
+
+    @Test
+    void groupBy_initialItems() {
+        var list = new DefaultObservableList<>(List.of("apple", "banana", "avocado", "cherry"));
+        var groups = list.groupBy(s -> s.charAt(0));
+
+        assertEquals(3, groups.size().getValue());
+        assertEquals(List.of("apple", "avocado"), groups.get('a').getItems());
+        assertEquals(List.of("banana"), groups.get('b').getItems());
+        assertEquals(List.of("cherry"), groups.get('c').getItems());
+    }
+
+    @Test
+    void add_existingKey_onlyAffectedGroupNotified() {
+        var list = new DefaultObservableList<>(List.of("apple", "banana", "avocado"));
+        var groups = list.groupBy(s -> s.charAt(0));
+        var aEvents = new ArrayList<ObservableList.ItemChangeEvent<String>>();
+        var bEvents = new ArrayList<ObservableList.ItemChangeEvent<String>>();
+        var mapEvents = new ArrayList<ObservableMap.EntryChangeEvent<Character, ObservableList<String>>>();
+        groups.get('a').addListener(aEvents::add, false);
+        groups.get('b').addListener(bEvents::add, false);
+        groups.addListener(mapEvents::add, false);
+
+        list.add(2, "apricot");
+
+        assertEquals(List.of("apple", "apricot", "avocado"), groups.get('a').getItems());
+        assertEquals(List.of(ObservableList.ItemChangeEvent.itemAdded(groups.get('a'), "apricot", 1)), aEvents);
+        assertTrue(bEvents.isEmpty());
+        assertTrue(mapEvents.isEmpty());
+    }
+
+    @Test
+    void add_newKey_groupCreated() {
+        var list = new DefaultObservableList<>(List.of("apple"));
+        var groups = list.groupBy(s -> s.charAt(0));
+        var mapEvents = new ArrayList<ObservableMap.EntryChangeEvent<Character, ObservableList<String>>>();
+        groups.addListener(mapEvents::add, false);
+
+        list.add("banana");
+
+        assertEquals(List.of("banana"), groups.get('b').getItems());
+        assertEquals(List.of(ObservableMap.EntryChangeEvent.entryAdded(groups, 'b', groups.get('b'))), mapEvents);
+    }
+
+    @Test
+    void remove_lastItemOfKey_groupDestroyed() {
+        var list = new DefaultObservableList<>(List.of("apple", "banana"));
+        var groups = list.groupBy(s -> s.charAt(0));
+        var bGroup = groups.get('b');
+        var mapEvents = new ArrayList<ObservableMap.EntryChangeEvent<Character, ObservableList<String>>>();
+        groups.addListener(mapEvents::add, false);
+
+        list.remove("banana");
+
+        assertFalse(groups.containsKey('b'));
+        assertTrue(bGroup.isEmpty());
+        assertEquals(List.of(ObservableMap.EntryChangeEvent.entryRemoved(groups, 'b', bGroup)), mapEvents);
+    }
+
+    @Test
+    void setItems_existingGroupsReused() {
+        var list = new DefaultObservableList<>(List.of("apple", "banana"));
+        var groups = list.groupBy(s -> s.charAt(0));
+        var aGroup = groups.get('a');
+        var bGroup = groups.get('b');
+
+        list.setItems(List.of("avocado", "cherry"));
+
+        assertSame(aGroup, groups.get('a'));
+        assertEquals(List.of("avocado"), aGroup.getItems());
+        assertFalse(groups.containsKey('b'));
+        assertTrue(bGroup.isEmpty());
+        assertEquals(List.of("cherry"), groups.get('c').getItems());
+    }
+
+    @Test
+    void randomEdits_agreeWithFullRegrouping() {
+        var random = new Random(42);
+        var list = new DefaultObservableList<Integer>();
+        var groups = list.groupBy(i -> i % 7);
+
+        for (int i = 0; i < 2000; ++i) {
+            var operation = random.nextInt(10);
+            if (operation < 5 || list.isEmpty()) {
+                list.add(random.nextInt(list.getSize() + 1), i);
+            } else if (operation < 8) {
+                list.remove(random.nextInt(list.getSize()));
+            } else if (operation < 9) {
+                list.move(random.nextInt(list.getSize()), random.nextInt(list.getSize()));
+            } else if (random.nextInt(10) == 0) {
+                list.setItems(List.of(1, 2, 3, 8));
+            }
+
+            Map<Integer, List<Integer>> expected = list.stream().collect(Collectors.groupingBy(n -> n % 7));
+            assertEquals(expected, groups.asMap().entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getItems())));
+            assertEquals(expected.size(), groups.size().getValue());
+        }
+    }
+
+    @Test
+    void groupByObservable_keyChanged_itemMovedToNewGroupInSourceOrder() {
+        var apple = new DefaultObservableValue<>('a');
+        var banana = new DefaultObservableValue<>('b');
+        var cherry = new DefaultObservableValue<>('b');
+        var list = new DefaultObservableList<>(List.of(apple, banana, cherry));
+        var groups = list.groupByObservable(key -> key);
+        var aEvents = new ArrayList<ObservableList.ItemChangeEvent<DefaultObservableValue<Character>>>();
+        groups.get('a').addListener(aEvents::add, false);
+
+        cherry.setValue('a');
+        assertEquals(List.of(apple, cherry), groups.get('a').getItems());
+        assertEquals(List.of(banana), groups.get('b').getItems());
+        assertEquals(List.of(ObservableList.ItemChangeEvent.itemAdded(groups.get('a'), cherry, 1)), aEvents);
+
+        banana.setValue('c');
+        assertFalse(groups.containsKey('b'));
+        assertEquals(List.of(banana), groups.get('c').getItems());
+    }
+
+    @Test
+    void groupByObservable_itemRemoved_keyNoLongerObserved() {
+        var key = new DefaultObservableValue<>('a');
+        var list = new DefaultObservableList<>(List.of(key));
+        var groups = list.groupByObservable(k -> k);
+
+        list.clear();
+        key.setValue('b');
+
+        assertTrue(groups.isEmpty());
+    }
+
+    @Test
+    void groupByObservable_randomEditsAndKeyChanges_agreeWithFullRegrouping() {
+        var random = new Random(42);
+        var list = new DefaultObservableList<DefaultObservableValue<Integer>>();
+        var groups = list.groupByObservable(key -> key);
+
+        for (int i = 0; i < 2000; ++i) {
+            var operation = random.nextInt(10);
+            if (operation < 4 || list.isEmpty()) {
+                list.add(random.nextInt(list.getSize() + 1), new DefaultObservableValue<>(random.nextInt(7)));
+            } else if (operation < 6) {
+                list.remove(random.nextInt(list.getSize()));
+            } else if (operation < 7) {
+                list.move(random.nextInt(list.getSize()), random.nextInt(list.getSize()));
+            } else {
+                list.get(random.nextInt(list.getSize())).setValue(random.nextInt(7));
+            }
+
+            Map<Integer, List<DefaultObservableValue<Integer>>> expected = list.stream()
+                    .collect(Collectors.groupingBy(DefaultObservableValue::getValue));
+            assertEquals(expected, groups.asMap().entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().getItems())));
+        }
+    }
+}
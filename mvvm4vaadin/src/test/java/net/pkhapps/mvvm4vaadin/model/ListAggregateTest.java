@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListAggregateTest {
+
+    @Test
+    void count_followsList() {
+        var list = new DefaultObservableList<>(List.of("hello", "cruel", "world"));
+        var count = list.count(s -> s.contains("l"));
+        var events = new ArrayList<ObservableValue.ValueChangeEvent<Integer>>();
+        count.addListener(events::add, false);
+        assertEquals(3, count.getValue());
+
+        list.add("farewell");
+        assertEquals(4, count.getValue());
+        list.add("and");
+        assertEquals(4, count.getValue());
+        list.remove("cruel");
+        assertEquals(3, count.getValue());
+        list.move(0, 2);
+        list.setItems(List.of("nope", "yes"));
+        assertEquals(0, count.getValue());
+
+        assertEquals(List.of(4, 3, 0), events.stream().map(ObservableValue.ValueChangeEvent::getValue).collect(Collectors.toList()));
+    }
+
+    @Test
+    void sum_followsList() {
+        var list = new DefaultObservableList<>(List.of("a", "bb", "ccc"));
+        var sum = list.sum(String::length);
+        assertEquals(6L, sum.getValue());
+
+        list.add(1, "dddd");
+        assertEquals(10L, sum.getValue());
+        list.remove(0);
+        assertEquals(9L, sum.getValue());
+        list.clear();
+        assertEquals(0L, sum.getValue());
+    }
+
+    @Test
+    void countAndSum_itemMutatedWhileInList_storedContributionRemoved() {
+        var first = new StringBuilder("ab");
+        var second = new StringBuilder("c");
+        var list = new DefaultObservableList<>(List.of(first, second));
+        var count = list.count(sb -> sb.length() > 1);
+        var sum = list.sum(StringBuilder::length);
+        assertEquals(1, count.getValue());
+        assertEquals(3L, sum.getValue());
+
+        first.setLength(0);
+        second.append("def");
+        list.add(0, new StringBuilder("gh"));
+        assertEquals(2, count.getValue());
+        assertEquals(5L, sum.getValue());
+
+        list.remove(1);
+        list.remove(1);
+        assertEquals(1, count.getValue());
+        assertEquals(2L, sum.getValue());
+        assertEquals(list.stream().filter(sb -> sb.length() > 1).count(), (long) count.getValue());
+        assertEquals(list.stream().mapToLong(StringBuilder::length).sum(), sum.getValue());
+    }
+
+    @Test
+    void countAndSum_itemMutatedAndMoved_contributionReevaluated() {
+        var mutable = new StringBuilder("a");
+        var list = new DefaultObservableList<>(List.of(mutable, new StringBuilder("bb")));
+        var count = list.count(sb -> sb.length() > 1);
+        var sum = list.sum(StringBuilder::length);
+
+        mutable.append("aa");
+        list.move(0, 1);
+        assertEquals(2, count.getValue());
+        assertEquals(5L, sum.getValue());
+    }
+
+    @Test
+    void minAndMax_emptyList_null() {
+        var list = new DefaultObservableList<Integer>();
+        var min = list.min(Integer::compare);
+        var max = list.max(Integer::compare);
+        assertNull(min.getValue());
+        assertNull(max.getValue());
+
+        list.add(5);
+        assertEquals(5, min.getValue());
+        assertEquals(5, max.getValue());
+        list.remove(0);
+        assertNull(min.getValue());
+        assertNull(max.getValue());
+    }
+
+    @Test
+    void reduce_nonCommutativeCombiner_keepsListOrder() {
+        var list = new DefaultObservableList<>(List.of("a", "b", "c"));
+        var joined = list.reduce("", s -> s, String::concat);
+        assertEquals("abc", joined.getValue());
+
+        list.move(0, 2);
+        assertEquals("bca", joined.getValue());
+        list.add(1, "x");
+        assertEquals("bxca", joined.getValue());
+        list.remove(3);
+        assertEquals("bxc", joined.getValue());
+    }
+
+    @Test
+    void randomEdits_agreeWithFullRecomputation() {
+        var random = new Random(2023);
+        var list = new DefaultObservableList<Integer>(DefaultObservableList.Storage.TREE);
+        var count = list.count(i -> i % 3 == 0);
+        var sum = list.sum(Integer::longValue);
+        var min = list.min(Integer::compare);
+        var max = list.max(Integer::compare);
+        var joined = list.reduce("", String::valueOf, (a, b) -> a.isEmpty() ? b : b.isEmpty() ? a : a + "," + b);
+
+        for (int i = 0; i < 2000; ++i) {
+            var operation = random.nextInt(10);
+            if (operation < 5 || list.isEmpty()) {
+                list.add(random.nextInt(list.getSize() + 1), random.nextInt(1000));
+            } else if (operation < 8) {
+                list.remove(random.nextInt(list.getSize()));
+            } else if (operation < 9) {
+                list.move(random.nextInt(list.getSize()), random.nextInt(list.getSize()));
+            } else if (random.nextInt(10) == 0) {
+                list.setItems(List.of(3, 1, 2));
+            }
+
+            assertEquals((int) list.stream().filter(n -> n % 3 == 0).count(), count.getValue());
+            assertEquals(list.stream().mapToLong(Integer::longValue).sum(), sum.getValue());
+            assertEquals(list.stream().min(Integer::compare).orElse(null), min.getValue());
+            assertEquals(list.stream().max(Integer::compare).orElse(null), max.getValue());
+            assertEquals(list.stream().map(String::valueOf).collect(Collectors.joining(",")), joined.getValue());
+        }
+    }
+}
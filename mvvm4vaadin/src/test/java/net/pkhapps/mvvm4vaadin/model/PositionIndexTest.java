@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionIndexTest {
+
+    @Test
+    void indexOf_initialItems() {
+        var list = new DefaultObservableList<>(List.of("apple", "banana", "cherry"));
+        var index = list.indexBy(s -> s.charAt(0));
+
+        assertEquals(0, index.indexOf('a'));
+        assertEquals(2, index.indexOf('c'));
+        assertEquals(-1, index.indexOf('x'));
+        assertTrue(index.contains('b'));
+        assertEquals(Optional.of("banana"), index.find('b'));
+    }
+
+    @Test
+    void indexOf_duplicateKeys_firstPositionReturned() {
+        var list = new DefaultObservableList<>(List.of("apple", "avocado", "banana", "apricot"));
+        var index = list.indexBy(s -> s.charAt(0));
+
+        assertEquals(0, index.indexOf('a'));
+        list.remove(0);
+        assertEquals(0, index.indexOf('a'));
+        list.move(0, 2);
+        assertEquals(1, index.indexOf('a'));
+    }
+
+    @Test
+    void randomEdits_agreesWithLinearScan() {
+        var random = new Random(4321);
+        var list = new DefaultObservableList<Integer>();
+        var index = list.indexBy(i -> i % 50);
+
+        for (int i = 0; i < 3000; ++i) {
+            var operation = random.nextInt(10);
+            if (operation < 4 || list.isEmpty()) {
+                list.add(i);
+            } else if (operation < 6) {
+                list.add(random.nextInt(list.getSize() + 1), i);
+            } else if (operation < 8) {
+                list.remove(random.nextInt(list.getSize()));
+            } else if (operation < 9) {
+                list.move(random.nextInt(list.getSize()), random.nextInt(list.getSize()));
+            } else if (random.nextInt(20) == 0) {
+                list.setItems(List.of(1, 2, 3));
+            }
+            var key = random.nextInt(50);
+            assertEquals(linearIndexOf(list, key), index.indexOf(key));
+        }
+    }
+
+    @Test
+    void indexOf_calledFromListener_indexIsUpToDate() {
+        var list = new DefaultObservableList<>(List.of("apple", "banana", "cherry"));
+        var index = list.indexBy(s -> s.charAt(0));
+        var positionSeenByListener = new AtomicInteger();
+        list.addListener(event -> positionSeenByListener.set(index.indexOf('c')), false);
+        list.size().addListener(event -> assertEquals(linearIndexOf(list, 'c'), index.indexOf('c')), false);
+
+        list.move(2, 0);
+        assertEquals(0, positionSeenByListener.get());
+        list.add(0, "date");
+        assertEquals(1, positionSeenByListener.get());
+        list.remove(0);
+        assertEquals(0, positionSeenByListener.get());
+    }
+
+    @Test
+    void itemIndexEnabled_removeAndMoveByItem() {
+        var list = new DefaultObservableList<>(List.of("hello", "awesome", "world"));
+        list.setItemIndexEnabled(true);
+        assertTrue(list.isItemIndexEnabled());
+
+        list.move("world", 0);
+        assertEquals(List.of("world", "hello", "awesome"), list.getItems());
+        list.remove("hello");
+        assertEquals(List.of("world", "awesome"), list.getItems());
+        assertEquals(1, list.indexOf("awesome"));
+        assertEquals(-1, list.indexOf("hello"));
+    }
+
+    private static <T> int linearIndexOf(ObservableList<T> list, Object key) {
+        for (int i = 0; i < list.getSize(); ++i) {
+            var item = list.get(i);
+            var itemKey = item instanceof Integer ? (Object) ((Integer) item % 50) : (Object) ((String) item).charAt(0);
+            if (itemKey.equals(key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PositionalTreeTest {
+
+    @Test
+    void randomEdits_nodesKeepTheirPositions() {
+        var random = new Random(1234);
+        var expected = new ArrayList<PositionalTree.Node<Integer>>();
+        var tree = new PositionalTree<Integer>();
+
+        for (int i = 0; i < 5000; ++i) {
+            if (random.nextInt(3) < 2 || expected.isEmpty()) {
+                var index = random.nextInt(expected.size() + 1);
+                expected.add(index, tree.insert(index, i));
+            } else {
+                tree.remove(expected.remove(random.nextInt(expected.size())));
+            }
+        }
+
+        assertEquals(expected.size(), tree.size());
+        for (int i = 0; i < expected.size(); ++i) {
+            assertSame(expected.get(i), tree.getNode(i));
+            assertEquals(i, tree.indexOf(expected.get(i)));
+        }
+    }
+
+    @Test
+    void randomEdits_reductionKeptInOrder() {
+        var random = new Random(1234);
+        var expected = new ArrayList<String>();
+        var tree = new PositionalTree<>("", String::concat);
+
+        for (int i = 0; i < 2000; ++i) {
+            var operation = random.nextInt(10);
+            if (operation < 5 || expected.isEmpty()) {
+                var index = random.nextInt(expected.size() + 1);
+                expected.add(index, Integer.toString(i % 10));
+                tree.insert(index, Integer.toString(i % 10));
+            } else if (operation < 8) {
+                var index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), tree.remove(index));
+            } else {
+                var index = random.nextInt(expected.size());
+                assertEquals(expected.set(index, "x"), tree.set(index, "x"));
+            }
+            assertEquals(String.join("", expected), tree.result());
+        }
+    }
+
+    @Test
+    void snapshot_neverChangesAndReductionStillCorrect() {
+        var tree = new PositionalTree<>(0L, Long::sum);
+        tree.reset(List.of(1L, 2L, 3L, 4L, 5L));
+        var snapshot = tree.snapshot();
+
+        tree.remove(0);
+        tree.insert(2, 10L);
+        tree.set(0, 20L);
+        var secondSnapshot = tree.snapshot();
+        tree.clear();
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), snapshot);
+        assertEquals(List.of(20L, 3L, 10L, 4L, 5L), secondSnapshot);
+        assertEquals(0L, tree.result());
+        tree.reset(secondSnapshot);
+        assertEquals(42L, tree.result());
+    }
+}
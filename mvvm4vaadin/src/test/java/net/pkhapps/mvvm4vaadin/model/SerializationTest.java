@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import com.vaadin.flow.function.SerializableConsumer;
+import com.vaadin.flow.shared.Registration;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SerializationTest {
+
+    @Test
+    void mappedValue_weakListenerRestored() throws Exception {
+        var value = new DefaultObservableValue<>("hello");
+        var mapped = value.map(String::length);
+
+        var copy = roundTrip(new Object[]{value, mapped});
+        @SuppressWarnings("unchecked") var valueCopy = (DefaultObservableValue<String>) copy[0];
+        @SuppressWarnings("unchecked") var mappedCopy = (ObservableValue<Integer>) copy[1];
+
+        assertEquals(5, mappedCopy.getValue());
+        valueCopy.setValue("hello world");
+        assertEquals(11, mappedCopy.getValue());
+    }
+
+    @Test
+    void strongListener_registrationStillWorks() throws Exception {
+        var value = new DefaultObservableValue<>("hello");
+        var events = new ArrayList<String>();
+        var registration = value.addListener(new RecordingListener(events), false);
+
+        var copy = roundTrip(new Object[]{value, registration});
+        @SuppressWarnings("unchecked") var valueCopy = (DefaultObservableValue<String>) copy[0];
+        var registrationCopy = (Registration) copy[1];
+
+        valueCopy.setValue("world");
+        registrationCopy.remove();
+        valueCopy.setValue("again");
+        assertEquals(1, RecordingListener.lastInstance.events.size());
+        assertTrue(events.isEmpty());
+    }
+
+    @Test
+    void publicWeakListener_restoredWhenSourceWrittenFirst() throws Exception {
+        var value = new DefaultObservableValue<>("hello");
+        var holder = new WeakListenerHolder(value);
+
+        var copy = roundTrip(new Object[]{value, holder});
+        @SuppressWarnings("unchecked") var valueCopy = (DefaultObservableValue<String>) copy[0];
+        var holderCopy = (WeakListenerHolder) copy[1];
+
+        valueCopy.setValue("world");
+        assertEquals(List.of("world"), holderCopy.events);
+    }
+
+    @Test
+    void weakListenerWithNonSerializableCapture_leftOut() throws Exception {
+        var value = new DefaultObservableValue<>("hello");
+        var notSerializable = new Object();
+        SerializableConsumer<ObservableValue.ValueChangeEvent<String>> listener = event -> notSerializable.hashCode();
+        value.addWeakListener(listener, false);
+
+        var valueCopy = roundTrip(value);
+
+        valueCopy.setValue("world");
+        assertEquals("world", valueCopy.getValue());
+        assertNotNull(listener);
+    }
+
+    @Test
+    void list_itemsAndDerivedObservablesRestored() throws Exception {
+        var list = new DefaultObservableList<>(DefaultObservableList.Storage.TREE, List.of("hello", "cruel", "world"));
+        var mapped = list.map(String::toUpperCase);
+        var index = list.indexBy(s -> s.charAt(0));
+        assertEquals(1, index.indexOf('c'));
+
+        var copy = roundTrip(new Object[]{list, mapped, index});
+        @SuppressWarnings("unchecked") var listCopy = (DefaultObservableList<String>) copy[0];
+        @SuppressWarnings("unchecked") var mappedCopy = (ObservableList<String>) copy[1];
+        @SuppressWarnings("unchecked") var indexCopy = (PositionIndex<String, Character>) copy[2];
+
+        assertEquals(List.of("hello", "cruel", "world"), listCopy.getItems());
+        assertEquals(3, listCopy.size().getValue());
+        listCopy.remove(0);
+        assertEquals(List.of("CRUEL", "WORLD"), mappedCopy.getItems());
+        assertEquals(0, indexCopy.indexOf('c'));
+        assertEquals(-1, indexCopy.indexOf('h'));
+    }
+
+    @Test
+    void groupedMap_groupsAndKeyListenersRestored() throws Exception {
+        var list = new DefaultObservableList<>(List.of(new DefaultObservableValue<>("a"), new DefaultObservableValue<>("b"),
+                new DefaultObservableValue<>("a")));
+        var groups = list.groupByObservable(key -> key);
+
+        var copy = roundTrip(new Object[]{list, groups});
+        @SuppressWarnings("unchecked") var listCopy = (DefaultObservableList<DefaultObservableValue<String>>) copy[0];
+        @SuppressWarnings("unchecked") var groupsCopy = (ObservableMap<String, ObservableList<DefaultObservableValue<String>>>) copy[1];
+
+        listCopy.get(1).setValue("a");
+        assertEquals(listCopy.getItems(), groupsCopy.get("a").getItems());
+        listCopy.remove(0);
+        assertEquals(List.of(listCopy.get(0), listCopy.get(1)), groupsCopy.get("a").getItems());
+        assertFalse(groupsCopy.containsKey("b"));
+    }
+
+    @Test
+    void treeStorage_writtenAsCompactlyAsArrayStorage() throws Exception {
+        var items = IntStream.range(0, 10_000).boxed().collect(Collectors.toList());
+        var arrayBytes = serialize(new DefaultObservableList<>(DefaultObservableList.Storage.ARRAY, items)).length;
+        var treeBytes = serialize(new DefaultObservableList<>(DefaultObservableList.Storage.TREE, items)).length;
+        assertTrue(treeBytes < arrayBytes * 1.05, "tree: " + treeBytes + " bytes, array: " + arrayBytes + " bytes");
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T roundTrip(T object) throws IOException, ClassNotFoundException {
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(serialize(object)))) {
+            return (T) in.readObject();
+        }
+    }
+
+    private static class WeakListenerHolder implements Serializable {
+
+        private final List<String> events = new ArrayList<>();
+        private final SerializableConsumer<ObservableValue.ValueChangeEvent<String>> listener = this::onValueChange;
+
+        private WeakListenerHolder(ObservableValue<String> value) {
+            value.addWeakListener(listener, false);
+        }
+
+        private void onValueChange(ObservableValue.ValueChangeEvent<String> event) {
+            events.add(event.getValue());
+        }
+    }
+
+    private static class RecordingListener implements SerializableConsumer<ObservableValue.ValueChangeEvent<String>> {
+
+        private static RecordingListener lastInstance;
+        private final List<String> events;
+
+        private RecordingListener(List<String> events) {
+            this.events = events;
+        }
+
+        @Override
+        public void accept(ObservableValue.ValueChangeEvent<String> event) {
+            events.add(event.getValue());
+        }
+
+        private Object readResolve() {
+            lastInstance = this;
+            return this;
+        }
+    }
+}
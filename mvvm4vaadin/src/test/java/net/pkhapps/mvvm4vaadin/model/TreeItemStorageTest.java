@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TreeItemStorageTest {
+
+    @Test
+    void randomEdits_behavesLikeArrayList() {
+        var random = new Random(1234);
+        var expected = new ArrayList<Integer>();
+        var storage = new TreeItemStorage<Integer>();
+
+        for (int i = 0; i < 5000; ++i) {
+            var operation = random.nextInt(10);
+            if (operation < 5 || expected.isEmpty()) {
+                var index = random.nextInt(expected.size() + 1);
+                expected.add(index, i);
+                storage.add(index, i);
+            } else if (operation < 8) {
+                var index = random.nextInt(expected.size());
+                assertEquals(expected.remove(index), storage.remove(index));
+            } else {
+                var index = random.nextInt(expected.size());
+                assertEquals(expected.set(index, -i), storage.set(index, -i));
+            }
+        }
+
+        assertEquals(expected.size(), storage.size());
+        assertEquals(expected, storage);
+        for (int i = 0; i < expected.size(); ++i) {
+            assertEquals(expected.get(i), storage.get(i));
+        }
+    }
+
+    @Test
+    void addAll_appendsItems() {
+        var storage = new TreeItemStorage<Integer>();
+        storage.add(0, 1);
+        storage.addAll(List.of(2, 3, 4));
+        storage.add(0, 0);
+        assertEquals(List.of(0, 1, 2, 3, 4), storage);
+    }
+
+    @Test
+    void addAll_smallBatchToLargeTree_appendsItemsWithoutChangingSnapshot() {
+        var storage = new TreeItemStorage<Integer>();
+        storage.addAll(IntStream.range(0, 1000).boxed().collect(Collectors.toList()));
+        var snapshot = storage.snapshot();
+
+        storage.addAll(List.of(1000, 1001, 1002));
+
+        assertEquals(IntStream.range(0, 1003).boxed().collect(Collectors.toList()), storage);
+        assertEquals(1000, snapshot.size());
+    }
+
+    @Test
+    void get_outOfBounds_exceptionThrown() {
+        var storage = new TreeItemStorage<String>();
+        storage.add(0, "hello");
+        assertThrows(IndexOutOfBoundsException.class, () -> storage.get(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> storage.get(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> storage.add(2, "world"));
+        assertThrows(IndexOutOfBoundsException.class, () -> storage.remove(1));
+    }
+
+    @Test
+    void snapshot_sharesStructureButNeverChanges() {
+        var storage = new TreeItemStorage<Integer>();
+        storage.addAll(IntStream.range(0, 1000).boxed().collect(Collectors.toList()));
+        var snapshot = storage.snapshot();
+
+        storage.remove(500);
+        storage.add(0, -1);
+        storage.set(10, -10);
+        storage.clear();
+
+        assertEquals(IntStream.range(0, 1000).boxed().collect(Collectors.toList()), snapshot);
+        assertTrue(storage.isEmpty());
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(1));
+    }
+
+    @Test
+    void snapshot_parallelStream_seesAllItems() {
+        var storage = new TreeItemStorage<Integer>();
+        for (int i = 0; i < 100_000; ++i) {
+            storage.add(i / 2, i);
+        }
+        var snapshot = storage.snapshot();
+        assertEquals(4_999_950_000L, snapshot.parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(snapshot, StreamSupport.stream(snapshot.spliterator(), true).collect(Collectors.toList()));
+    }
+}
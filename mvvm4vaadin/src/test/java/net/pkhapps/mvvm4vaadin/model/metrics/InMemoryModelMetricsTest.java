@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model.metrics;
+
+import com.vaadin.flow.shared.Registration;
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableList;
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InMemoryModelMetricsTest {
+
+    private final InMemoryModelMetrics metrics = new InMemoryModelMetrics();
+    private Registration registration;
+
+    @BeforeEach
+    void setUp() {
+        registration = ModelMetricsRegistry.register(metrics);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registration.remove();
+    }
+
+    @Test
+    void register_unregister_noopRestored() {
+        assertSame(metrics, ModelMetricsRegistry.get());
+        registration.remove();
+        assertSame(ModelMetrics.NOOP, ModelMetricsRegistry.get());
+    }
+
+    @Test
+    void setValue_eventsAndListenersCounted() {
+        var value = new DefaultObservableValue<>("hello");
+        value.addListener(event -> {
+        }, false);
+        value.addListener(event -> {
+        }, false);
+
+        value.setValue("world");
+
+        assertEquals(1, metrics.getEventsFired());
+        assertEquals(2, metrics.getListenersInvoked());
+        assertEquals(1, metrics.getMaxPropagationDepth());
+        assertEquals(1L, metrics.getEventsFiredBySenderClass().get(DefaultObservableValue.class.getName()));
+    }
+
+    @Test
+    void setValue_derivedValues_recomputationsAndDepthCounted() {
+        var value = new DefaultObservableValue<>("hello");
+        var length = value.map(String::length);
+        var isLong = length.map(l -> l > 5);
+        metrics.reset();
+
+        value.setValue("world");
+
+        assertEquals(1, metrics.getRecomputations());
+        assertEquals(0, metrics.getChangingRecomputations());
+        assertEquals(1, metrics.getMaxPropagationDepth());
+
+        value.setValue("hello, world");
+
+        assertEquals(3, metrics.getRecomputations());
+        assertEquals(2, metrics.getChangingRecomputations());
+        assertEquals(3, metrics.getMaxPropagationDepth());
+        assertTrue(isLong.getValue());
+    }
+
+    @Test
+    void listMutations_counted() {
+        var list = new DefaultObservableList<>(List.of("a", "b", "c"));
+        metrics.reset();
+
+        list.add("d");
+        list.move(0, 2);
+        list.remove(0);
+        list.removeIf(s -> s.equals("a") || s.equals("c"));
+        list.clear();
+
+        // removeIf reports every removed item separately
+        assertEquals(6, metrics.getListMutations());
+    }
+
+    @Test
+    void multipleImplementations_allNotified() {
+        var other = new InMemoryModelMetrics();
+        var otherRegistration = ModelMetricsRegistry.register(other);
+        try {
+            new DefaultObservableValue<>("hello").setValue("world");
+        } finally {
+            otherRegistration.remove();
+        }
+        assertEquals(1, metrics.getEventsFired());
+        assertEquals(1, other.getEventsFired());
+        assertSame(metrics, ModelMetricsRegistry.get());
+    }
+}
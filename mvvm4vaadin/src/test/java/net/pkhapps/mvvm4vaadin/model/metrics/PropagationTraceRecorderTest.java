@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model.metrics;
+
+import com.vaadin.flow.shared.Registration;
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableList;
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PropagationTraceRecorderTest {
+
+    private final PropagationTraceRecorder recorder = new PropagationTraceRecorder(4);
+    private Registration registration;
+
+    @BeforeEach
+    void setUp() {
+        registration = ModelMetricsRegistry.register(recorder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registration.remove();
+    }
+
+    @Test
+    void setValue_cascadeRecordedInFiringOrder() {
+        var value = new DefaultObservableValue<>("hello");
+        var length = value.map(String::length);
+        var doubled = length.map(l -> l * 2);
+        recorder.clear();
+
+        value.setValue("hi");
+
+        var entries = recorder.getEntries();
+        assertEquals(3, entries.size());
+        assertEquals(System.identityHashCode(value), entries.get(0).getSenderIdentity());
+        assertEquals(System.identityHashCode(length), entries.get(1).getSenderIdentity());
+        assertEquals(System.identityHashCode(doubled), entries.get(2).getSenderIdentity());
+        assertEquals(DefaultObservableValue.class.getName(), entries.get(0).getSenderClassName());
+        assertEquals(List.of(1, 2, 3), entries.stream().map(PropagationTraceRecorder.Entry::getDepth)
+                .collect(Collectors.toList()));
+        assertEquals("hello", entries.get(0).getOldValue());
+        assertEquals("hi", entries.get(0).getNewValue());
+        assertEquals("10", entries.get(2).getOldValue());
+        assertEquals("4", entries.get(2).getNewValue());
+        assertEquals("hello -> hi", entries.get(0).getDescription());
+        assertEquals(1, entries.get(0).getListenerCount());
+        assertTrue(entries.get(0).getDuration().compareTo(entries.get(2).getDuration()) >= 0);
+    }
+
+    @Test
+    void setValue_valuesFormattedOnlyWhenRead() {
+        var toStringCalls = new AtomicInteger();
+        var value = new DefaultObservableValue<Object>(null);
+        recorder.clear();
+
+        value.setValue(new Object() {
+            @Override
+            public String toString() {
+                toStringCalls.incrementAndGet();
+                return "formatted";
+            }
+        });
+
+        assertEquals(0, toStringCalls.get());
+        assertEquals("null -> formatted", recorder.getEntries().get(0).getDescription());
+        assertTrue(toStringCalls.get() > 0);
+    }
+
+    @Test
+    void bufferFull_oldestEventsOverwritten() {
+        var list = new DefaultObservableList<String>();
+        recorder.clear();
+
+        for (int i = 0; i < 6; ++i) {
+            list.add("item " + i);
+        }
+
+        // Every add also fires the size of the list, and the first add fires the empty flag too
+        var entries = recorder.getEntries();
+        assertEquals(4, entries.size());
+        assertTrue(entries.stream().allMatch(entry -> entry.getDepth() == 1));
+        assertEquals(System.identityHashCode(list), entries.get(entries.size() - 1).getSenderIdentity());
+        assertEquals("added item 5 at 5", entries.get(entries.size() - 1).getDescription());
+    }
+
+    @Test
+    void clear_nothingRecorded() {
+        new DefaultObservableValue<>("hello").setValue("world");
+        recorder.clear();
+
+        assertTrue(recorder.getEntries().isEmpty());
+        assertEquals("", recorder.dump());
+    }
+
+    @Test
+    void dump_oneIndentedLinePerEvent() {
+        var value = new DefaultObservableValue<>("hello");
+        value.map(String::length);
+        recorder.clear();
+
+        value.setValue("hi");
+
+        var lines = recorder.dump().split(System.lineSeparator());
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("DefaultObservableValue@"));
+        assertTrue(lines[0].contains("hello -> hi"));
+        assertTrue(lines[1].contains("  MappedObservableValue@"));
+        assertTrue(lines[1].contains("5 -> 2"));
+    }
+
+    @Test
+    void clearAll_eventsOfOtherThreadsCleared() throws Exception {
+        var otherThread = Executors.newSingleThreadExecutor();
+        try {
+            otherThread.submit(() -> new DefaultObservableValue<>("hello").setValue("world")).get();
+            assertEquals(1, otherThread.submit(() -> recorder.getEntries().size()).get());
+
+            recorder.clearAll();
+
+            assertEquals(0, otherThread.submit(() -> recorder.getEntries().size()).get());
+        } finally {
+            otherThread.shutdown();
+        }
+    }
+
+    @Test
+    void unregistered_buffersOfAllThreadsDropped() throws Exception {
+        var pooledThread = Executors.newSingleThreadExecutor();
+        try {
+            pooledThread.submit(() -> new DefaultObservableValue<>("hello").setValue("world")).get();
+
+            registration.remove();
+
+            assertEquals(0, pooledThread.submit(() -> recorder.getEntries().size()).get());
+        } finally {
+            pooledThread.shutdown();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model.metrics;
+
+import com.vaadin.flow.function.SerializableConsumer;
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableValue;
+import net.pkhapps.mvvm4vaadin.model.Observable;
+import net.pkhapps.mvvm4vaadin.model.ObservableValue;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SlowListenerDetectorTest {
+
+    private final List<Object[]> reports = new ArrayList<>();
+
+    @Test
+    void enabled_slowListenerReported() {
+        var value = new DefaultObservableValue<>("hello");
+        SerializableConsumer<ObservableValue.ValueChangeEvent<String>> slowListener = event -> sleep(20);
+        value.addListener(slowListener, false);
+        value.addListener(event -> {
+        }, false);
+
+        var registration = SlowListenerDetector.enable(Duration.ofMillis(10), 1.0, this::report);
+        try {
+            value.setValue("world");
+        } finally {
+            registration.remove();
+        }
+
+        assertEquals(1, reports.size());
+        assertSame(value, reports.get(0)[0]);
+        assertSame(slowListener, reports.get(0)[1]);
+        assertTrue(((Duration) reports.get(0)[2]).toMillis() >= 10);
+    }
+
+    @Test
+    void disabled_nothingReported() {
+        var value = new DefaultObservableValue<>("hello");
+        value.addListener(event -> sleep(20), false);
+
+        SlowListenerDetector.enable(Duration.ofMillis(10), 1.0, this::report).remove();
+        value.setValue("world");
+
+        assertTrue(reports.isEmpty());
+        assertFalse(SlowListenerDetector.isEnabled());
+    }
+
+    @Test
+    void zeroSamplingRate_nothingReported() {
+        var value = new DefaultObservableValue<>("hello");
+        value.addListener(event -> sleep(20), false);
+
+        var registration = SlowListenerDetector.enable(Duration.ofMillis(10), 0.0, this::report);
+        try {
+            value.setValue("world");
+        } finally {
+            registration.remove();
+        }
+
+        assertTrue(reports.isEmpty());
+    }
+
+    @Test
+    void enabled_eventMetricsStillNoop() {
+        var registration = SlowListenerDetector.enable(Duration.ofMillis(10), 1.0, this::report);
+        try {
+            assertSame(ModelMetrics.NOOP, ModelMetricsRegistry.get());
+            assertNotSame(ModelMetrics.NOOP, ModelMetricsRegistry.getListenerTiming());
+        } finally {
+            registration.remove();
+        }
+        assertSame(ModelMetrics.NOOP, ModelMetricsRegistry.getListenerTiming());
+    }
+
+    @Test
+    void enable_invalidSamplingRate_exceptionThrown() {
+        assertThrows(IllegalArgumentException.class,
+                () -> SlowListenerDetector.enable(Duration.ofMillis(10), 1.5, this::report));
+    }
+
+    @Test
+    void enable_reconfigured_oldRegistrationDoesNotDisable() {
+        var first = SlowListenerDetector.enable(Duration.ofMillis(10), 1.0, this::report);
+        var second = SlowListenerDetector.enable(Duration.ofMillis(10), 1.0, this::report);
+        try {
+            first.remove();
+            assertTrue(SlowListenerDetector.isEnabled());
+        } finally {
+            second.remove();
+        }
+        assertFalse(SlowListenerDetector.isEnabled());
+    }
+
+    @Test
+    void enabled_nestedSlowListener_onlyNestedListenerReported() {
+        var value = new DefaultObservableValue<>("hello");
+        var length = new DefaultObservableValue<>(5);
+        SerializableConsumer<ObservableValue.ValueChangeEvent<String>> outerListener =
+                event -> length.setValue(event.getValue().length());
+        SerializableConsumer<ObservableValue.ValueChangeEvent<Integer>> slowListener = event -> sleep(20);
+        value.addListener(outerListener, false);
+        length.addListener(slowListener, false);
+
+        var registration = SlowListenerDetector.enable(Duration.ofMillis(10), 1.0, this::report);
+        try {
+            value.setValue("hi");
+        } finally {
+            registration.remove();
+        }
+
+        assertEquals(1, reports.size());
+        assertSame(length, reports.get(0)[0]);
+        assertSame(slowListener, reports.get(0)[1]);
+    }
+
+    @Test
+    void enabled_nestedEventNotSampled_nestedListenerStillTimed() {
+        var value = new DefaultObservableValue<>("hello");
+        var length = new DefaultObservableValue<>(5);
+        value.addListener(event -> length.setValue(event.getValue().length()), false);
+        length.addListener(event -> sleep(20), false);
+
+        // Sample the first event only, which is the change of the outer value
+        var sampled = new boolean[1];
+        var registration = ModelMetricsRegistry.register(new ModelMetrics() {
+            @Override
+            public boolean timeListeners(Observable<?> observable, Object event) {
+                var first = !sampled[0];
+                sampled[0] = true;
+                return first;
+            }
+
+            @Override
+            public void listenerTimed(Observable<?> observable, Object listener, long selfNanos, long totalNanos) {
+                reports.add(new Object[]{observable, listener, Duration.ofNanos(selfNanos), Duration.ofNanos(totalNanos)});
+            }
+        });
+        try {
+            value.setValue("hi");
+        } finally {
+            registration.remove();
+        }
+
+        assertEquals(2, reports.size());
+        assertSame(length, reports.get(0)[0]);
+        assertSame(value, reports.get(1)[0]);
+        assertTrue(((Duration) reports.get(1)[2]).toMillis() < 10);
+        assertTrue(((Duration) reports.get(1)[3]).toMillis() >= 10);
+    }
+
+    private void report(Observable<?> observable, Object listener, Duration duration) {
+        reports.add(new Object[]{observable, listener, duration});
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2023 Petter Holmström
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package net.pkhapps.mvvm4vaadin.model.replication;
+
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableList;
+import net.pkhapps.mvvm4vaadin.model.DefaultObservableValue;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChangeTrackerTest {
+
+    @Test
+    void createDelta_changedValue_appliedOnOtherNode() {
+        var nodeA = new Node();
+        var nodeB = new Node();
+
+        nodeA.title.setValue("hello");
+        assertTrue(nodeA.tracker.isDirty());
+        nodeB.tracker.applyDelta(nodeA.tracker.createDelta());
+
+        assertEquals("hello", nodeB.title.getValue());
+        assertFalse(nodeA.tracker.isDirty());
+        assertFalse(nodeB.tracker.isDirty());
+        assertEquals(nodeA.tracker.getVersion(), nodeB.tracker.getVersion());
+    }
+
+    @Test
+    void createDelta_noChanges_emptyDelta() {
+        var nodeA = new Node(List.of("a"));
+        var nodeB = new Node(List.of("a"));
+
+        nodeB.tracker.applyDelta(nodeA.tracker.createDelta());
+        nodeA.title.setValue("changed");
+        nodeB.tracker.applyDelta(nodeA.tracker.createDelta());
+        nodeB.tracker.applyDelta(nodeA.tracker.createDelta());
+
+        assertEquals("changed", nodeB.title.getValue());
+        assertEquals(List.of("a"), nodeB.items.getItems());
+        assertEquals(1, nodeB.tracker.getVersion());
+    }
+
+    @Test
+    void createDelta_listEdits_replayedOnOtherNode() {
+        var nodeA = new Node(List.of("a", "b", "c", "d", "e"));
+        var nodeB = new Node(List.of("a", "b", "c", "d", "e"));
+
+        nodeA.items.add(1, "x");
+        nodeA.items.remove("c");
+        nodeA.items.move(0, 3);
+        nodeB.tracker.applyDelta(nodeA.tracker.createDelta());
+        assertEquals(nodeA.items.getItems(), nodeB.items.getItems());
+
+        nodeA.items.setItems(List.of("y", "z"));
+        nodeA.items.add("w");
+        nodeB.tracker.applyDelta(nodeA.tracker.createDelta());
+        assertEquals(List.of("y", "z", "w"), nodeB.items.getItems());
+    }
+
+    @Test
+    void applyDelta_changesNotTracked() {
+        var nodeA = new Node();
+        var nodeB = new Node();
+
+        nodeA.title.setValue("from A");
+        nodeB.tracker.applyDelta(nodeA.tracker.createDelta());
+        assertFalse(nodeB.tracker.isDirty());
+
+        nodeB.items.add("from B");
+        nodeA.tracker.applyDelta(nodeB.tracker.createDelta());
+        assertEquals(List.of("from B"), nodeA.items.getItems());
+        assertEquals("from A", nodeA.title.getValue());
+    }
+
+    @Test
+    void applyDelta_outOfSequence_exceptionThrown() {
+        var nodeA = new Node();
+        var nodeB = new Node();
+
+        nodeA.title.setValue("first");
+        nodeA.tracker.createDelta();
+        nodeA.title.setValue("second");
+        var second = nodeA.tracker.createDelta();
+
+        assertThrows(IllegalStateException.class, () -> nodeB.tracker.applyDelta(second));
+    }
+
+    @Test
+    void applyDelta_unreplicatedChanges_exceptionThrown() {
+        var nodeA = new Node();
+        var nodeB = new Node();
+        nodeA.title.setValue("A");
+        nodeB.title.setValue("B");
+
+        var delta = nodeA.tracker.createDelta();
+        assertThrows(IllegalStateException.class, () -> nodeB.tracker.applyDelta(delta));
+    }
+
+    @Test
+    void unregister_noLongerTracked() {
+        var nodeA = new Node();
+        var registration = nodeA.tracker.track("other", new DefaultObservableValue<String>());
+        registration.remove();
+        registration.remove();
+        assertDoesNotThrow(() -> nodeA.tracker.track("other", new DefaultObservableValue<String>()));
+        assertThrows(IllegalArgumentException.class, () -> nodeA.tracker.track("title", new DefaultObservableValue<String>()));
+    }
+
+    @Test
+    void createDelta_smallChangeToLargeModel_muchSmallerThanWholeGraph() throws Exception {
+        var items = IntStream.range(0, 1000).mapToObj(i -> "Item number " + i).collect(Collectors.toList());
+        var nodeA = new Node(items);
+        var nodeB = new Node(items);
+
+        nodeA.title.setValue("changed");
+        nodeA.items.add(500, "new item");
+        var delta = nodeA.tracker.createDelta();
+        nodeB.tracker.applyDelta(delta);
+
+        assertEquals(nodeA.items.getItems(), nodeB.items.getItems());
+        assertTrue(delta.length * 20 < serialize(nodeA).length);
+    }
+
+    @Test
+    void serializedNode_keepsTracking() throws Exception {
+        var nodeA = (Node) deserialize(serialize(new Node()));
+        var nodeB = new Node();
+
+        nodeA.title.setValue("after deserialization");
+        nodeA.items.add("item");
+        nodeB.tracker.applyDelta(nodeA.tracker.createDelta());
+
+        assertEquals("after deserialization", nodeB.title.getValue());
+        assertEquals(List.of("item"), nodeB.items.getItems());
+    }
+
+    private static byte[] serialize(Object object) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        try (var out = new ObjectOutputStream(bytes)) {
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (var in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+
+    /**
+     * Simulates the session of one node in the cluster.
+     */
+    private static class Node implements Serializable {
+
+        final ChangeTracker tracker = new ChangeTracker();
+        final DefaultObservableValue<String> title = new DefaultObservableValue<>();
+        final DefaultObservableList<String> items;
+
+        Node() {
+            this(List.of());
+        }
+
+        Node(List<String> initialItems) {
+            items = new DefaultObservableList<>(initialItems);
+            tracker.track("title", title);
+            tracker.track("items", items);
+        }
+    }
+}